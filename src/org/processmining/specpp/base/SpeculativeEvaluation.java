@@ -0,0 +1,24 @@
+package org.processmining.specpp.base;
+
+/**
+ * An evaluation step of a composer that may be performed ahead of time, concurrently to the composition of earlier candidates.
+ *
+ * @param <C> candidate type
+ * @param <E> type of the precomputed result
+ */
+public interface SpeculativeEvaluation<C extends Candidate, E> {
+
+    /**
+     * Computes the result for {@code candidate}. Is called from worker threads and must hence neither mutate nor depend on the state of the composition.
+     * Evaluators used in here have to be safe for concurrent use.
+     */
+    E speculate(C candidate);
+
+    /**
+     * Hands over a speculatively computed result right before {@code candidate} is accepted by the composer.
+     * Is called on the thread executing the PEC cycle.
+     * The composer has to check that the result still applies, e.g. that it was computed on data that has not changed since, and otherwise recompute it.
+     */
+    void prime(C candidate, E result);
+
+}
@@ -0,0 +1,32 @@
+package org.processmining.specpp.base;
+
+/**
+ * A proposer that supports being run ahead of the composer.
+ * Candidates proposed speculatively may be invalidated by constraints that are only issued afterwards, i.e. while deliberating on earlier candidates.
+ *
+ * @param <C> candidate type
+ */
+public interface SpeculativeProposer<C extends Candidate> extends Proposer<C> {
+
+    /**
+     * @param candidate a previously proposed candidate
+     * @return whether a constraint received since {@code candidate} was proposed would have prevented its proposal
+     */
+    boolean isObsolete(C candidate);
+
+    /**
+     * Signals that {@code candidate} will not be handed to the composer.
+     * As it is hence never deliberated on, none of its descendants are to be proposed either.
+     *
+     * @param candidate a previously proposed candidate
+     */
+    void discard(C candidate);
+
+    /**
+     * @return the largest number of candidates that may be proposed ahead of the one being composed, e.g. because constraints can only be attributed to sufficiently recent proposals, or {@code 0} if the proposal order depends on the composition itself
+     */
+    default int getMaximalSpeculationWindow() {
+        return Integer.MAX_VALUE;
+    }
+
+}
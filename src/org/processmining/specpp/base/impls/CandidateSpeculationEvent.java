@@ -0,0 +1,28 @@
+package org.processmining.specpp.base.impls;
+
+import org.processmining.specpp.base.Candidate;
+import org.processmining.specpp.supervision.observations.Event;
+
+public class CandidateSpeculationEvent<C extends Candidate> implements Event {
+
+    public enum SpeculationAction {
+        Speculate, Invalidate
+    }
+
+    protected final C candidate;
+    protected final SpeculationAction action;
+
+    public CandidateSpeculationEvent(C candidate, SpeculationAction action) {
+        this.candidate = candidate;
+        this.action = action;
+    }
+
+    public C getCandidate() {
+        return candidate;
+    }
+
+    public SpeculationAction getAction() {
+        return action;
+    }
+
+}
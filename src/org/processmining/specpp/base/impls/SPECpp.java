@@ -4,8 +4,13 @@ import org.processmining.specpp.base.Candidate;
 import org.processmining.specpp.base.Composer;
 import org.processmining.specpp.base.Proposer;
 import org.processmining.specpp.base.Result;
+import org.processmining.specpp.base.SpeculativeEvaluation;
+import org.processmining.specpp.base.SpeculativeProposer;
 import org.processmining.specpp.componenting.data.DataRequirements;
 import org.processmining.specpp.componenting.data.StaticDataSource;
+import org.processmining.specpp.componenting.delegators.DelegatingDataSource;
+import org.processmining.specpp.componenting.supervision.SupervisionRequirements;
+import org.processmining.specpp.componenting.system.FullComponentSystemUser;
 import org.processmining.specpp.componenting.system.GlobalComponentRepository;
 import org.processmining.specpp.componenting.system.LocalComponentRepository;
 import org.processmining.specpp.componenting.system.link.AbstractBaseClass;
@@ -16,15 +21,22 @@ import org.processmining.specpp.config.SPECppConfigBundle;
 import org.processmining.specpp.config.components.Configuration;
 import org.processmining.specpp.orchestra.ExternalInitializer;
 import org.processmining.specpp.preprocessing.InputDataBundle;
+import org.processmining.specpp.supervision.EventSupervision;
 import org.processmining.specpp.supervision.Supervisor;
+import org.processmining.specpp.supervision.piping.PipeWorks;
 import org.processmining.specpp.supervision.supervisors.DebuggingSupervisor;
 import org.processmining.specpp.traits.Joinable;
 import org.processmining.specpp.traits.StartStoppable;
+import org.processmining.specpp.traits.Stoppable;
+import org.processmining.specpp.util.JavaTypingUtils;
 
+import java.util.ArrayDeque;
 import java.util.Collection;
+import java.util.Deque;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.Consumer;
 
@@ -48,6 +60,22 @@ public class SPECpp<C extends Candidate, I extends CompositionComponent<C>, R ex
 
     private F finalResult;
 
+    private final DelegatingDataSource<SpeculativeProposer<C>> speculativeProposer = new DelegatingDataSource<>();
+    private final DelegatingDataSource<SpeculativeEvaluation<C, Object>> speculativeEvaluation = new DelegatingDataSource<>();
+    private final EventSupervision<CandidateSpeculationEvent<C>> speculationEvents = PipeWorks.eventSupervision();
+    private final Deque<Speculation<C>> speculations = new ArrayDeque<>();
+    private int speculationWindow;
+    private boolean proposerExhausted;
+
+    private static class Speculation<C> {
+        private final C candidate;
+        private final CompletableFuture<Object> result;
+
+        private Speculation(C candidate, CompletableFuture<Object> result) {
+            this.candidate = candidate;
+            this.result = result;
+        }
+    }
 
     public SPECpp(GlobalComponentRepository cr, List<Supervisor> supervisors, ProposerComponent<C> proposer, ComposerComponent<C, I, R> composer, PostProcessingPipeline<R, F> postProcessor) {
         this.cr = cr;
@@ -62,7 +90,10 @@ public class SPECpp<C extends Candidate, I extends CompositionComponent<C>, R ex
         configuration = new Configuration(cr);
 
         globalComponentSystem().provide(DataRequirements.dataSource("cancel_gracefully", Runnable.class, StaticDataSource.of(this::cancelPECCyclingGracefully)));
-        localComponentSystem().provide(DataRequirements.dataSource("update_local_component_system", Runnable.class, StaticDataSource.of(this::updateLocalComponentSystem)));
+        globalComponentSystem().provide(SupervisionRequirements.observable("pec.speculation", JavaTypingUtils.castClass(CandidateSpeculationEvent.class), speculationEvents));
+        localComponentSystem().provide(DataRequirements.dataSource("update_local_component_system", Runnable.class, StaticDataSource.of(this::updateLocalComponentSystem)))
+                              .require(DataRequirements.dataSource("proposer.speculation", JavaTypingUtils.castClass(SpeculativeProposer.class)), speculativeProposer)
+                              .require(DataRequirements.dataSource("composer.speculation", JavaTypingUtils.castClass(SpeculativeEvaluation.class)), speculativeEvaluation);
         registerSubComponent(proposer);
         registerSubComponent(composer);
     }
@@ -113,6 +144,8 @@ public class SPECpp<C extends Candidate, I extends CompositionComponent<C>, R ex
         composerLcr.fulfil(proposerLcr);
         localComponentSystem().fulfil(proposerLcr);
         localComponentSystem().fulfil(composerLcr);
+        localComponentSystem().fulfilFrom(proposerLcr);
+        localComponentSystem().fulfilFrom(composerLcr);
     }
 
     @Override
@@ -138,7 +171,33 @@ public class SPECpp<C extends Candidate, I extends CompositionComponent<C>, R ex
     }
 
 
+    /**
+     * Sets the number of candidates the proposer may run ahead of the candidate currently being composed.
+     * Speculation only takes effect if the proposer supports it, i.e. locally provides a {@code SpeculativeProposer}, and is disabled for a window of {@code 0}.
+     * The window is capped at the proposer's {@link SpeculativeProposer#getMaximalSpeculationWindow()}, which is {@code 0} if the proposal order depends on the state of the composition, e.g. when queued nodes are re-scored after every accepted candidate.
+     * Candidates rendered obsolete by constraints issued in the meantime are discarded, such that the composed candidates and hence the result coincide with sequential execution.
+     *
+     * @see SpeculativeProposer
+     * @see SpeculativeEvaluation
+     */
+    public void setSpeculationWindow(int speculationWindow) {
+        this.speculationWindow = speculationWindow;
+    }
+
+    public int getSpeculationWindow() {
+        return speculationWindow;
+    }
+
+    protected boolean isSpeculative() {
+        return speculationWindow > 0 && speculativeProposer.isSet() && getEffectiveSpeculationWindow() > 0;
+    }
+
+    protected int getEffectiveSpeculationWindow() {
+        return Math.min(speculationWindow, speculativeProposer.getData().getMaximalSpeculationWindow());
+    }
+
     public boolean executePECCycle() {
+        if (isSpeculative()) return executeSpeculativePECCycle();
         if (composer.isFinished()) return true;
         C c = proposer.proposeCandidate();
         if (pecCyclingCancelledPrematurely || c == null) {
@@ -150,6 +209,65 @@ public class SPECpp<C extends Candidate, I extends CompositionComponent<C>, R ex
         return false;
     }
 
+    /**
+     * Pipelined variant of the PEC cycle.
+     * The proposer runs ahead by {@code speculationWindow} candidates whose evaluations, if the composer provides a {@code SpeculativeEvaluation}, are computed on the common fork join pool in the meantime.
+     * Candidates and their results are still handed to the composer one at a time and strictly in proposal order, independent of the order in which the evaluations complete.
+     * Those that constraints issued in the meantime have made obsolete are discarded instead, which in turn culls their subtrees.
+     * As proposing and composing both happen on the calling thread, the outcome only depends on the window and not on the timing of the evaluations.
+     */
+    protected boolean executeSpeculativePECCycle() {
+        if (composer.isFinished()) {
+            cancelSpeculations();
+            return true;
+        }
+        fillSpeculationWindow();
+        Speculation<C> speculation = speculations.pollFirst();
+        if (pecCyclingCancelledPrematurely || speculation == null) {
+            if (speculation != null) speculation.result.cancel(false);
+            cancelSpeculations();
+            composer.candidatesAreExhausted();
+            return true;
+        }
+        C c = speculation.candidate;
+        SpeculativeProposer<C> sp = speculativeProposer.getData();
+        if (sp.isObsolete(c)) {
+            speculation.result.cancel(false);
+            sp.discard(c);
+            speculationEvents.observe(new CandidateSpeculationEvent<>(c, CandidateSpeculationEvent.SpeculationAction.Invalidate));
+            return false;
+        }
+        if (speculativeEvaluation.isSet()) speculativeEvaluation.getData().prime(c, speculation.result.join());
+        composer.accept(c);
+        lastCandidate = c;
+        return false;
+    }
+
+    private void fillSpeculationWindow() {
+        int window = getEffectiveSpeculationWindow();
+        while (!proposerExhausted && !pecCyclingCancelledPrematurely && speculations.size() <= window) {
+            C c = proposer.proposeCandidate();
+            if (c == null) proposerExhausted = true;
+            else {
+                CompletableFuture<Object> result;
+                if (speculativeEvaluation.isSet()) {
+                    SpeculativeEvaluation<C, Object> evaluation = speculativeEvaluation.getData();
+                    // passing the common pool itself would make CompletableFuture spawn a thread per task on machines with a single core
+                    result = CompletableFuture.supplyAsync(() -> evaluation.speculate(c), ForkJoinPool.commonPool()::execute);
+                } else result = CompletableFuture.completedFuture(null);
+                speculations.addLast(new Speculation<>(c, result));
+                speculationEvents.observe(new CandidateSpeculationEvent<>(c, CandidateSpeculationEvent.SpeculationAction.Speculate));
+            }
+        }
+    }
+
+    private void cancelSpeculations() {
+        for (Speculation<C> speculation : speculations) {
+            speculation.result.cancel(false);
+        }
+        speculations.clear();
+    }
+
     public void cancelPECCyclingGracefully() {
         pecCyclingCancelledPrematurely = true;
     }
@@ -253,6 +371,9 @@ public class SPECpp<C extends Candidate, I extends CompositionComponent<C>, R ex
                     }
                 }
             }
+            for (FullComponentSystemUser component : collectTransitiveSubcomponents()) {
+                if (component != this && component instanceof Stoppable) ((Stoppable) component).stop();
+            }
         }
     }
 
@@ -14,6 +14,7 @@ public class ParameterRequirements {
     public static final ParameterRequirement<ExecutionParameters> EXECUTION_PARAMETERS = parameters("execution.parameters", ExecutionParameters.class);
     public static final ParameterRequirement<ImplicitnessTestingParameters> IMPLICITNESS_TESTING = parameters("implicitness.parameters", ImplicitnessTestingParameters.class);
     public static final ParameterRequirement<ReplayComputationParameters> REPLAY_COMPUTATION = parameters("replay.parameters", ReplayComputationParameters.class);
+    public static final ParameterRequirement<ParallelReplayParameters> PARALLEL_REPLAY = parameters("replay.parallel.parameters", ParallelReplayParameters.class);
     public static final ParameterRequirement<ExternalInitializationParameters> EXTERNAL_INITIALIZATION = parameters("external_initialization.parameters", ExternalInitializationParameters.class);
     public static final ParameterRequirement<DeltaComposerParameters> DELTA_COMPOSER_PARAMETERS = parameters("delta_composer.parameters", DeltaComposerParameters.class);
     public static ParameterRequirement<TreeHeuristicThreshold> TREE_HEURISTIC_THRESHOLD = parameters("tree.heuristic.parameters", TreeHeuristicThreshold.class);
@@ -34,6 +35,11 @@ public class ParameterRequirements {
      */
     public static final ParameterRequirement<GammaETCPrecisionGainThreshold> GAMMA_ETCPRECISIONGAIN_THRESHOLD = parameters("gamma.parameters", GammaETCPrecisionGainThreshold.class);
 
+    /**
+     * ETC-Precision evaluation threads
+     */
+    public static final ParameterRequirement<ThreadsETCPrecisionEvaluation> THREADS_ETCPRECISION_EVALUATION = parameters("ETC_threads.parameters", ThreadsETCPrecisionEvaluation.class);
+
     /**
      * Rho
      */
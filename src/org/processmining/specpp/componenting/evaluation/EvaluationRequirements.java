@@ -9,6 +9,9 @@ import org.processmining.specpp.datastructures.util.EvaluationParameterTuple2;
 import org.processmining.specpp.datastructures.vectorization.VariantMarkingHistories;
 import org.processmining.specpp.evaluation.fitness.BasicFitnessEvaluation;
 import org.processmining.specpp.evaluation.fitness.DetailedFitnessEvaluation;
+import org.processmining.specpp.evaluation.fitness.DetailedFitnessEvaluationBatch;
+import org.processmining.specpp.evaluation.fitness.PlaceBatch;
+import org.processmining.specpp.evaluation.fitness.ThresholdedFitnessEvaluation;
 import org.processmining.specpp.evaluation.heuristics.AdaptedDelta;
 import org.processmining.specpp.evaluation.heuristics.CandidateScore;
 import org.processmining.specpp.evaluation.implicitness.ImplicitnessRating;
@@ -19,6 +22,9 @@ public class EvaluationRequirements {
     public static final EvaluatorRequirement<Place, BasicFitnessEvaluation> BASIC_FITNESS = evaluator(Place.class, BasicFitnessEvaluation.class);
     public static final EvaluatorRequirement<Place, DetailedFitnessEvaluation> DETAILED_FITNESS = evaluator(Place.class, DetailedFitnessEvaluation.class);
 
+    public static final EvaluatorRequirement<Place, ThresholdedFitnessEvaluation> THRESHOLDED_FITNESS = evaluator(Place.class, ThresholdedFitnessEvaluation.class);
+    public static final EvaluatorRequirement<PlaceBatch, DetailedFitnessEvaluationBatch> BATCH_DETAILED_FITNESS = evaluator(PlaceBatch.class, DetailedFitnessEvaluationBatch.class);
+
     public static final EvaluatorRequirement<EvaluationParameterTuple2<Place, BitMask>, BasicFitnessEvaluation> SUBSET_BASIC_FITNESS = evaluator(JavaTypingUtils.castClass(EvaluationParameterTuple2.class), BasicFitnessEvaluation.class);
     public static final EvaluatorRequirement<Place, ImplicitnessRating> PLACE_IMPLICITNESS = evaluator(Place.class, ImplicitnessRating.class);
     public static final EvaluatorRequirement<Place, VariantMarkingHistories> PLACE_MARKING_HISTORY = evaluator(Place.class, VariantMarkingHistories.class);
@@ -8,55 +8,63 @@ import org.processmining.specpp.componenting.delegators.DelegatingDataSource;
 import org.processmining.specpp.componenting.delegators.DelegatingEvaluator;
 import org.processmining.specpp.componenting.evaluation.EvaluationRequirements;
 import org.processmining.specpp.componenting.supervision.SupervisionRequirements;
+import org.processmining.specpp.config.components.SimpleBuilder;
 import org.processmining.specpp.config.parameters.ImplicitnessTestingParameters;
 import org.processmining.specpp.datastructures.encoding.BitMask;
 import org.processmining.specpp.datastructures.encoding.NonMutatingSetOperations;
 import org.processmining.specpp.datastructures.encoding.WeightedBitMask;
 import org.processmining.specpp.datastructures.petri.Place;
-import org.processmining.specpp.datastructures.util.ComputingCache;
+import org.processmining.specpp.datastructures.util.ConcurrentCache;
 import org.processmining.specpp.datastructures.util.EvaluationParameterTuple2;
 import org.processmining.specpp.datastructures.vectorization.IntVector;
 import org.processmining.specpp.datastructures.vectorization.VariantMarkingHistories;
 import org.processmining.specpp.evaluation.implicitness.BooleanImplicitness;
 import org.processmining.specpp.evaluation.implicitness.ImplicitnessRating;
+import org.processmining.specpp.evaluation.implicitness.IncrementalLPImplicitnessEngine;
+import org.processmining.specpp.evaluation.implicitness.LPBasedImplicitnessCalculator;
 import org.processmining.specpp.evaluation.implicitness.ReplayBasedImplicitnessCalculator;
-import org.processmining.specpp.supervision.observations.performance.PerformanceEvent;
+import org.processmining.specpp.supervision.observations.CacheStatsEvent;
+import org.processmining.specpp.supervision.observations.performance.PerformanceStatistics;
 import org.processmining.specpp.supervision.observations.performance.TaskDescription;
-import org.processmining.specpp.supervision.observations.performance.TimeStopper;
+import org.processmining.specpp.supervision.observations.performance.PerformanceRecorder;
 import org.processmining.specpp.util.JavaTypingUtils;
 
 import java.util.Collection;
 import java.util.HashMap;
-import java.util.Iterator;
 import java.util.Map;
 
 public class StatefulPlaceComposition extends BasePlaceComposition implements OffersPlaceCompositionState, OffersImplicitness {
     public static final TaskDescription REPLAY_BASED_CONCURRENT_IMPLICITNESS = new TaskDescription("Concurrent Replay Based Implicitness");
+    public static final long MARKING_HISTORIES_CACHE_BYTES = 64L << 20;
     protected final Evaluator<Place, VariantMarkingHistories> historyMaker;
     protected final Map<Place, VariantMarkingHistories> histories;
     protected final Map<Place, BitMask> locallySupportedVariants;
 
     protected Evaluator<Place, ImplicitnessRating> implicitnessRater;
     private final DelegatingDataSource<ImplicitnessTestingParameters> implicitnessTestingParameters = new DelegatingDataSource<>();
-    protected WeightedBitMask currentlySupportedVariants;
+    protected VariantSupportTracker supportTracker;
     protected final DelegatingDataSource<BitMask> consideredVariants = new DelegatingDataSource<>();
     protected final DelegatingDataSource<IntVector> variantFrequencies = new DelegatingDataSource<>();
     protected final DelegatingEvaluator<EvaluationParameterTuple2<Place, Collection<Place>>, BooleanImplicitness> externalImplicitnessCalculator = new DelegatingEvaluator<>();
+    protected final DelegatingDataSource<SimpleBuilder<LPBasedImplicitnessCalculator>> lpImplicitnessCalculatorBuilder = new DelegatingDataSource<>();
+    protected IncrementalLPImplicitnessEngine lpImplicitnessEngine;
 
-    protected final TimeStopper timeStopper = new TimeStopper();
+    protected final PerformanceRecorder performanceRecorder = new PerformanceRecorder();
 
     public StatefulPlaceComposition() {
         histories = new HashMap<>();
         locallySupportedVariants = new HashMap<>();
         DelegatingEvaluator<Place, VariantMarkingHistories> pureEvaluator = new DelegatingEvaluator<>();
+        ConcurrentCache<Place, VariantMarkingHistories> cache = new ConcurrentCache<>(MARKING_HISTORIES_CACHE_BYTES, h -> 4L * h.getData().getTotalSize(), ConcurrentCache.EvictionPolicy.WINDOW_TINY_LFU, pureEvaluator);
+        historyMaker = cache::get;
         globalComponentSystem().require(ParameterRequirements.IMPLICITNESS_TESTING, implicitnessTestingParameters)
                                .require(EvaluationRequirements.PLACE_MARKING_HISTORY, pureEvaluator)
                                .require(DataRequirements.CONSIDERED_VARIANTS, consideredVariants)
                                .require(DataRequirements.VARIANT_FREQUENCIES, variantFrequencies)
                                .require(EvaluationRequirements.evaluator(JavaTypingUtils.castClass(EvaluationParameterTuple2.class), BooleanImplicitness.class), externalImplicitnessCalculator)
-                               .provide(SupervisionRequirements.observable("concurrent_implicitness.performance", PerformanceEvent.class, timeStopper));
-        ComputingCache<Place, VariantMarkingHistories> cache = new ComputingCache<>(100, pureEvaluator);
-        historyMaker = cache::get;
+                               .require(DataRequirements.LP_BASED_IMPLICITNESS_CALCULATOR_DATA_REQUIREMENT, lpImplicitnessCalculatorBuilder)
+                               .provide(SupervisionRequirements.adHocObservable("concurrent_implicitness.performance", PerformanceStatistics.class, performanceRecorder))
+                               .provide(SupervisionRequirements.adHocObservable("marking_histories_cache.stats", CacheStatsEvent.class, cache.statistics()));
         localComponentSystem().provide(DataRequirements.dataSource("currently_supported_variants", WeightedBitMask.class, this::getCurrentlySupportedVariants))
                               .provide(EvaluationRequirements.PLACE_IMPLICITNESS.fulfilWith(this::rateImplicitness))
                               .provide(DataRequirements.dataSource("marking_histories_cache", JavaTypingUtils.castClass(Evaluator.class), StaticDataSource.of(cache.readOnlyGet())));
@@ -91,20 +99,25 @@ public class StatefulPlaceComposition extends BasePlaceComposition implements Of
             }
             Evaluator<Place, ImplicitnessRating> finalTemp = temp;
             implicitnessRater = p -> {
-                timeStopper.start(REPLAY_BASED_CONCURRENT_IMPLICITNESS);
+                long start = performanceRecorder.start(REPLAY_BASED_CONCURRENT_IMPLICITNESS);
                 ImplicitnessRating rating = finalTemp.apply(p);
-                timeStopper.stop(REPLAY_BASED_CONCURRENT_IMPLICITNESS);
+                performanceRecorder.stop(REPLAY_BASED_CONCURRENT_IMPLICITNESS, start);
                 return rating;
             };
-        } else if (params.getVersion() == ImplicitnessTestingParameters.CIPRVersion.LPBased)
-            implicitnessRater = p -> externalImplicitnessCalculator.eval(new EvaluationParameterTuple2<>(p, candidates)); // almost impossible to be less efficient with LP handling (by recreating the LP each call instead of managing the state here)
-
-        resetCurrentlySupportedVariants(consideredVariants.getData());
-    }
+        } else if (params.getVersion() == ImplicitnessTestingParameters.CIPRVersion.LPBased) {
+            LPBasedImplicitnessCalculator calculator = lpImplicitnessCalculatorBuilder.isSet() ? lpImplicitnessCalculatorBuilder.getData()
+                                                                                                                             .build() : null;
+            if (calculator != null && calculator.supportsIncrementalSolving()) {
+                // the LP is kept in sync with the accepted places instead of being recreated on every call
+                lpImplicitnessEngine = calculator.createEngine();
+                lpImplicitnessEngine.addAll(candidates);
+                implicitnessRater = p -> lpImplicitnessEngine.isImplicit(p) ? BooleanImplicitness.IMPLICIT : BooleanImplicitness.NOT_IMPLICIT;
+            } else
+                implicitnessRater = p -> externalImplicitnessCalculator.eval(new EvaluationParameterTuple2<>(p, candidates));
+        }
 
-    private void resetCurrentlySupportedVariants(BitMask bm) {
         IntVector frequencies = variantFrequencies.getData();
-        currentlySupportedVariants = new WeightedBitMask(bm, frequencies::getRelative);
+        supportTracker = new VariantSupportTracker(consideredVariants.getData(), frequencies);
     }
 
     @Override
@@ -114,12 +127,13 @@ public class StatefulPlaceComposition extends BasePlaceComposition implements Of
         histories.put(place, h);
         BitMask supportedVariants = h.getPerfectlyFittingVariants();
         locallySupportedVariants.put(place, supportedVariants);
-        currentlySupportedVariants.intersection(supportedVariants);
+        supportTracker.add(supportedVariants);
+        if (lpImplicitnessEngine != null) lpImplicitnessEngine.add(place);
     }
 
     @Override
     public WeightedBitMask getCurrentlySupportedVariants() {
-        return currentlySupportedVariants;
+        return supportTracker.getSupportedVariants();
     }
 
     @Override
@@ -131,20 +145,9 @@ public class StatefulPlaceComposition extends BasePlaceComposition implements Of
     public void remove(Place candidate) {
         super.remove(candidate);
         histories.remove(candidate);
-        locallySupportedVariants.remove(candidate);
-
-        if (locallySupportedVariants.isEmpty()) {
-            resetCurrentlySupportedVariants(consideredVariants.getData());
-        } else {
-            // TODO hella inefficient. Possibly compose result from per place info in a smarter way
-            Iterator<BitMask> iterator = locallySupportedVariants.values().iterator();
-            BitMask result = iterator.next().copy();
-            while (iterator.hasNext()) {
-                BitMask next = iterator.next();
-                result.intersection(next);
-            }
-            resetCurrentlySupportedVariants(result);
-        }
+        BitMask supportedVariants = locallySupportedVariants.remove(candidate);
+        if (supportedVariants != null) supportTracker.remove(supportedVariants);
+        if (lpImplicitnessEngine != null) lpImplicitnessEngine.remove(candidate);
     }
 
 }
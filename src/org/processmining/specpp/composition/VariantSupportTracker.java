@@ -0,0 +1,49 @@
+package org.processmining.specpp.composition;
+
+import org.processmining.specpp.datastructures.encoding.BitMask;
+import org.processmining.specpp.datastructures.encoding.WeightedBitMask;
+import org.processmining.specpp.datastructures.vectorization.IntVector;
+
+/**
+ * Incrementally maintains the variants that are supported by all places of a composition, i.e., the considered variants every place fits.
+ * Per variant, it counts the places that do not fit it. A variant is supported iff its count is zero.
+ * Adding or removing a place thus only touches the considered variants the place does not fit, and the supported variants' relative frequency is kept as a running sum of absolute frequencies.
+ */
+public class VariantSupportTracker {
+
+    private final BitMask consideredVariants;
+    private final int[] unfittingPlaceCounts;
+    private final WeightedBitMask supportedVariants;
+
+    public VariantSupportTracker(BitMask consideredVariants, IntVector variantFrequencies) {
+        this.consideredVariants = consideredVariants.copy();
+        this.unfittingPlaceCounts = new int[consideredVariants.length()];
+        this.supportedVariants = new WeightedBitMask(consideredVariants, variantFrequencies::get, variantFrequencies.getTotal());
+    }
+
+    /**
+     * @param fittingVariants the variants the added place fits
+     */
+    public void add(BitMask fittingVariants) {
+        for (int i = consideredVariants.nextSetBit(0); i >= 0; i = consideredVariants.nextSetBit(i + 1)) {
+            if (!fittingVariants.get(i) && unfittingPlaceCounts[i]++ == 0) supportedVariants.clearWeighted(i);
+        }
+    }
+
+    /**
+     * @param fittingVariants the variants the removed place fits, as given when it was added
+     */
+    public void remove(BitMask fittingVariants) {
+        for (int i = consideredVariants.nextSetBit(0); i >= 0; i = consideredVariants.nextSetBit(i + 1)) {
+            if (!fittingVariants.get(i) && --unfittingPlaceCounts[i] == 0) supportedVariants.setWeighted(i);
+        }
+    }
+
+    /**
+     * @return the maintained mask of supported variants, which is updated in place
+     */
+    public WeightedBitMask getSupportedVariants() {
+        return supportedVariants;
+    }
+
+}
@@ -20,16 +20,25 @@ import org.processmining.specpp.datastructures.encoding.WeightedBitMask;
 import org.processmining.specpp.datastructures.petri.Place;
 import org.processmining.specpp.datastructures.tree.heuristic.DoubleScore;
 import org.processmining.specpp.datastructures.util.BasicCache;
-import org.processmining.specpp.datastructures.util.ComputingCache;
+import org.processmining.specpp.datastructures.util.ConcurrentCache;
 import org.processmining.specpp.datastructures.util.EvaluationParameterTuple2;
 import org.processmining.specpp.datastructures.util.StackedCache;
 import org.processmining.specpp.datastructures.vectorization.IntVector;
 import org.processmining.specpp.evaluation.fitness.DetailedFitnessEvaluation;
+import org.processmining.specpp.evaluation.fitness.DetailedFitnessEvaluationBatch;
+import org.processmining.specpp.evaluation.fitness.PlaceBatch;
+import org.processmining.specpp.supervision.observations.CacheStatsEvent;
 import org.processmining.specpp.util.JavaTypingUtils;
 
+import java.util.ArrayList;
+import java.util.List;
+
 public class DeltaComposer<I extends AdvancedComposition<Place>, R extends Result> extends AbstractQueueingComposer<Place, I, R, CandidateConstraint<Place>> {
 
+    public static final int CACHE_CAPACITY = 10_000;
+
     private final DelegatingEvaluator<Place, DetailedFitnessEvaluation> fitnessEvaluator = new DelegatingEvaluator<>();
+    private final DelegatingEvaluator<PlaceBatch, DetailedFitnessEvaluationBatch> batchFitnessEvaluator = new DelegatingEvaluator<>();
     private final DelegatingEvaluator<EvaluationParameterTuple2<Place, Integer>, DoubleScore> deltaAdaptationFunction = new DelegatingEvaluator<>();
     private final DelegatingDataSource<TauFitnessThresholds> fitnessThresholds = new DelegatingDataSource<>();
     private final DelegatingDataSource<DeltaComposerParameters> deltaComposerParameters = new DelegatingDataSource<>();
@@ -38,6 +47,7 @@ public class DeltaComposer<I extends AdvancedComposition<Place>, R extends Resul
     private final DelegatingDataSource<IntVector> variantFrequencies = new DelegatingDataSource<>();
     private int currentTreeLevel;
     private final DelegatingDataSource<Integer> treeLevelSource = new DelegatingDataSource<>(() -> currentTreeLevel);
+    private final ConcurrentCache<Place, DetailedFitnessEvaluation> cache = new ConcurrentCache<>(CACHE_CAPACITY, ConcurrentCache.EvictionPolicy.LRU, fitnessEvaluator);
     private Evaluator<Place, DetailedFitnessEvaluation> cachedEvaluator;
     private int maxQueueSize;
 
@@ -45,11 +55,13 @@ public class DeltaComposer<I extends AdvancedComposition<Place>, R extends Resul
         super(childComposer);
         globalComponentSystem().require(ParameterRequirements.TAU_FITNESS_THRESHOLDS, fitnessThresholds)
                                .require(EvaluationRequirements.DETAILED_FITNESS, fitnessEvaluator)
+                               .require(EvaluationRequirements.BATCH_DETAILED_FITNESS, batchFitnessEvaluator)
                                .require(EvaluationRequirements.DELTA_ADAPTATION_FUNCTION, deltaAdaptationFunction)
                                .require(ParameterRequirements.DELTA_COMPOSER_PARAMETERS, deltaComposerParameters)
                                .require(DataRequirements.VARIANT_FREQUENCIES, variantFrequencies)
                                .require(DataRequirements.dataSource("tree.current_level", Integer.class), treeLevelSource)
-                               .provide(SupervisionRequirements.observable("postponing_composer.constraints", JavaTypingUtils.castClass(CandidateConstraint.class), getConstraintPublisher()));
+                               .provide(SupervisionRequirements.observable("postponing_composer.constraints", JavaTypingUtils.castClass(CandidateConstraint.class), getConstraintPublisher()))
+                               .provide(SupervisionRequirements.adHocObservable("fitness_cache.stats", CacheStatsEvent.class, cache.statistics()));
 
         currentTreeLevel = 0;
         localComponentSystem().require(DataRequirements.dataSource("currently_supported_variants", WeightedBitMask.class), currentlySupportedVariants)
@@ -62,11 +74,34 @@ public class DeltaComposer<I extends AdvancedComposition<Place>, R extends Resul
         DeltaComposerParameters parameters = deltaComposerParameters.getData();
         maxQueueSize = parameters.getMaxQueueSize();
 
-        ComputingCache<Place, DetailedFitnessEvaluation> cache = new ComputingCache<>(10_000, fitnessEvaluator);
         if (fitnessCache.isEmpty()) cachedEvaluator = cache::get;
         else cachedEvaluator = new StackedCache<>(fitnessCache.getData(), cache)::get;
     }
 
+    @Override
+    protected int iteratePostponedCandidatesUntilNoChange() {
+        prefetchPostponedEvaluations();
+        return super.iteratePostponedCandidatesUntilNoChange();
+    }
+
+    /**
+     * Postponed candidates whose evaluations have been evicted from the cache, which happens when the queue outgrows it, are re-evaluated together in one batch rather than one by one during re-deliberation.
+     */
+    private void prefetchPostponedEvaluations() {
+        if (!batchFitnessEvaluator.isSet()) return;
+        List<Place> uncached = new ArrayList<>();
+        for (Place candidate : postponedCandidates) {
+            if (uncached.size() >= CACHE_CAPACITY) break;
+            if (!cache.contains(candidate) && (fitnessCache.isEmpty() || !fitnessCache.getData().contains(candidate)))
+                uncached.add(candidate);
+        }
+        if (uncached.isEmpty()) return;
+        DetailedFitnessEvaluationBatch evaluations = batchFitnessEvaluator.eval(new PlaceBatch(uncached));
+        for (int i = 0; i < uncached.size(); i++) {
+            cache.put(uncached.get(i), evaluations.get(i));
+        }
+    }
+
     @Override
     protected CandidateDecision deliberateCandidate(Place candidate) {
         if (candidate.size() > currentTreeLevel) {
@@ -94,7 +129,8 @@ public class DeltaComposer<I extends AdvancedComposition<Place>, R extends Resul
         WeightedBitMask supportedVariants = currentlySupportedVariants.getData();
         IntVector frequencies = variantFrequencies.getData();
         BitMask intersection = NonMutatingSetOperations.intersection(evaluation.getFittingVariants(), supportedVariants);
-        double f = intersection.stream().mapToDouble(frequencies::getRelative).sum();
+        // summed as absolute frequencies like the supported variants' weight, such that a candidate fitting all of them compares equal
+        double f = frequencies.sum(intersection) / (double) frequencies.getTotal();
         return f >= supportedVariants.getWeight() - adaptedTau;
     }
 
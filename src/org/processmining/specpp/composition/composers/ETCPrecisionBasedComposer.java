@@ -20,30 +20,32 @@ import org.processmining.specpp.composition.events.CandidateRejected;
 import org.processmining.specpp.config.parameters.RhoETCPrecisionThreshold;
 import org.processmining.specpp.config.parameters.GammaETCPrecisionGainThreshold;
 import org.processmining.specpp.config.parameters.FlagPrematureAbort;
-import org.processmining.specpp.datastructures.encoding.BitEncodedSet;
+import org.processmining.specpp.config.parameters.ThreadsETCPrecisionEvaluation;
 import org.processmining.specpp.datastructures.encoding.BitMask;
+import org.processmining.specpp.datastructures.encoding.IntEncoding;
 import org.processmining.specpp.datastructures.log.Activity;
 import org.processmining.specpp.datastructures.log.Log;
 import org.processmining.specpp.datastructures.log.impls.Factory;
-import org.processmining.specpp.datastructures.log.impls.IndexedVariant;
 import org.processmining.specpp.datastructures.petri.CollectionOfPlaces;
 import org.processmining.specpp.datastructures.petri.Place;
 import org.processmining.specpp.datastructures.petri.Transition;
-import org.processmining.specpp.datastructures.transitionSystems.PAState;
 import org.processmining.specpp.datastructures.transitionSystems.PrefixAutomaton;
 import org.processmining.specpp.datastructures.vectorization.VariantMarkingHistories;
+import org.processmining.specpp.evaluation.precision.ETCPrecisionKernel;
 import org.processmining.specpp.supervision.EventSupervision;
 import org.processmining.specpp.supervision.piping.PipeWorks;
+import org.processmining.specpp.traits.Stoppable;
 import org.processmining.specpp.util.JavaTypingUtils;
 
-import java.nio.IntBuffer;
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 
 /**
  * ETC-Precision based Composer (for further details refer to paper)
  * @param <I> Type of Composition
  */
-public class ETCPrecisionBasedComposer<I extends AdvancedComposition<Place>> extends AbstractComposer<Place, I, CollectionOfPlaces> {
+public class ETCPrecisionBasedComposer<I extends AdvancedComposition<Place>> extends AbstractComposer<Place, I, CollectionOfPlaces> implements Stoppable {
 
     /**
      * Log
@@ -53,7 +55,7 @@ public class ETCPrecisionBasedComposer<I extends AdvancedComposition<Place>> ext
     /**
      * Prefix Automaton of the log
      */
-    private final PrefixAutomaton prefixAutomaton = new PrefixAutomaton(new PAState());
+    private PrefixAutomaton prefixAutomaton;
 
     /**
      * Mapping between activities and transitions (and vice versa)
@@ -78,6 +80,16 @@ public class ETCPrecisionBasedComposer<I extends AdvancedComposition<Place>> ext
      */
     private final DelegatingDataSource<GammaETCPrecisionGainThreshold> gamma = new DelegatingDataSource<>();
 
+    /**
+     * Number of threads among which (re-)evaluations are distributed
+     */
+    private final DelegatingDataSource<ThreadsETCPrecisionEvaluation> threads = ParameterRequirements.THREADS_ETCPRECISION_EVALUATION.defaultingDelegator(ThreadsETCPrecisionEvaluation.getDefault());
+
+    /**
+     * Pool evaluating affected activities and implicitness trials in parallel, null if evaluation is sequential
+     */
+    private ForkJoinPool pool;
+
     /**
      * Flag indicating whether to prematurely abort the search once the ETC-precision threshold rho is reached.
      * True -> possibly prematurely abort the search
@@ -86,19 +98,85 @@ public class ETCPrecisionBasedComposer<I extends AdvancedComposition<Place>> ext
     private final DelegatingDataSource<FlagPrematureAbort> prematureAbort = new DelegatingDataSource<>();
 
     /**
-     * Mapping: activity -> its prerequisite places
+     * Activities of the activity-transition mapping, indexed in the order in which they were first encountered
+     */
+    private Activity[] activities;
+
+    /**
+     * Mapping: activity -> its index in {@link #activities}
+     */
+    private final Map<Activity, Integer> activityIndices = new HashMap<>();
+
+    /**
+     * Mapping: activity index -> index of the activity in the prefix automaton
+     */
+    private int[] automatonIndices;
+
+    /**
+     * Index of the artificial start activity, which has no entry in the escaping edges and allowed mappings
+     */
+    private int startIndex = -1;
+
+    /**
+     * Postset encoding {@link #postsetActivities} was derived from
+     */
+    private IntEncoding<Transition> postsetEncoding;
+
+    /**
+     * Mapping: postset transition index -> activity index
+     */
+    private int[] postsetActivities;
+
+    /**
+     * Mapping: activity index -> its prerequisite places, and their token presence bitmaps in the same order
+     */
+    private Place[][] ingoingPlaces;
+    private long[][][] ingoingTokenPresences;
+    private int[] ingoingCounts;
+
+    /**
+     * Mapping: activity index -> number of escaping edges its allowance results in when replaying the log
+     */
+    private int[] escapingEdges;
+
+    /**
+     * Mapping: activity index -> number of allowances when replaying the log
+     */
+    private int[] allowed;
+
+    /**
+     * Running sums of {@link #escapingEdges} and {@link #allowed} over all activities except the artificial start
+     */
+    private long escapingEdgesSum, allowedSum;
+
+    /**
+     * Undo log of the trial changes made while checking a place: activity index, previous #EscapingEdges, previous #Allowed
+     */
+    private int[] undoActivities = new int[16], undoEscapingEdges = new int[16], undoAllowed = new int[16];
+    private int undoSize;
+
+    /**
+     * Buffers reused across evaluations
      */
-    private final Map<Activity, Set<Place>> activityToIngoingPlaces = new HashMap<>();
+    private final List<Place> potentiallyImplicit = new ArrayList<>();
+    private boolean[] implicitnessTrials = new boolean[16];
 
     /**
-     * Mapping: activity -> number of escaping edges its allowance results in when replaying the log
+     * Activities affected by the place currently being checked, and their re-evaluations in the same order
      */
-    private final Map<Activity, Integer> activityToEscapingEdges = new HashMap<>();
+    private int[] affected = new int[16];
+    private int[][] affectedEvaluations = new int[16][2];
+    private int affectedCount;
 
     /**
-     * Mapping: activity -> number of allowances when replaying the log
+     * Mapping: activity -> number of escaping edges its allowance results in when replaying the log (read-only view)
      */
-    private final Map<Activity, Integer> activityToAllowed = new HashMap<>();
+    private final Map<Activity, Integer> activityToEscapingEdges = new ActivityCounts(true);
+
+    /**
+     * Mapping: activity -> number of allowances when replaying the log (read-only view)
+     */
+    private final Map<Activity, Integer> activityToAllowed = new ActivityCounts(false);
 
     /**
      * Pipe to put in "composition" events (accept/reject/revoke), received e.g. by the UpdatingGreedyETCPrecisionTreeTraversalHeuristic
@@ -111,9 +189,14 @@ public class ETCPrecisionBasedComposer<I extends AdvancedComposition<Place>> ext
     private double currETCPrecision;
 
     /**
-     * Cache for the marking histories of the places in the intermediate model
+     * Cache for the token presence bitmaps (derived from the marking histories) of the places in the intermediate model
+     */
+    private final Map<Place, long[]> tokenPresenceCache = new HashMap<>();
+
+    /**
+     * Bitmap based evaluation of escaping edges, built from the log and its prefix automaton
      */
-    private final Map<Place, VariantMarkingHistories> markingHistoriesCache = new HashMap<>();
+    private ETCPrecisionKernel precisionKernel;
 
     /**
      * Flag, indicating if a new place has been added in the current iteration
@@ -145,7 +228,8 @@ public class ETCPrecisionBasedComposer<I extends AdvancedComposition<Place>> ext
                                .require(EvaluationRequirements.PLACE_MARKING_HISTORY, markingHistoriesEvaluator)
                                .require(ParameterRequirements.RHO_ETCPRECISION_THRESHOLD, rho)
                                .require(ParameterRequirements.GAMMA_ETCPRECISIONGAIN_THRESHOLD, gamma)
-                               .require(ParameterRequirements.FLAG_PREMATUREABORT, prematureAbort);
+                               .require(ParameterRequirements.FLAG_PREMATUREABORT, prematureAbort)
+                               .require(ParameterRequirements.THREADS_ETCPRECISION_EVALUATION, threads);
         localComponentSystem().provide(SupervisionRequirements.observable("composer.events", JavaTypingUtils.castClass(CandidateCompositionEvent.class), compositionEventSupervision))
                 .provide(DataRequirements.dataSource("activitiesToAllowed", JavaTypingUtils.castClass(Map.class), StaticDataSource.of(activityToAllowed)))
                 .provide(DataRequirements.dataSource("activitiesToEscapingEdges", JavaTypingUtils.castClass(Map.class), StaticDataSource.of(activityToEscapingEdges)));
@@ -162,8 +246,8 @@ public class ETCPrecisionBasedComposer<I extends AdvancedComposition<Place>> ext
 
         //eventSupervisor.observe(new DebugEvent("read me"));
 
-        //optimization cache marking histories
-        markingHistoriesCache.put(candidate, markingHistoriesEvaluator.eval(candidate));
+        //optimization cache token presence bitmaps
+        tokenPresenceCache.put(candidate, precisionKernel.tokenPresence(markingHistoriesEvaluator.eval(candidate)));
 
         if (!checkPrecisionGain(candidate)) {
             // no decrease in EE(a) for any activity a that was reevaluated
@@ -175,23 +259,26 @@ public class ETCPrecisionBasedComposer<I extends AdvancedComposition<Place>> ext
             // candidate place makes the result more precise -> check for potentially implicit places
 
             //collect potentially implcit places
-            LinkedList<Place> potImpl = new LinkedList<>();
-
-            BitEncodedSet<Transition> candidateOut = candidate.postset();
-            Set<Activity> activitiesToRevealuate = new HashSet<>();
-            for (Transition t: candidateOut) {
-                activitiesToRevealuate.add(actTransMapping.getData().getKey(t));
-            }
-            for(Activity a : activitiesToRevealuate){
-                potImpl.addAll(activityToIngoingPlaces.get(a));
+            potentiallyImplicit.clear();
+            BitMask candidateOut = candidate.postset().getBitMask();
+            for (int i = candidateOut.nextSetBit(0); i >= 0; i = candidateOut.nextSetBit(i + 1)) {
+                int a = postsetActivity(candidate, i);
+                for (int j = 0; j < ingoingCounts[a]; j++) {
+                    potentiallyImplicit.add(ingoingPlaces[a][j]);
+                }
             }
 
             //check implicitness and remove
             addToActivityPlacesMapping(candidate);
 
-            for (Place pPotImpl : potImpl) {
-                if (checkImplicitness(pPotImpl)) {
-                    revokeAcceptance(pPotImpl);
+            if (pool != null && gamma.getData().getGamma() == 0) {
+                revokeImplicitSpeculatively();
+            } else {
+                for (int i = 0; i < potentiallyImplicit.size(); i++) {
+                    Place pPotImpl = potentiallyImplicit.get(i);
+                    if (checkImplicitness(pPotImpl)) {
+                        revokeAcceptance(pPotImpl);
+                    }
                 }
             }
 
@@ -208,53 +295,44 @@ public class ETCPrecisionBasedComposer<I extends AdvancedComposition<Place>> ext
      * @return true, if p is not implicit / sufficiently improves precision. Otherwise, false.
      */
     public boolean checkPrecisionGain(Place p) {
-        BitEncodedSet<Transition> candidateOut = p.postset();
-        Set<Activity> activitiesToRevealuate = new HashSet<>();
-        for (Transition t: candidateOut) {
-            activitiesToRevealuate.add(actTransMapping.getData().getKey(t));
-        }
-
         boolean isMorePrecise = false;
 
         addToActivityPlacesMapping(p);
 
-        Map<Activity, Integer> tmpActivityToEscapingEdges = new HashMap<>(activityToEscapingEdges);
-        Map<Activity, Integer> tmpActivityToAllowed = new HashMap<>(activityToAllowed);
+        evaluateAffected(p);
+        for (int k = 0; k < affectedCount; k++) {
+            int a = affected[k];
+            int newEE = affectedEvaluations[k][0];
+            int newAllowed = affectedEvaluations[k][1];
 
-        for (Activity a : activitiesToRevealuate) {
-            int[] evalRes = evaluatePrecision(a);
-            int newEE = evalRes[0];
-            int newAllowed = evalRes[1];
-
-            if (newEE < activityToEscapingEdges.get(a)) {
+            if (newEE < escapingEdges[a]) {
                 isMorePrecise = true;
             }
 
-            tmpActivityToEscapingEdges.put(a, newEE);
-            tmpActivityToAllowed.put(a, newAllowed);
+            setTrialValues(a, newEE, newAllowed);
         }
 
         removeFromActivityPlacesMapping(p);
 
-        double newETCPrecision = calcETCPrecision(tmpActivityToEscapingEdges, tmpActivityToAllowed);
+        double newETCPrecision = calcETCPrecision();
 
         if (gamma.getData().getGamma() == 0) {
             if(isMorePrecise) {
-                activityToEscapingEdges.putAll(tmpActivityToEscapingEdges);
-                activityToAllowed.putAll(tmpActivityToAllowed);
+                commitTrialValues();
                 currETCPrecision = newETCPrecision;
                 return true;
             }
+            rollbackTrialValues();
             return false;
         }
 
         if (newETCPrecision - currETCPrecision > gamma.getData().getGamma() ) {
             //note: if p brings gain in precision we assume that it will be accepted (hence we update the scores)
-            activityToEscapingEdges.putAll(tmpActivityToEscapingEdges);
-            activityToAllowed.putAll(tmpActivityToAllowed);
+            commitTrialValues();
             currETCPrecision = newETCPrecision;
             return true;
         }
+        rollbackTrialValues();
         return false;
     }
 
@@ -265,62 +343,181 @@ public class ETCPrecisionBasedComposer<I extends AdvancedComposition<Place>> ext
      */
     public boolean checkImplicitness(Place p) {
 
-        BitEncodedSet<Transition> pPotImplOut = p.postset();
-        Set<Activity> activitiesToReevaluatePPotImpl = new HashSet<>();
-        for (Transition t: pPotImplOut) {
-            activitiesToReevaluatePPotImpl.add(actTransMapping.getData().getKey(t));
-        }
-
         removeFromActivityPlacesMapping(p);
 
-        Map<Activity, Integer> tmpActivityToEscapingEdges = new HashMap<>(activityToEscapingEdges);
-        Map<Activity, Integer> tmpActivityToAllowed = new HashMap<>(activityToAllowed);
-
         boolean hasEqualValues = true;
 
-        for (Activity a : activitiesToReevaluatePPotImpl) {
-            int[] evalRes = evaluatePrecision(a);
-            int newEE = evalRes[0];
-            int newAllowed = evalRes[1];
+        evaluateAffected(p);
+        for (int k = 0; k < affectedCount; k++) {
+            int a = affected[k];
+            int newEE = affectedEvaluations[k][0];
+            int newAllowed = affectedEvaluations[k][1];
 
-            if((newEE != activityToEscapingEdges.get(a)) || newAllowed != activityToAllowed.get(a)) {
+            if((newEE != escapingEdges[a]) || newAllowed != allowed[a]) {
                 hasEqualValues = false;
                 if(gamma.getData().getGamma() == 0) {
                     break;
                 }
             }
 
-            tmpActivityToEscapingEdges.put(a, newEE);
-            tmpActivityToAllowed.put(a, newAllowed);
+            setTrialValues(a, newEE, newAllowed);
 
         }
 
         addToActivityPlacesMapping(p);
 
-        double newETCPrecision = calcETCPrecision(tmpActivityToEscapingEdges, tmpActivityToAllowed);
+        double newETCPrecision = calcETCPrecision();
         if(gamma.getData().getGamma() == 0) {
+            rollbackTrialValues();
             return hasEqualValues;
         }
 
         if(currETCPrecision - newETCPrecision > gamma.getData().getGamma()) {
+            rollbackTrialValues();
             return false;
         } else {
-            activityToEscapingEdges.putAll(tmpActivityToEscapingEdges);
-            activityToAllowed.putAll(tmpActivityToAllowed);
+            commitTrialValues();
             currETCPrecision = newETCPrecision;
             return true;
         }
 
     }
 
+    /**
+     * Revokes the implicit places among the potentially implicit ones (gamma=0), with the same outcome as checking them one after another.
+     * As implicitness trials leave the mapping entries unchanged for gamma=0, the trials of all remaining places are run in parallel against the current mapping.
+     * Their outcomes are valid up to the first implicit place, whose revocation invalidates the trials after it, which are hence repeated.
+     */
+    private void revokeImplicitSpeculatively() {
+        int size = potentiallyImplicit.size();
+        if (implicitnessTrials.length < size) implicitnessTrials = new boolean[Math.max(size, 2 * implicitnessTrials.length)];
+        int next = 0;
+        while (next < size) {
+            pool.invoke(new ImplicitnessTrials(next, size));
+            int from = next;
+            next = size;
+            for (int i = from; i < size; i++) {
+                Place pPotImpl = potentiallyImplicit.get(i);
+                if (!isIngoing(pPotImpl)) {
+                    // already revoked, the sequential check re-adds and removes it without further effect
+                    if (checkImplicitness(pPotImpl)) revokeAcceptance(pPotImpl);
+                } else if (implicitnessTrials[i]) {
+                    revokeAcceptance(pPotImpl);
+                    next = i + 1;
+                    break;
+                }
+            }
+        }
+    }
+
+    /**
+     * Checks whether removing a place would leave the mapping entries of all its postset activities unchanged, without modifying any state.
+     * @param p Place.
+     * @return true, if p is implicit (gamma=0). Otherwise, false.
+     */
+    private boolean isImplicitTrial(Place p) {
+        BitMask out = p.postset().getBitMask();
+        int[] result = new int[2];
+        long[][] others = null;
+        for (int i = out.nextSetBit(0); i >= 0; i = out.nextSetBit(i + 1)) {
+            int a = postsetActivity(p, i);
+            int n = 0;
+            if (others == null || others.length < ingoingCounts[a]) others = new long[ingoingCounts[a]][];
+            for (int j = 0; j < ingoingCounts[a]; j++) {
+                if (ingoingPlaces[a][j] != p && !ingoingPlaces[a][j].equals(p)) others[n++] = ingoingTokenPresences[a][j];
+            }
+            precisionKernel.evaluate(automatonIndices[a], others, n, result);
+            if (result[0] != escapingEdges[a] || result[1] != allowed[a]) return false;
+        }
+        return true;
+    }
+
+    private boolean isIngoing(Place p) {
+        BitMask out = p.postset().getBitMask();
+        int i = out.nextSetBit(0);
+        return i >= 0 && indexOfIngoing(postsetActivity(p, i), p) >= 0;
+    }
+
+    /**
+     * Re-evaluates the postset activities of a place, in parallel if a pool is configured.
+     * @param p Place.
+     */
+    private void evaluateAffected(Place p) {
+        BitMask out = p.postset().getBitMask();
+        affectedCount = 0;
+        for (int i = out.nextSetBit(0); i >= 0; i = out.nextSetBit(i + 1)) {
+            if (affectedCount == affected.length) {
+                affected = Arrays.copyOf(affected, 2 * affectedCount);
+                affectedEvaluations = Arrays.copyOf(affectedEvaluations, 2 * affectedCount);
+                for (int k = affectedCount; k < affectedEvaluations.length; k++) {
+                    affectedEvaluations[k] = new int[2];
+                }
+            }
+            affected[affectedCount++] = postsetActivity(p, i);
+        }
+        if (pool != null && affectedCount > 1) {
+            pool.invoke(new AffectedEvaluations(0, affectedCount));
+        } else {
+            for (int k = 0; k < affectedCount; k++) {
+                evaluatePrecision(affected[k], affectedEvaluations[k]);
+            }
+        }
+    }
+
+    /**
+     * Overwrites the mapping entries of an activity test-wise, recording the previous values in the undo log.
+     * @param a Activity index.
+     * @param newEE #EscapingEdges.
+     * @param newAllowed #Allowed.
+     */
+    private void setTrialValues(int a, int newEE, int newAllowed) {
+        if (undoSize == undoActivities.length) {
+            int capacity = 2 * undoSize;
+            undoActivities = Arrays.copyOf(undoActivities, capacity);
+            undoEscapingEdges = Arrays.copyOf(undoEscapingEdges, capacity);
+            undoAllowed = Arrays.copyOf(undoAllowed, capacity);
+        }
+        undoActivities[undoSize] = a;
+        undoEscapingEdges[undoSize] = escapingEdges[a];
+        undoAllowed[undoSize] = allowed[a];
+        undoSize++;
+        setValues(a, newEE, newAllowed);
+    }
+
+    private void setValues(int a, int newEE, int newAllowed) {
+        if (a != startIndex) {
+            escapingEdgesSum += newEE - escapingEdges[a];
+            allowedSum += newAllowed - allowed[a];
+        }
+        escapingEdges[a] = newEE;
+        allowed[a] = newAllowed;
+    }
+
+    /**
+     * Keeps all test-wise changes since the last commit or rollback.
+     */
+    private void commitTrialValues() {
+        undoSize = 0;
+    }
+
+    /**
+     * Restores the mapping entries as of the last commit or rollback.
+     */
+    private void rollbackTrialValues() {
+        while (undoSize > 0) {
+            undoSize--;
+            setValues(undoActivities[undoSize], undoEscapingEdges[undoSize], undoAllowed[undoSize]);
+        }
+    }
+
     /**
      * Executed when candidate is revoked (is implicit (rho=0), insufficiently constrains precision (rho>0)).
      * @param candidate Revoked candidate.
      */
     @Override
     protected void acceptanceRevoked(Place candidate) {
-        //update markingHistoriesCache
-        markingHistoriesCache.remove(candidate);
+        //update tokenPresenceCache
+        tokenPresenceCache.remove(candidate);
         //update ActivityPlaceMapping
         removeFromActivityPlacesMapping(candidate);
         compositionEventSupervision.observe(new CandidateAcceptanceRevoked<>(candidate));
@@ -342,8 +539,8 @@ public class ETCPrecisionBasedComposer<I extends AdvancedComposition<Place>> ext
      */
     @Override
     protected void candidateRejected(Place candidate) {
-        //update markingHistoriesCache
-        markingHistoriesCache.remove(candidate);
+        //update tokenPresenceCache
+        tokenPresenceCache.remove(candidate);
         compositionEventSupervision.observe(new CandidateRejected<>(candidate));
     }
 
@@ -355,6 +552,14 @@ public class ETCPrecisionBasedComposer<I extends AdvancedComposition<Place>> ext
     public void candidatesAreExhausted() {
     }
 
+    /**
+     * Shuts down the evaluation pool, if any. Called when the owning {@code SPECpp} instance is stopped.
+     */
+    @Override
+    public void stop() {
+        if (pool != null) pool.shutdown();
+    }
+
     /**
      * Initialize the ETC-based composer: Builds prefix automaton and initial activity mappings.
      */
@@ -362,28 +567,56 @@ public class ETCPrecisionBasedComposer<I extends AdvancedComposition<Place>> ext
     protected void initSelf() {
         // Build Prefix-Automaton
         Log log = logSource.getData();
-        for(IndexedVariant indexedVariant : log) {
-            prefixAutomaton.addVariant(indexedVariant.getVariant());
-        }
+        prefixAutomaton = PrefixAutomaton.of(log);
+        precisionKernel = new ETCPrecisionKernel(log, prefixAutomaton);
 
         // Init ActivityPlaceMapping
-        MapIterator<Activity, Transition> mapIterator = actTransMapping.get().mapIterator();
+        BidiMap<Activity, Transition> mapping = actTransMapping.getData();
+        int activityCount = mapping.size();
+        activities = new Activity[activityCount];
+        automatonIndices = new int[activityCount];
+        ingoingPlaces = new Place[activityCount][4];
+        ingoingTokenPresences = new long[activityCount][4][];
+        ingoingCounts = new int[activityCount];
+        escapingEdges = new int[activityCount];
+        allowed = new int[activityCount];
+        MapIterator<Activity, Transition> mapIterator = mapping.mapIterator();
         while(mapIterator.hasNext()) {
             Activity a = mapIterator.next();
-            activityToIngoingPlaces.put(a, new HashSet<>());
+            int i = activityIndices.size();
+            activityIndices.put(a, i);
+            activities[i] = a;
+            automatonIndices[i] = prefixAutomaton.activityIndex(a);
+            if (a.equals(Factory.ARTIFICIAL_START)) startIndex = i;
         }
 
+        if (threads.getData().isParallel()) pool = new ForkJoinPool(threads.getData().getThreads());
+
         // Init EscapingEdges
-        Set<Activity> activities = actTransMapping.getData().keySet();
-        for(Activity a : activities) {
-            if(!a.equals(Factory.ARTIFICIAL_START)) {
-                int[] evalRes = evaluatePrecision(a);
-                int EE = evalRes[0];
-                int allowed = evalRes[1];
-                activityToEscapingEdges.put(a, EE);
-                activityToAllowed.put(a, allowed);
+        int[] evaluation = new int[2];
+        for (int i = 0; i < activityCount; i++) {
+            if (i != startIndex) {
+                evaluatePrecision(i, evaluation);
+                setValues(i, evaluation[0], evaluation[1]);
+            }
+        }
+    }
+
+    /**
+     * @param p Place.
+     * @param postsetIndex Index of a transition in the postset of p.
+     * @return Index of the transition's activity.
+     */
+    private int postsetActivity(Place p, int postsetIndex) {
+        IntEncoding<Transition> encoding = p.postset().getEncoding();
+        if (encoding != postsetEncoding) {
+            postsetActivities = new int[encoding.size()];
+            for (int i = 0; i < postsetActivities.length; i++) {
+                postsetActivities[i] = activityIndices.get(actTransMapping.getData().getKey(encoding.decode(i)));
             }
+            postsetEncoding = encoding;
         }
+        return postsetActivities[postsetIndex];
     }
 
     /**
@@ -391,10 +624,19 @@ public class ETCPrecisionBasedComposer<I extends AdvancedComposition<Place>> ext
      * @param p Place.
      */
     private void addToActivityPlacesMapping(Place p){
-        for(Transition t : p.postset()) {
-            Activity a = actTransMapping.get().getKey(t);
-            Set<Place> tIn = activityToIngoingPlaces.get(a);
-            tIn.add(p);
+        BitMask out = p.postset().getBitMask();
+        long[] tokenPresence = tokenPresenceCache.get(p);
+        for (int i = out.nextSetBit(0); i >= 0; i = out.nextSetBit(i + 1)) {
+            int a = postsetActivity(p, i);
+            if (indexOfIngoing(a, p) >= 0) continue;
+            int n = ingoingCounts[a];
+            if (n == ingoingPlaces[a].length) {
+                ingoingPlaces[a] = Arrays.copyOf(ingoingPlaces[a], 2 * n);
+                ingoingTokenPresences[a] = Arrays.copyOf(ingoingTokenPresences[a], 2 * n);
+            }
+            ingoingPlaces[a][n] = p;
+            ingoingTokenPresences[a][n] = tokenPresence;
+            ingoingCounts[a] = n + 1;
         }
     }
 
@@ -403,13 +645,27 @@ public class ETCPrecisionBasedComposer<I extends AdvancedComposition<Place>> ext
      * @param p Place.
      */
     private void removeFromActivityPlacesMapping(Place p){
-        for(Transition t : p.postset()) {
-            Activity a = actTransMapping.get().getKey(t);
-            Set<Place> tIn = activityToIngoingPlaces.get(a);
-            tIn.remove(p);
+        BitMask out = p.postset().getBitMask();
+        for (int i = out.nextSetBit(0); i >= 0; i = out.nextSetBit(i + 1)) {
+            int a = postsetActivity(p, i);
+            int j = indexOfIngoing(a, p);
+            if (j < 0) continue;
+            int n = --ingoingCounts[a];
+            System.arraycopy(ingoingPlaces[a], j + 1, ingoingPlaces[a], j, n - j);
+            System.arraycopy(ingoingTokenPresences[a], j + 1, ingoingTokenPresences[a], j, n - j);
+            ingoingPlaces[a][n] = null;
+            ingoingTokenPresences[a][n] = null;
         }
     }
 
+    private int indexOfIngoing(int a, Place p) {
+        Place[] places = ingoingPlaces[a];
+        for (int j = 0; j < ingoingCounts[a]; j++) {
+            if (places[j] == p || places[j].equals(p)) return j;
+        }
+        return -1;
+    }
+
 
     /**
      * Checks whether search can be aborted prematurely.
@@ -435,24 +691,14 @@ public class ETCPrecisionBasedComposer<I extends AdvancedComposition<Place>> ext
     }
 
     /**
-     * Calculates the (approximate) ETC-precision based on the given activity mappings (including/excluding test-wise added/removed places)
-     * @param activityToEscapingEdges Mapping from activities to #EscapingEdges
-     * @param activityToAllowed Mapping from activities to #Allowed
+     * Calculates the (approximate) ETC-precision based on the current activity mappings (including test-wise added/removed places)
      * @return (approximate) ETC-precision
      */
-    public double calcETCPrecision(Map<Activity, Integer> activityToEscapingEdges, Map<Activity, Integer> activityToAllowed) {
-        int EE = 0;
-        for (int i : activityToEscapingEdges.values()) {
-            EE += i;
-        }
-        int allowed = 0;
-        for (int i : activityToAllowed.values()) {
-            allowed += i;
-        }
+    public double calcETCPrecision() {
         //for starting activity:
-        allowed += logSource.getData().totalTraceCount();
+        long allowed = allowedSum + logSource.getData().totalTraceCount();
 
-        return (1 - ((double)EE/allowed));
+        return (1 - ((double) escapingEdgesSum / allowed));
     }
 
 
@@ -462,63 +708,132 @@ public class ETCPrecisionBasedComposer<I extends AdvancedComposition<Place>> ext
      * @return Integer-array of size two. [0]-#EscapingEdges a, [1]-#Allowed a
      */
     public int[] evaluatePrecision(Activity a) {
+        int[] result = new int[2];
+        evaluatePrecision(activityIndices.get(a), result);
+        return result;
+    }
 
-        int escapingEdges = 0;
-        int allowed = 0;
-        Log log = logSource.getData();
+    private void evaluatePrecision(int a, int[] result) {
+        precisionKernel.evaluate(automatonIndices[a], ingoingTokenPresences[a], ingoingCounts[a], result);
+    }
+
+    /**
+     * Evaluates a range of {@link #affected} activities, splitting it among the pool's threads.
+     */
+    private class AffectedEvaluations extends RecursiveAction {
+
+        private final int from, to;
+
+        private AffectedEvaluations(int from, int to) {
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from == 1) {
+                evaluatePrecision(affected[from], affectedEvaluations[from]);
+            } else {
+                int mid = (from + to) >>> 1;
+                invokeAll(new AffectedEvaluations(from, mid), new AffectedEvaluations(mid, to));
+            }
+        }
+    }
 
+    /**
+     * Runs the implicitness trials of a range of {@link #potentiallyImplicit} places, splitting it among the pool's threads.
+     */
+    private class ImplicitnessTrials extends RecursiveAction {
 
-        Set<Place> prerequisites = activityToIngoingPlaces.get(a);
+        private final int from, to;
 
-        // collect markingHistories
-        LinkedList<VariantMarkingHistories> markingHistories = new LinkedList<>();
-        for(Place p : prerequisites) {
-            markingHistories.add(markingHistoriesCache.get(p));
+        private ImplicitnessTrials(int from, int to) {
+            this.from = from;
+            this.to = to;
         }
 
-        //iterate log: variant by variant, activity by activity
+        @Override
+        protected void compute() {
+            if (to - from == 1) {
+                implicitnessTrials[from] = isImplicitTrial(potentiallyImplicit.get(from));
+            } else {
+                int mid = (from + to) >>> 1;
+                invokeAll(new ImplicitnessTrials(from, mid), new ImplicitnessTrials(mid, to));
+            }
+        }
+    }
 
-        for(IndexedVariant variant : log) {
+    /**
+     * Read-only map view on {@link #escapingEdges} or {@link #allowed}, keyed by all activities except the artificial start.
+     */
+    private class ActivityCounts extends AbstractMap<Activity, Integer> {
 
-            int vIndex = variant.getIndex();
-            int length = variant.getVariant().getLength();
+        private final boolean ofEscapingEdges;
 
-            PAState logState = prefixAutomaton.getInitial();
+        private ActivityCounts(boolean ofEscapingEdges) {
+            this.ofEscapingEdges = ofEscapingEdges;
+        }
 
+        private int valueAt(int i) {
+            return ofEscapingEdges ? escapingEdges[i] : allowed[i];
+        }
 
-            for (int j = 1; j < length * 2; j += 2) {
-                int aIndex = ((j + 1) / 2) - 1;
+        private int indexOf(Object key) {
+            if (activities == null) return -1;
+            Integer i = activityIndices.get(key);
+            return i == null || i == startIndex ? -1 : i;
+        }
 
-                // update log state
-                logState = logState.getTrans(log.getVariant(vIndex).getAt(aIndex)).getPointer();
+        @Override
+        public int size() {
+            if (activities == null) return 0;
+            return startIndex >= 0 ? activities.length - 1 : activities.length;
+        }
 
-                boolean isAllowedO = true;
+        @Override
+        public boolean containsKey(Object key) {
+            return indexOf(key) >= 0;
+        }
 
-                for(VariantMarkingHistories h : markingHistories) {
-                    //check if column = 1 f.a. p in prerequites --> activity a is allowed
-                    IntBuffer buffer = h.getAt(vIndex);
-                    int p = buffer.position();
+        @Override
+        public Integer get(Object key) {
+            int i = indexOf(key);
+            return i >= 0 ? valueAt(i) : null;
+        }
 
-                    if(buffer.get(p + j) == 0) {
-                        isAllowedO = false;
-                        break;
-                    }
+        @Override
+        public Set<Entry<Activity, Integer>> entrySet() {
+            return new AbstractSet<Entry<Activity, Integer>>() {
+                @Override
+                public Iterator<Entry<Activity, Integer>> iterator() {
+                    return new Iterator<Entry<Activity, Integer>>() {
+                        private int next = advance(0);
+
+                        private int advance(int i) {
+                            return i == startIndex ? i + 1 : i;
+                        }
+
+                        @Override
+                        public boolean hasNext() {
+                            return activities != null && next < activities.length;
+                        }
+
+                        @Override
+                        public Entry<Activity, Integer> next() {
+                            if (!hasNext()) throw new NoSuchElementException();
+                            Entry<Activity, Integer> entry = new SimpleImmutableEntry<>(activities[next], valueAt(next));
+                            next = advance(next + 1);
+                            return entry;
+                        }
+                    };
                 }
 
-                if(isAllowedO) {
-                    allowed += log.getVariantFrequency(vIndex);
-
-                    //check if a is reflected
-                    if (!logState.checkForOutgoingAct(a)) {
-                        //a is not reflected, hence escaping
-                        escapingEdges += log.getVariantFrequency(vIndex);
-                    }
+                @Override
+                public int size() {
+                    return ActivityCounts.this.size();
                 }
-            }
+            };
         }
-        return new int[]{escapingEdges, allowed};
     }
 
-
-
 }
@@ -26,19 +26,17 @@ import org.processmining.specpp.datastructures.encoding.BitEncodedSet;
 import org.processmining.specpp.datastructures.log.Activity;
 import org.processmining.specpp.datastructures.log.Log;
 import org.processmining.specpp.datastructures.log.impls.Factory;
-import org.processmining.specpp.datastructures.log.impls.IndexedVariant;
 import org.processmining.specpp.datastructures.petri.CollectionOfPlaces;
 import org.processmining.specpp.datastructures.petri.Place;
 import org.processmining.specpp.datastructures.petri.Transition;
-import org.processmining.specpp.datastructures.transitionSystems.PAState;
 import org.processmining.specpp.datastructures.transitionSystems.PrefixAutomaton;
 import org.processmining.specpp.datastructures.vectorization.VariantMarkingHistories;
+import org.processmining.specpp.evaluation.precision.ETCPrecisionKernel;
 import org.processmining.specpp.supervision.EventSupervision;
 import org.processmining.specpp.supervision.piping.Observable;
 import org.processmining.specpp.supervision.piping.PipeWorks;
 import org.processmining.specpp.util.JavaTypingUtils;
 
-import java.nio.IntBuffer;
 import java.util.*;
 
 /**
@@ -52,12 +50,13 @@ public class ETCPrecisionBasedComposer_Dummy<I extends AdvancedComposition<Place
     private final DelegatingDataSource<Log> logSource = new DelegatingDataSource<>();
     private final DelegatingDataSource<BidiMap<Activity, Transition>> actTransMapping = new DelegatingDataSource<>();
     private final DelegatingEvaluator<Place, VariantMarkingHistories> markingHistoriesEvaluator = new DelegatingEvaluator<>();
-    private final PrefixAutomaton prefixAutomaton = new PrefixAutomaton(new PAState());
+    private PrefixAutomaton prefixAutomaton;
     private final Map<Activity, Set<Place>> activityToIngoingPlaces = new HashMap<>();
     private final Map<Activity, Integer> activityToEscapingEdges = new HashMap<>();
     private final Map<Activity, Integer> activityToAllowed = new HashMap<>();
 
-    private final Map<Place, VariantMarkingHistories> markingHistoriesCache = new HashMap<>();
+    private final Map<Place, long[]> tokenPresenceCache = new HashMap<>();
+    private ETCPrecisionKernel precisionKernel;
     private final EventSupervision<CandidateCompositionEvent<Place>> compositionEventSupervision = PipeWorks.eventSupervision();
 
 
@@ -92,7 +91,7 @@ public class ETCPrecisionBasedComposer_Dummy<I extends AdvancedComposition<Place
     @Override
     protected boolean deliberateAcceptance(Place candidate) {
 
-        markingHistoriesCache.put(candidate, markingHistoriesEvaluator.eval(candidate));
+        tokenPresenceCache.put(candidate, precisionKernel.tokenPresence(markingHistoriesEvaluator.eval(candidate)));
 
         BitEncodedSet<Transition> candidateOut = candidate.postset();
         Set<Activity> activitiesToRevealuate = new HashSet<>();
@@ -143,9 +142,8 @@ public class ETCPrecisionBasedComposer_Dummy<I extends AdvancedComposition<Place
     protected void initSelf() {
         // Build Prefix-Automaton
         Log log = logSource.getData();
-        for(IndexedVariant indexedVariant : log) {
-            prefixAutomaton.addVariant(indexedVariant.getVariant());
-        }
+        prefixAutomaton = PrefixAutomaton.of(log);
+        precisionKernel = new ETCPrecisionKernel(log, prefixAutomaton);
 
         // Init ActivityPlaceMapping
         MapIterator<Activity, Transition> mapIterator = actTransMapping.get().mapIterator();
@@ -190,63 +188,14 @@ public class ETCPrecisionBasedComposer_Dummy<I extends AdvancedComposition<Place
 
 
     public int[] evaluatePrecision(Activity a) {
-
-        int escapingEdges = 0;
-        int allowed = 0;
-        Log log = logSource.getData();
-
-
         Set<Place> prerequisites = activityToIngoingPlaces.get(a);
 
-        // collect markingHistories
-        LinkedList<VariantMarkingHistories> markingHistories = new LinkedList<>();
+        List<long[]> tokenPresences = new ArrayList<>(prerequisites.size());
         for(Place p : prerequisites) {
-            markingHistories.add(markingHistoriesCache.get(p));
+            tokenPresences.add(tokenPresenceCache.get(p));
         }
 
-        //iterate log: variant by variant, activity by activity
-
-        for(IndexedVariant variant : log) {
-
-            int vIndex = variant.getIndex();
-            int length = variant.getVariant().getLength();
-
-            PAState logState = prefixAutomaton.getInitial();
-
-
-            for (int j = 1; j < length * 2; j += 2) {
-                int aIndex = ((j + 1) / 2) - 1;
-
-                // update log state
-                logState = logState.getTrans(log.getVariant(vIndex).getAt(aIndex)).getPointer();
-
-                boolean isAllowedO = true;
-
-                for(VariantMarkingHistories h : markingHistories) {
-                    //check if column = 1 f.a. p in prerequites --> activity a is allowed
-                    IntBuffer buffer = h.getAt(vIndex);
-                    int p = buffer.position();
-
-                    if(buffer.get(p + j) == 0) {
-                        isAllowedO = false;
-                        break;
-                    }
-                }
-
-                if(isAllowedO) {
-                    allowed += log.getVariantFrequency(vIndex);
-
-                    //check if a is reflected
-                    if (!logState.checkForOutgoingAct(a)) {
-                        //a is not reflected, hence escaping
-                        escapingEdges += log.getVariantFrequency(vIndex);
-                    }
-                }
-            }
-        }
-        return new int[]{escapingEdges, allowed};
+        return precisionKernel.evaluate(a, tokenPresences);
     }
 
-
-
 }
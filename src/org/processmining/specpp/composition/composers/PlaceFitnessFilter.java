@@ -2,6 +2,7 @@ package org.processmining.specpp.composition.composers;
 
 import org.processmining.specpp.base.ConstrainingComposer;
 import org.processmining.specpp.base.Result;
+import org.processmining.specpp.base.SpeculativeEvaluation;
 import org.processmining.specpp.base.impls.CandidateConstraint;
 import org.processmining.specpp.base.impls.FilteringComposer;
 import org.processmining.specpp.componenting.data.DataRequirements;
@@ -14,6 +15,7 @@ import org.processmining.specpp.componenting.supervision.SupervisionRequirements
 import org.processmining.specpp.componenting.system.link.ComposerComponent;
 import org.processmining.specpp.componenting.system.link.CompositionComponent;
 import org.processmining.specpp.config.parameters.TauFitnessThresholds;
+import org.processmining.specpp.datastructures.encoding.BitMask;
 import org.processmining.specpp.datastructures.petri.Place;
 import org.processmining.specpp.datastructures.tree.constraints.ClinicallyOverfedPlace;
 import org.processmining.specpp.datastructures.tree.constraints.ClinicallyUnderfedPlace;
@@ -21,26 +23,47 @@ import org.processmining.specpp.datastructures.util.BasicCache;
 import org.processmining.specpp.evaluation.fitness.BasicFitnessEvaluation;
 import org.processmining.specpp.evaluation.fitness.DetailedFitnessEvaluation;
 import org.processmining.specpp.evaluation.fitness.FitnessThresholder;
+import org.processmining.specpp.evaluation.fitness.ThresholdedFitnessEvaluation;
 import org.processmining.specpp.supervision.EventSupervision;
 import org.processmining.specpp.supervision.piping.Observable;
 import org.processmining.specpp.supervision.piping.PipeWorks;
 import org.processmining.specpp.util.JavaTypingUtils;
 
-public class PlaceFitnessFilter<I extends CompositionComponent<Place>, R extends Result> extends FilteringComposer<Place, I, R> implements ConstrainingComposer<Place, I, R, CandidateConstraint<Place>> {
+public class PlaceFitnessFilter<I extends CompositionComponent<Place>, R extends Result> extends FilteringComposer<Place, I, R> implements ConstrainingComposer<Place, I, R, CandidateConstraint<Place>>, SpeculativeEvaluation<Place, PlaceFitnessFilter.SpeculatedFitness> {
 
     protected final DelegatingEvaluator<Place, DetailedFitnessEvaluation> fitnessEvaluator = new DelegatingEvaluator<>();
+    protected final DelegatingEvaluator<Place, ThresholdedFitnessEvaluation> thresholdedFitnessEvaluator = new DelegatingEvaluator<>();
     protected final DelegatingDataSource<TauFitnessThresholds> fitnessThresholds = new DelegatingDataSource<>();
+    protected final DelegatingDataSource<BitMask> consideredVariants = new DelegatingDataSource<>();
     protected final EventSupervision<CandidateConstraint<Place>> constraintEvents = PipeWorks.eventSupervision();
     protected final BasicCache<Place, DetailedFitnessEvaluation> fitnessCache;
+    private Place primedPlace;
+    private SpeculatedFitness primedFitness;
+
+    /**
+     * A speculatively computed evaluation together with the considered variants it was computed on.
+     */
+    protected static class SpeculatedFitness {
+        private final BitMask consideredVariants;
+        private final ThresholdedFitnessEvaluation evaluation;
+
+        protected SpeculatedFitness(BitMask consideredVariants, ThresholdedFitnessEvaluation evaluation) {
+            this.consideredVariants = consideredVariants;
+            this.evaluation = evaluation;
+        }
+    }
 
     public PlaceFitnessFilter(ComposerComponent<Place, I, R> childComposer) {
         super(childComposer);
         fitnessCache = new BasicCache<>();
         globalComponentSystem().require(EvaluationRequirements.DETAILED_FITNESS, fitnessEvaluator)
+                               .require(EvaluationRequirements.THRESHOLDED_FITNESS, thresholdedFitnessEvaluator)
                                .require(ParameterRequirements.TAU_FITNESS_THRESHOLDS, fitnessThresholds)
+                               .require(DataRequirements.CONSIDERED_VARIANTS, consideredVariants)
                                .provide(SupervisionRequirements.observable("composer.constraints.under_over_fed", getPublishedConstraintClass(), getConstraintPublisher()));
         localComponentSystem().provide(SupervisionRequirements.observable("composer.constraints.under_over_fed", getPublishedConstraintClass(), getConstraintPublisher()))
-                              .provide(DataRequirements.dataSource("fitness_cache", JavaTypingUtils.castClass(BasicCache.class), StaticDataSource.of(fitnessCache)));
+                              .provide(DataRequirements.dataSource("fitness_cache", JavaTypingUtils.castClass(BasicCache.class), StaticDataSource.of(fitnessCache)))
+                              .provide(DataRequirements.dataSource("composer.speculation", JavaTypingUtils.castClass(SpeculativeEvaluation.class), StaticDataSource.of(this)));
     }
 
     @Override
@@ -48,21 +71,58 @@ public class PlaceFitnessFilter<I extends CompositionComponent<Place>, R extends
 
     }
 
+    @Override
+    public SpeculatedFitness speculate(Place candidate) {
+        // read before evaluating, so that an evaluation on variants that changed in the meantime is never attributed to the current ones
+        BitMask variants = getCurrentConsideredVariants();
+        ThresholdedFitnessEvaluation evaluation = thresholdedFitnessEvaluator.isSet() ? thresholdedFitnessEvaluator.eval(candidate) : ThresholdedFitnessEvaluation.exact(fitnessEvaluator.eval(candidate));
+        return new SpeculatedFitness(variants, evaluation);
+    }
+
+    @Override
+    public void prime(Place candidate, SpeculatedFitness result) {
+        primedPlace = candidate;
+        primedFitness = result;
+    }
+
+    /**
+     * @return the primed evaluation of {@code place} if it was computed on the currently considered variants, {@code null} otherwise
+     */
+    protected ThresholdedFitnessEvaluation takePrimedEvaluation(Place place) {
+        SpeculatedFitness primed = place.equals(primedPlace) ? primedFitness : null;
+        primedPlace = null;
+        primedFitness = null;
+        return primed != null && primed.consideredVariants == getCurrentConsideredVariants() ? primed.evaluation : null;
+    }
+
+    protected BitMask getCurrentConsideredVariants() {
+        return consideredVariants.isSet() ? consideredVariants.getData() : null;
+    }
+
     @Override
     public void accept(Place place) {
-        DetailedFitnessEvaluation eval = fitnessEvaluator.eval(place);
-        BasicFitnessEvaluation fitness = eval.getFractionalEvaluation();
         TauFitnessThresholds thresholds = fitnessThresholds.getData();
+        ThresholdedFitnessEvaluation thresholded = takePrimedEvaluation(place);
+        if (thresholded == null && thresholdedFitnessEvaluator.isSet()) thresholded = thresholdedFitnessEvaluator.eval(place);
+        // most candidates are clearly under- or overfed, which an early exiting evaluation already determines
+        if (thresholded != null && !passesThresholds(place, thresholded, thresholds)) return;
+        DetailedFitnessEvaluation eval = thresholded != null && thresholded.isExact() ? thresholded.getDetailedEvaluation() : fitnessEvaluator.eval(place);
+        if (passesThresholds(place, eval.getFractionalEvaluation(), thresholds)) {
+            fitnessCache.put(place, eval);
+            forward(place);
+        }
+    }
+
+    protected boolean passesThresholds(Place place, BasicFitnessEvaluation fitness, TauFitnessThresholds thresholds) {
         if (FitnessThresholder.isUnderfed(fitness, thresholds)) {
             constraintEvents.observe(new ClinicallyUnderfedPlace(place));
             gotFiltered(place);
+            return false;
         } else if (FitnessThresholder.isOverfed(fitness, thresholds)) {
             constraintEvents.observe(new ClinicallyOverfedPlace(place));
             gotFiltered(place);
-        } else if (FitnessThresholder.isTauFitting(fitness, thresholds)) {
-            fitnessCache.put(place, eval);
-            forward(place);
-        }
+            return false;
+        } else return FitnessThresholder.isTauFitting(fitness, thresholds);
     }
 
     protected void gotFiltered(Place place) {
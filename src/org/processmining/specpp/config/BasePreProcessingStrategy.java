@@ -2,6 +2,7 @@ package org.processmining.specpp.config;
 
 import org.deckfour.xes.model.XLog;
 import org.processmining.specpp.datastructures.log.ParsedLog;
+import org.processmining.specpp.preprocessing.XESStreamParser;
 import org.processmining.specpp.preprocessing.XLogParser;
 
 public class BasePreProcessingStrategy implements PreProcessingStrategy {
@@ -9,4 +10,15 @@ public class BasePreProcessingStrategy implements PreProcessingStrategy {
     public ParsedLog parse(XLog xLog, PreProcessingParameters parameters) {
         return XLogParser.convertLog(xLog, parameters.getEventClassifier(), parameters.isAddStartEndTransitions());
     }
+
+    /**
+     * Streams plain and gzipped XES files directly into a parsed log without materializing an {@code XLog}. Other formats are loaded as usual.
+     */
+    @Override
+    public ParsedLog load(String logPath, PreProcessingParameters parameters) {
+        String lower = logPath.toLowerCase();
+        if (lower.endsWith(".xes") || lower.endsWith(".xes.gz"))
+            return XESStreamParser.parse(logPath, parameters.getEventClassifier(), parameters.isAddStartEndTransitions());
+        return PreProcessingStrategy.super.load(logPath, parameters);
+    }
 }
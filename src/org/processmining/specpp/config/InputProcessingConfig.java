@@ -25,6 +25,14 @@ public interface InputProcessingConfig {
         return getPreProcessingStrategy().getParser(xLog, getPreProcessingParameters());
     }
 
+    default DataSource<InputDataBundle> getInputDataSource(String logPath) {
+        return () -> getInputDataSource(getParsedLogDataSource(logPath).getData()).getData();
+    }
+
+    default DataSource<ParsedLog> getParsedLogDataSource(String logPath) {
+        return getPreProcessingStrategy().getLoader(logPath, getPreProcessingParameters());
+    }
+
     default DataSource<InputDataBundle> getInputDataSource(ParsedLog parsedLog) {
         return getDataExtractionStrategy().getExtractor(parsedLog, getDataExtractionParameters());
     }
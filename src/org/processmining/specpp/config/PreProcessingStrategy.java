@@ -3,6 +3,7 @@ package org.processmining.specpp.config;
 import org.deckfour.xes.model.XLog;
 import org.processmining.specpp.componenting.data.DataSource;
 import org.processmining.specpp.datastructures.log.ParsedLog;
+import org.processmining.specpp.preprocessing.XLogParser;
 
 public interface PreProcessingStrategy {
 
@@ -12,4 +13,12 @@ public interface PreProcessingStrategy {
         return () -> parse(xLog, parameters);
     }
 
+    default ParsedLog load(String logPath, PreProcessingParameters parameters) {
+        return parse(XLogParser.readLog(logPath), parameters);
+    }
+
+    default DataSource<ParsedLog> getLoader(String logPath, PreProcessingParameters parameters) {
+        return () -> load(logPath, parameters);
+    }
+
 }
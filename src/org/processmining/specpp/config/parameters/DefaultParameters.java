@@ -9,6 +9,7 @@ public class DefaultParameters extends ParameterProvider {
                                .provide(ParameterRequirements.SUPERVISION_PARAMETERS.fulfilWithStatic(SupervisionParameters.getDefault()))
                                .provide(ParameterRequirements.TAU_FITNESS_THRESHOLDS.fulfilWithStatic(TauFitnessThresholds.getDefault()))
                                .provide(ParameterRequirements.REPLAY_COMPUTATION.fulfilWithStatic(ReplayComputationParameters.getDefault()))
+                               .provide(ParameterRequirements.PARALLEL_REPLAY.fulfilWithStatic(ParallelReplayParameters.getDefault()))
                                .provide(ParameterRequirements.IMPLICITNESS_TESTING.fulfilWithStatic(ImplicitnessTestingParameters.getDefault()))
                                .provide(ParameterRequirements.PLACE_GENERATOR_PARAMETERS.fulfilWithStatic(PlaceGeneratorParameters.getDefault()));
     }
@@ -7,11 +7,21 @@ public class ExecutionParameters implements Parameters {
     private final ParallelizationTarget parallelizationTarget;
     private final PerformanceFocus performanceFocus;
     private final ExecutionTimeLimits timeLimits;
+    private final int speculationWindow;
 
     public ExecutionParameters(ExecutionTimeLimits timeLimits, ParallelizationTarget parallelizationTarget, PerformanceFocus performanceFocus) {
+        this(timeLimits, parallelizationTarget, performanceFocus, 0);
+    }
+
+    /**
+     * @param speculationWindow the number of candidates the proposer may run ahead of the composer, {@code 0} for strictly sequential PEC cycles
+     */
+    public ExecutionParameters(ExecutionTimeLimits timeLimits, ParallelizationTarget parallelizationTarget, PerformanceFocus performanceFocus, int speculationWindow) {
+        assert speculationWindow >= 0;
         this.timeLimits = timeLimits;
         this.parallelizationTarget = parallelizationTarget;
         this.performanceFocus = performanceFocus;
+        this.speculationWindow = speculationWindow;
     }
 
     public static ExecutionParameters timeouts(ExecutionTimeLimits timeLimits) {
@@ -97,6 +107,18 @@ public class ExecutionParameters implements Parameters {
         return performanceFocus;
     }
 
+    public int getSpeculationWindow() {
+        return speculationWindow;
+    }
+
+    public boolean isSpeculative() {
+        return speculationWindow > 0;
+    }
+
+    public ExecutionParameters withSpeculationWindow(int speculationWindow) {
+        return new ExecutionParameters(timeLimits, parallelizationTarget, performanceFocus, speculationWindow);
+    }
+
     public enum ParallelizationTarget {
         None, Moderate, Maximum
     }
@@ -0,0 +1,49 @@
+package org.processmining.specpp.config.parameters;
+
+public class ParallelReplayParameters implements Parameters {
+
+    public static final int DEFAULT_MIN_SPLITTING_EVENT_COUNT = 1 << 15;
+
+    /**
+     * Number of worker threads of a dedicated fork join pool. Non-positive values select the common pool.
+     */
+    private final int parallelism;
+    /**
+     * Replay ranges of variants with fewer events than this are not split any further but replayed sequentially.
+     */
+    private final int minSplittingEventCount;
+
+    public ParallelReplayParameters(int parallelism, int minSplittingEventCount) {
+        this.parallelism = parallelism;
+        this.minSplittingEventCount = minSplittingEventCount;
+    }
+
+    public static ParallelReplayParameters getDefault() {
+        return commonPool();
+    }
+
+    public static ParallelReplayParameters commonPool() {
+        return new ParallelReplayParameters(0, DEFAULT_MIN_SPLITTING_EVENT_COUNT);
+    }
+
+    public static ParallelReplayParameters dedicatedPool(int parallelism) {
+        return new ParallelReplayParameters(parallelism, DEFAULT_MIN_SPLITTING_EVENT_COUNT);
+    }
+
+    public boolean usesCommonPool() {
+        return parallelism <= 0;
+    }
+
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    public int getMinSplittingEventCount() {
+        return minSplittingEventCount > 0 ? minSplittingEventCount : DEFAULT_MIN_SPLITTING_EVENT_COUNT;
+    }
+
+    @Override
+    public String toString() {
+        return "ParallelReplayParameters{" + "parallelism=" + parallelism + ", minSplittingEventCount=" + minSplittingEventCount + '}';
+    }
+}
@@ -3,9 +3,19 @@ package org.processmining.specpp.config.parameters;
 public class ReplayComputationParameters implements Parameters {
 
     private final boolean clipMarkingAtZero;
+    /**
+     * Memory in bytes that may be spent on materialized per transition cumulative occurrence vectors from which marking histories are summed up.
+     * If the vectors do not fit, not even delta compressed, marking histories are replayed on the fly. Non-positive values disable materialization.
+     */
+    private final long historyMemoryBudget;
 
     public ReplayComputationParameters(boolean clipMarkingAtZero) {
+        this(clipMarkingAtZero, 0);
+    }
+
+    public ReplayComputationParameters(boolean clipMarkingAtZero, long historyMemoryBudget) {
         this.clipMarkingAtZero = clipMarkingAtZero;
+        this.historyMemoryBudget = historyMemoryBudget;
     }
 
     public static ReplayComputationParameters getDefault() {
@@ -16,12 +26,24 @@ public class ReplayComputationParameters implements Parameters {
         return new ReplayComputationParameters(!permitNegativeMarkingsDuringReplay);
     }
 
+    public static ReplayComputationParameters withHistoryMemoryBudget(long historyMemoryBudget) {
+        return new ReplayComputationParameters(true, historyMemoryBudget);
+    }
+
     public boolean isClipMarkingAtZero() {
         return clipMarkingAtZero;
     }
 
+    public long getHistoryMemoryBudget() {
+        return historyMemoryBudget;
+    }
+
+    public boolean mayMaterializeHistories() {
+        return historyMemoryBudget > 0;
+    }
+
     @Override
     public String toString() {
-        return "ReplayComputationParameters{" + "clipMarkingAtZero=" + clipMarkingAtZero + '}';
+        return "ReplayComputationParameters{" + "clipMarkingAtZero=" + clipMarkingAtZero + ", historyMemoryBudget=" + historyMemoryBudget + '}';
     }
 }
@@ -12,17 +12,24 @@ public class SupervisionParameters implements Parameters {
 
     private final boolean useConsole, useFiles;
     private final Set<Class<?>> classesToInstrument;
+    /**
+     * Only every n-th measurement per thread of instrumented components is taken, see {@link org.processmining.specpp.supervision.observations.performance.PerformanceRecorder}.
+     */
+    private final int performanceSamplingInterval;
 
     public SupervisionParameters(boolean useConsole, boolean useFiles) {
-        this.useConsole = useConsole;
-        this.useFiles = useFiles;
-        classesToInstrument = new HashSet<>();
+        this(useConsole, useFiles, new HashSet<>());
     }
 
     public SupervisionParameters(boolean useConsole, boolean useFiles, Set<Class<?>> classesToInstrument) {
+        this(useConsole, useFiles, classesToInstrument, 1);
+    }
+
+    public SupervisionParameters(boolean useConsole, boolean useFiles, Set<Class<?>> classesToInstrument, int performanceSamplingInterval) {
         this.useConsole = useConsole;
         this.useFiles = useFiles;
         this.classesToInstrument = classesToInstrument;
+        this.performanceSamplingInterval = performanceSamplingInterval;
     }
 
 
@@ -74,10 +81,14 @@ public class SupervisionParameters implements Parameters {
         return useFiles;
     }
 
+    public int getPerformanceSamplingInterval() {
+        return performanceSamplingInterval;
+    }
+
     @Override
     public String toString() {
         return "SupervisionParameters{" + "useConsole=" + useConsole + ", useFiles=" + useFiles + ", classesToInstrument=" + classesToInstrument.stream()
                                                                                                                                                 .map(Class::getSimpleName)
-                                                                                                                                                .collect(Collectors.toList()) + '}';
+                                                                                                                                                .collect(Collectors.toList()) + ", performanceSamplingInterval=" + performanceSamplingInterval + '}';
     }
 }
@@ -0,0 +1,63 @@
+package org.processmining.specpp.config.parameters;
+
+/**
+ * Parameter to guide the ETC-based composer.
+ * Number of threads among which the composer distributes the re-evaluation of the activities affected by a place, as well as the implicitness trials of potentially implicit places (gamma=0).
+ */
+public class ThreadsETCPrecisionEvaluation implements Parameters {
+
+    /**
+     * Value.
+     */
+    private final int threads;
+
+    /**
+     * Creates a new ThreadsETCPrecisionEvaluation-parameter.
+     * @param t Number of threads. Values below two select sequential evaluation.
+     * @return ThreadsETCPrecisionEvaluation-parameter.
+     */
+    public static ThreadsETCPrecisionEvaluation threads(int t) {
+        return new ThreadsETCPrecisionEvaluation(t);
+    }
+
+    /**
+     * Returns the ThreadsETCPrecisionEvaluation-parameter with its default value 1, i.e., sequential evaluation.
+     * @return ThreadsETCPrecisionEvaluation-parameter
+     */
+    public static ThreadsETCPrecisionEvaluation getDefault() {
+        return threads(1);
+    }
+
+    /**
+     * Creates a new ThreadsETCPrecisionEvaluation-parameter.
+     * @param t Number of threads.
+     */
+    public ThreadsETCPrecisionEvaluation(int t) {
+        this.threads = t;
+    }
+
+    /**
+     * Returns the value of the ThreadsETCPrecisionEvaluation-parameter.
+     * @return Number of threads.
+     */
+    public int getThreads() {
+        return threads;
+    }
+
+    /**
+     * Returns whether the evaluation is distributed among multiple threads.
+     * @return true, if more than one thread is used. Otherwise, false.
+     */
+    public boolean isParallel() {
+        return threads > 1;
+    }
+
+    /**
+     * Returns a string with the  name of the parameter and its value.
+     * @return String.
+     */
+    @Override
+    public String toString() {
+        return "ETCPrecisionEvaluationThreads(threads=" + threads + ")";
+    }
+}
@@ -46,7 +46,7 @@ public class BaseComponentConfig implements ComponentConfig {
     @Override
     public EvaluatorConfiguration getEvaluatorConfiguration(GlobalComponentRepository gcr) {
         return Configurators.evaluators()
-                            .addEvaluatorProvider(LogHistoryMaker::new)
+                            .addEvaluatorProvider(new LogHistoryMaker.Builder())
                             .addEvaluatorProvider(new AbsolutelyNoFrillsFitnessEvaluator.Builder())
                             .addEvaluatorProvider(new LPBasedImplicitnessCalculator.Builder())
                             .build(gcr);
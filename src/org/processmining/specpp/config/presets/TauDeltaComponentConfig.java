@@ -29,7 +29,7 @@ public class TauDeltaComponentConfig extends BaseComponentConfig {
     @Override
     public EvaluatorConfiguration getEvaluatorConfiguration(GlobalComponentRepository gcr) {
         return Configurators.evaluators()
-                            .addEvaluatorProvider(LogHistoryMaker::new)
+                            .addEvaluatorProvider(new LogHistoryMaker.Builder())
                             .addEvaluatorProvider(new AbsolutelyNoFrillsFitnessEvaluator.Builder())
                             .addEvaluatorProvider(new ConstantDelta.Builder())
                             .build(gcr);
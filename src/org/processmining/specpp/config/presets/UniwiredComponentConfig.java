@@ -33,7 +33,7 @@ public class UniwiredComponentConfig extends BaseComponentConfig {
     @Override
     public EvaluatorConfiguration getEvaluatorConfiguration(GlobalComponentRepository gcr) {
         return Configurators.evaluators()
-                            .addEvaluatorProvider(LogHistoryMaker::new)
+                            .addEvaluatorProvider(new LogHistoryMaker.Builder())
                             .addEvaluatorProvider(new AbsolutelyNoFrillsFitnessEvaluator.Builder())
                             .addEvaluatorProvider(new DirectlyFollowsHeuristic.Builder())
                             .build(gcr);
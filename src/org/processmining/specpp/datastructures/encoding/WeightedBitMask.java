@@ -1,11 +1,15 @@
 package org.processmining.specpp.datastructures.encoding;
 
 import java.util.function.IntToDoubleFunction;
+import java.util.function.IntUnaryOperator;
 
 public class WeightedBitMask extends BitMask {
 
     private double weight;
     private IntToDoubleFunction currentWeightFunction;
+    private IntUnaryOperator integralWeightFunction;
+    private long integralWeight;
+    private double normalizer;
 
     public WeightedBitMask() {
     }
@@ -20,15 +24,56 @@ public class WeightedBitMask extends BitMask {
         reweigh(weightFunction);
     }
 
+    /**
+     * Creates a mask whose weight is the sum of the integral weights of its bits divided by {@code normalizer}, e.g. the relative frequency of a set of variants.
+     * The running weight maintained by {@link #setWeighted(int)} and {@link #clearWeighted(int)} is then an exact integer sum which does not drift.
+     */
+    public WeightedBitMask(BitMask bitMask, IntUnaryOperator integralWeightFunction, double normalizer) {
+        bitMask.stream().forEach(this::set);
+        this.integralWeightFunction = integralWeightFunction;
+        this.normalizer = normalizer;
+        reweigh(i -> integralWeightFunction.applyAsInt(i) / normalizer);
+    }
+
     private void reweigh(IntToDoubleFunction weightFunction) {
-        weight = stream().mapToDouble(weightFunction).sum();
+        if (integralWeightFunction != null) {
+            integralWeight = stream().mapToLong(integralWeightFunction::applyAsInt).sum();
+            weight = integralWeight / normalizer;
+        } else weight = stream().mapToDouble(weightFunction).sum();
         currentWeightFunction = weightFunction;
     }
 
+    private void addWeight(int index, int sign) {
+        if (integralWeightFunction != null) {
+            integralWeight += sign * (long) integralWeightFunction.applyAsInt(index);
+            weight = integralWeight / normalizer;
+        } else weight += sign * currentWeightFunction.applyAsDouble(index);
+    }
+
     public double getWeight() {
         return weight;
     }
 
+    /**
+     * Sets a single bit and adds its weight to the running weight, without reweighing the whole mask.
+     */
+    public void setWeighted(int index) {
+        if (!get(index)) {
+            set(index);
+            addWeight(index, 1);
+        }
+    }
+
+    /**
+     * Clears a single bit and subtracts its weight from the running weight, without reweighing the whole mask.
+     */
+    public void clearWeighted(int index) {
+        if (get(index)) {
+            clear(index);
+            addWeight(index, -1);
+        }
+    }
+
     @Override
     public void union(BitMask other) {
         super.union(other);
@@ -49,7 +94,10 @@ public class WeightedBitMask extends BitMask {
 
     @Override
     public BitMask copy() {
-        BitMask result = new WeightedBitMask(weight, currentWeightFunction);
+        WeightedBitMask result = new WeightedBitMask(weight, currentWeightFunction);
+        result.integralWeightFunction = integralWeightFunction;
+        result.integralWeight = integralWeight;
+        result.normalizer = normalizer;
         stream().forEach(result::set);
         return result;
     }
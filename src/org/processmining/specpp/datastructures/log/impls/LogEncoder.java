@@ -10,16 +10,23 @@ import org.processmining.specpp.datastructures.log.OnlyCoversIndexSubset;
 import org.processmining.specpp.datastructures.log.Variant;
 import org.processmining.specpp.datastructures.petri.Transition;
 import org.processmining.specpp.datastructures.vectorization.IntSubVector;
-import org.processmining.specpp.datastructures.vectorization.IntVector;
 import org.processmining.specpp.datastructures.vectorization.IntVectorStorage;
 import org.processmining.specpp.datastructures.vectorization.IntVectorSubsetStorage;
 
-import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
 
 public class LogEncoder {
 
+    /**
+     * Minimum number of events from which variant ranges are encoded in parallel.
+     */
+    public static final int PARALLEL_ENCODING_THRESHOLD = 1 << 16;
+
     public static class LogEncodingParameters {
 
         private final boolean discardEmptyVariants, filterByEncodedActivities;
@@ -59,43 +66,138 @@ public class LogEncoder {
 
 
     public static EncodedLog encodeLog(Log log, IntEncoding<Activity> encoding, LogEncodingParameters lep, LogEncodingInfo lei) {
-        BitMask mask = log.variantIndices().copy();
-        Set<Activity> activitySet = lei.getEncodedActivities();
-        ArrayList<Integer> cumLengthsList = new ArrayList<>();
-        ArrayList<Integer> dataList = new ArrayList<>();
-        boolean discardedVariant = false;
-        int acc = 0;
-        cumLengthsList.add(acc);
+        EncodingResult result = encode(log, lep, lei, encoding);
+        return result.toEncodedLog(log, 0, encoding);
+    }
+
+    /**
+     * Encodes all variants of {@code log} under all given encodings at once.
+     * A first pass determines the encoded length of every variant and thereby the start indices shared by all encodings, a second pass fills the flat data arrays of all encodings in a single traversal of each variant.
+     * Both passes are partitioned into variant ranges that are processed in parallel if the log is large.
+     */
+    @SafeVarargs
+    private static EncodingResult encode(Log log, LogEncodingParameters lep, LogEncodingInfo lei, IntEncoding<Activity>... encodings) {
+        int variantCount = log.variantCount();
+        Variant[] variants = new Variant[variantCount];
+        int[] indices = new int[variantCount];
+        int eventCount = 0, v = 0;
         for (IndexedVariant indexedVariant : log) {
-            Variant variant = indexedVariant.getItem();
-            int length = 0;
-            for (Activity activity : variant) {
-                if (!lep.filterByEncodedActivities() || activitySet.contains(activity)) {
-                    if (encoding.isInDomain(activity)) dataList.add(encoding.encode(activity));
-                    else dataList.add(IntEncoding.OUTSIDE_RANGE);
-                    ++length;
+            variants[v] = indexedVariant.getItem();
+            indices[v] = indexedVariant.getIndex();
+            eventCount += variants[v].size();
+            v++;
+        }
+
+        // codes.get(a)[k] is the code of activity a under encodings[k]
+        Set<Activity> activitySet = lei.getEncodedActivities();
+        Map<Activity, int[]> codes = new HashMap<>();
+        for (int k = 0; k < encodings.length; k++) {
+            int index = k;
+            encodings[k].domain().forEach(activity -> codes.computeIfAbsent(activity, a -> outsideRange(encodings.length))[index] = encodings[index].encode(activity));
+        }
+        int[] outside = outsideRange(encodings.length);
+        boolean filter = lep.filterByEncodedActivities();
+
+        int[] lengths = new int[variantCount];
+        forEachVariantRange(variantCount, eventCount, (from, to) -> {
+            for (int i = from; i < to; i++) {
+                if (!filter) lengths[i] = variants[i].size();
+                else {
+                    int length = 0;
+                    for (Activity activity : variants[i]) {
+                        if (activitySet.contains(activity)) ++length;
+                    }
+                    lengths[i] = length;
                 }
             }
-            if (length == 0 && lep.discardEmptyVariants()) {
-                mask.clear(indexedVariant.getIndex());
+        });
+
+        BitMask mask = log.variantIndices().copy();
+        boolean discardedVariant = false;
+        int[] offsets = new int[variantCount];
+        int[] cumLengths = new int[variantCount + 1];
+        int kept = 0, acc = 0;
+        for (int i = 0; i < variantCount; i++) {
+            offsets[i] = acc;
+            if (lengths[i] == 0 && lep.discardEmptyVariants()) {
+                mask.clear(indices[i]);
                 discardedVariant = true;
             } else {
-                acc += length;
-                cumLengthsList.add(acc);
+                acc += lengths[i];
+                cumLengths[++kept] = acc;
+            }
+        }
+        int[] startIndices = kept == variantCount ? cumLengths : Arrays.copyOf(cumLengths, kept + 1);
+
+        int[][] data = new int[encodings.length][acc];
+        forEachVariantRange(variantCount, eventCount, (from, to) -> {
+            for (int i = from; i < to; i++) {
+                int pos = offsets[i];
+                for (Activity activity : variants[i]) {
+                    if (filter && !activitySet.contains(activity)) continue;
+                    int[] c = codes.getOrDefault(activity, outside);
+                    for (int k = 0; k < c.length; k++) {
+                        data[k][pos] = c[k];
+                    }
+                    pos++;
+                }
             }
+        });
+
+        return new EncodingResult(data, startIndices, mask, log instanceof OnlyCoversIndexSubset || discardedVariant);
+    }
+
+    private static int[] outsideRange(int length) {
+        int[] codes = new int[length];
+        Arrays.fill(codes, IntEncoding.OUTSIDE_RANGE);
+        return codes;
+    }
+
+    private interface VariantRangeConsumer {
+        void accept(int from, int to);
+    }
+
+    private static void forEachVariantRange(int variantCount, int eventCount, VariantRangeConsumer consumer) {
+        int parallelism = ForkJoinPool.getCommonPoolParallelism();
+        if (eventCount < PARALLEL_ENCODING_THRESHOLD || parallelism < 2 || variantCount < 2) {
+            consumer.accept(0, variantCount);
+            return;
+        }
+        int chunks = Math.min(variantCount, 4 * parallelism);
+        IntStream.range(0, chunks)
+                 .parallel()
+                 .forEach(c -> consumer.accept((int) ((long) variantCount * c / chunks), (int) ((long) variantCount * (c + 1) / chunks)));
+    }
+
+    private static class EncodingResult {
+
+        private final int[][] data;
+        private final int[] startIndices;
+        private final BitMask mask;
+        private final boolean isSubset;
+        private IndexSubset indexSubset;
+
+        private EncodingResult(int[][] data, int[] startIndices, BitMask mask, boolean isSubset) {
+            this.data = data;
+            this.startIndices = startIndices;
+            this.mask = mask;
+            this.isSubset = isSubset;
         }
-        int[] data = dataList.stream().mapToInt(i -> i).toArray();
-        int[] startIndices = cumLengthsList.stream().mapToInt(i -> i).toArray();
-        if (log instanceof OnlyCoversIndexSubset || discardedVariant) {
-            IndexSubset is = IndexSubset.of(mask);
-            IntVectorSubsetStorage ivss = new IntVectorSubsetStorage(is, data, startIndices);
-            IntVector intVector = log.getVariantFrequencies();
-            IntSubVector isv = intVector.restrictTo(is);
-            return new EncodedSubLogImpl(isv, ivss, encoding);
-        } else {
-            IntVectorStorage ivs = new IntVectorStorage(data, startIndices);
-            return new EncodedLogImpl(log.getVariantFrequencies(), ivs, encoding);
+
+        private EncodedLog toEncodedLog(Log log, int k, IntEncoding<Activity> encoding) {
+            // the storages must not share their start indices as they are not necessarily treated as immutable
+            int[] starts = k == 0 ? startIndices : startIndices.clone();
+            if (isSubset) {
+                if (indexSubset == null) indexSubset = IndexSubset.of(mask);
+                IntVectorSubsetStorage ivss = new IntVectorSubsetStorage(indexSubset, data[k], starts);
+                IntSubVector isv = log.getVariantFrequencies().restrictTo(indexSubset);
+                return new EncodedSubLogImpl(isv, ivss, encoding);
+            } else {
+                IntVectorStorage ivs = new IntVectorStorage(data[k], starts);
+                return new EncodedLogImpl(log.getVariantFrequencies(), ivs, encoding);
+            }
         }
+
     }
 
     public static MultiEncodedLog multiEncodeLog(Log log, IntEncodings<Transition> transitionEncodings, Map<Activity, Transition> mapping, LogEncodingParameters lep) {
@@ -106,8 +208,9 @@ public class LogEncoder {
     public static MultiEncodedLog multiEncodeLog(Log log, IntEncodings<Activity> activityEncodings, LogEncodingParameters lep) {
         Set<Activity> activitySet = activityEncodings.domainUnion();
         LogEncodingInfo lei = new LogEncodingInfo(activitySet);
-        EncodedLog presetEncodedLog = encodeLog(log, activityEncodings.pre(), lep, lei);
-        EncodedLog postsetEncodedLog = encodeLog(log, activityEncodings.post(), lep, lei);
+        EncodingResult result = encode(log, lep, lei, activityEncodings.pre(), activityEncodings.post());
+        EncodedLog presetEncodedLog = result.toEncodedLog(log, 0, activityEncodings.pre());
+        EncodedLog postsetEncodedLog = result.toEncodedLog(log, 1, activityEncodings.post());
         if (presetEncodedLog instanceof EncodedSubLogImpl && postsetEncodedLog instanceof EncodedSubLogImpl) {
             IndexSubset indexSubset = ((OnlyCoversIndexSubset) presetEncodedLog).getIndexSubset();
             return new MultiEncodedSubLog(indexSubset, ((EncodedSubLogImpl) presetEncodedLog), ((EncodedSubLogImpl) postsetEncodedLog), activityEncodings);
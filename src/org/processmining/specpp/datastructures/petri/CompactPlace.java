@@ -0,0 +1,190 @@
+package org.processmining.specpp.datastructures.petri;
+
+import org.processmining.specpp.datastructures.encoding.BitEncodedSet;
+import org.processmining.specpp.datastructures.encoding.BitMask;
+import org.processmining.specpp.datastructures.encoding.IntEncoding;
+
+/**
+ * A place over transition encodings of at most {@value #MAX_TRANSITIONS} transitions that stores its preset and postset as two {@code long} words each, together with their encodings and its precomputed hash code.
+ * The {@code BitEncodedSet}s of {@link #preset()} and {@link #postset()} are only built on first access.
+ * Equality, set queries and the non-mutating set operations run on the words whenever both operands are compact places over the same encodings, and fall back to the generic implementation otherwise.
+ * Compact places are equal to ordinary places with the same preset and postset and share their hash code, hence both can be mixed as keys of the same maps.
+ * As the words are the primary representation, the preset and postset of a compact place must not be mutated. {@link #copy()} returns an ordinary place for that purpose.
+ *
+ * @see PlaceInterner
+ */
+public class CompactPlace extends Place {
+
+    public static final int MAX_TRANSITIONS = 2 * Long.SIZE;
+
+    private final IntEncoding<Transition> presetEncoding, postsetEncoding;
+    private final long pre0, pre1, post0, post1;
+    private final int hash;
+    private volatile BitEncodedSet<Transition> decodedPreset, decodedPostset;
+
+    private CompactPlace(IntEncoding<Transition> presetEncoding, IntEncoding<Transition> postsetEncoding, long pre0, long pre1, long post0, long post1) {
+        this.presetEncoding = presetEncoding;
+        this.postsetEncoding = postsetEncoding;
+        this.pre0 = pre0;
+        this.pre1 = pre1;
+        this.post0 = post0;
+        this.post1 = post1;
+        this.hash = 31 * hash(presetEncoding, pre0, pre1) + hash(postsetEncoding, post0, post1);
+    }
+
+    /**
+     * @return a compact place if both encodings fit into two words, otherwise an ordinary place
+     */
+    public static Place of(BitEncodedSet<Transition> ingoingTransitions, BitEncodedSet<Transition> outgoingTransitions) {
+        if (!fits(ingoingTransitions.getEncoding()) || !fits(outgoingTransitions.getEncoding()))
+            return new Place(ingoingTransitions, outgoingTransitions);
+        BitMask pre = ingoingTransitions.getBitMask(), post = outgoingTransitions.getBitMask();
+        return new CompactPlace(ingoingTransitions.getEncoding(), outgoingTransitions.getEncoding(), word(pre, 0), word(pre, 1), word(post, 0), word(post, 1));
+    }
+
+    /**
+     * @return {@code place} itself if it is compact or cannot be, otherwise a compact place with the same preset and postset
+     */
+    public static Place compact(Place place) {
+        if (place instanceof CompactPlace) return place;
+        return of(place.preset(), place.postset());
+    }
+
+    private static boolean fits(IntEncoding<Transition> encoding) {
+        return encoding.size() <= MAX_TRANSITIONS;
+    }
+
+    private static long word(BitMask mask, int w) {
+        long word = 0;
+        int end = (w + 1) * Long.SIZE;
+        for (int i = mask.nextSetBit(w * Long.SIZE); i >= 0 && i < end; i = mask.nextSetBit(i + 1)) {
+            word |= 1L << i;
+        }
+        return word;
+    }
+
+    /**
+     * Equals the hash code of the corresponding {@code BitEncodedSet}, whose mask hashes its words like {@code java.util.BitSet}.
+     */
+    private static int hash(IntEncoding<Transition> encoding, long word0, long word1) {
+        long h = 1234 ^ word0 ^ (word1 * 2);
+        return 31 * encoding.hashCode() + (int) ((h >> 32) ^ h);
+    }
+
+    private static BitEncodedSet<Transition> decode(IntEncoding<Transition> encoding, long word0, long word1) {
+        BitMask mask = new BitMask();
+        for (long w = word0; w != 0; w &= w - 1) {
+            mask.set(Long.numberOfTrailingZeros(w));
+        }
+        for (long w = word1; w != 0; w &= w - 1) {
+            mask.set(Long.SIZE + Long.numberOfTrailingZeros(w));
+        }
+        return new BitEncodedSet<>(encoding, mask);
+    }
+
+    @Override
+    public BitEncodedSet<Transition> preset() {
+        BitEncodedSet<Transition> preset = decodedPreset;
+        if (preset == null) decodedPreset = preset = decode(presetEncoding, pre0, pre1);
+        return preset;
+    }
+
+    @Override
+    public BitEncodedSet<Transition> postset() {
+        BitEncodedSet<Transition> postset = decodedPostset;
+        if (postset == null) decodedPostset = postset = decode(postsetEncoding, post0, post1);
+        return postset;
+    }
+
+    private CompactPlace make(long pre0, long pre1, long post0, long post1) {
+        return new CompactPlace(presetEncoding, postsetEncoding, pre0, pre1, post0, post1);
+    }
+
+    private boolean isCompatible(Place other) {
+        if (!(other instanceof CompactPlace)) return false;
+        CompactPlace o = (CompactPlace) other;
+        return presetEncoding == o.presetEncoding && postsetEncoding == o.postsetEncoding;
+    }
+
+    @Override
+    public int size() {
+        return Long.bitCount(pre0) + Long.bitCount(pre1) + Long.bitCount(post0) + Long.bitCount(post1);
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return (pre0 | pre1 | post0 | post1) == 0;
+    }
+
+    @Override
+    public boolean isHalfEmpty() {
+        return (pre0 | pre1) == 0 || (post0 | post1) == 0;
+    }
+
+    @Override
+    public Place union(Place other) {
+        if (!isCompatible(other)) return super.union(other);
+        CompactPlace o = (CompactPlace) other;
+        return make(pre0 | o.pre0, pre1 | o.pre1, post0 | o.post0, post1 | o.post1);
+    }
+
+    @Override
+    public Place setminus(Place other) {
+        if (!isCompatible(other)) return super.setminus(other);
+        CompactPlace o = (CompactPlace) other;
+        return make(pre0 & ~o.pre0, pre1 & ~o.pre1, post0 & ~o.post0, post1 & ~o.post1);
+    }
+
+    @Override
+    public Place intersection(Place other) {
+        if (!isCompatible(other)) return super.intersection(other);
+        CompactPlace o = (CompactPlace) other;
+        return make(pre0 & o.pre0, pre1 & o.pre1, post0 & o.post0, post1 & o.post1);
+    }
+
+    @Override
+    public boolean intersects(Place other) {
+        if (!isCompatible(other)) return super.intersects(other);
+        CompactPlace o = (CompactPlace) other;
+        return ((pre0 & o.pre0) | (pre1 & o.pre1)) != 0 || ((post0 & o.post0) | (post1 & o.post1)) != 0;
+    }
+
+    @Override
+    public boolean setEquality(Place other) {
+        if (!isCompatible(other)) return super.setEquality(other);
+        return sameWords((CompactPlace) other);
+    }
+
+    @Override
+    public boolean isSubsetOf(Place other) {
+        if (!isCompatible(other)) return super.isSubsetOf(other);
+        CompactPlace o = (CompactPlace) other;
+        return (pre0 & ~o.pre0) == 0 && (pre1 & ~o.pre1) == 0 && (post0 & ~o.post0) == 0 && (post1 & ~o.post1) == 0;
+    }
+
+    @Override
+    public boolean isSupersetOf(Place other) {
+        if (!isCompatible(other)) return super.isSupersetOf(other);
+        return other.isSubsetOf(this);
+    }
+
+    private boolean sameWords(CompactPlace o) {
+        return pre0 == o.pre0 && pre1 == o.pre1 && post0 == o.post0 && post1 == o.post1;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o instanceof CompactPlace && isCompatible((CompactPlace) o)) {
+            CompactPlace other = (CompactPlace) o;
+            return hash == other.hash && sameWords(other);
+        }
+        return super.equals(o);
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+
+}
@@ -36,8 +36,19 @@ public class Place implements Candidate, NodeProperties, ProperlyHashable, Prope
         this.outgoingTransitions = outgoingTransitions;
     }
 
+    /**
+     * For subclasses that represent their preset and postset differently and override {@link #preset()} and {@link #postset()} accordingly.
+     */
+    protected Place() {
+        this(null, null);
+    }
+
+    /**
+     * @return a compact place if the transition encodings are small enough, otherwise an ordinary place
+     * @see CompactPlace
+     */
     public static Place of(BitEncodedSet<Transition> ingoingTransitions, BitEncodedSet<Transition> outgoingTransitions) {
-        return new Place(ingoingTransitions, outgoingTransitions);
+        return CompactPlace.of(ingoingTransitions, outgoingTransitions);
     }
 
     public int size() {
@@ -45,11 +56,11 @@ public class Place implements Candidate, NodeProperties, ProperlyHashable, Prope
     }
 
     public boolean isEmpty() {
-        return ingoingTransitions.isEmpty() && outgoingTransitions.isEmpty();
+        return preset().isEmpty() && postset().isEmpty();
     }
 
     public boolean isHalfEmpty() {
-        return ingoingTransitions.isEmpty() || outgoingTransitions.isEmpty();
+        return preset().isEmpty() || postset().isEmpty();
     }
 
     public BitEncodedSet<Transition> preset() {
@@ -96,29 +107,29 @@ public class Place implements Candidate, NodeProperties, ProperlyHashable, Prope
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
-        if (o == null || getClass() != o.getClass()) return false;
+        if (!(o instanceof Place)) return false;
 
         Place place = (Place) o;
 
-        if (!ingoingTransitions.setEquality(place.ingoingTransitions)) return false;
-        return outgoingTransitions.setEquality(place.outgoingTransitions);
+        if (!preset().setEquality(place.preset())) return false;
+        return postset().setEquality(place.postset());
     }
 
     @Override
     public int hashCode() {
-        int result = ingoingTransitions.hashCode();
-        result = 31 * result + outgoingTransitions.hashCode();
+        int result = preset().hashCode();
+        result = 31 * result + postset().hashCode();
         return result;
     }
 
     @Override
     public String toString() {
-        return ingoingTransitions.toString() + "|" + outgoingTransitions.toString();
+        return preset().toString() + "|" + postset().toString();
     }
 
     @Override
     public Place copy() {
-        return new Place(ingoingTransitions.copy(), outgoingTransitions.copy());
+        return new Place(preset().copy(), postset().copy());
     }
 
     @Override
@@ -143,8 +154,8 @@ public class Place implements Candidate, NodeProperties, ProperlyHashable, Prope
 
     public Set<Transition> incidentTransitions() {
         Set<Transition> result = new HashSet<>();
-        ingoingTransitions.streamItems().forEach(result::add);
-        outgoingTransitions.streamItems().forEach(result::add);
+        preset().streamItems().forEach(result::add);
+        postset().streamItems().forEach(result::add);
         return result;
     }
 
@@ -0,0 +1,33 @@
+package org.processmining.specpp.datastructures.petri;
+
+import java.lang.ref.WeakReference;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * Canonicalizes places such that equal places share one, compact if possible, instance.
+ * Entries are weakly referenced, i.e., a canonical instance is dropped once it is no longer used elsewhere.
+ *
+ * @see CompactPlace
+ */
+public class PlaceInterner {
+
+    private final Map<Place, WeakReference<Place>> canonical = new WeakHashMap<>();
+
+    /**
+     * @return the canonical instance equal to {@code place}, which becomes canonical itself (in compacted form) if there is none yet
+     */
+    public synchronized Place intern(Place place) {
+        WeakReference<Place> reference = canonical.get(place);
+        Place existing = reference != null ? reference.get() : null;
+        if (existing != null) return existing;
+        Place compact = CompactPlace.compact(place);
+        canonical.put(compact, new WeakReference<>(compact));
+        return compact;
+    }
+
+    public synchronized int size() {
+        return canonical.size();
+    }
+
+}
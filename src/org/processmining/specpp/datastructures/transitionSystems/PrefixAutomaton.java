@@ -1,74 +1,208 @@
 package org.processmining.specpp.datastructures.transitionSystems;
 
 import org.processmining.specpp.datastructures.log.Activity;
+import org.processmining.specpp.datastructures.log.Log;
 import org.processmining.specpp.datastructures.log.Variant;
 
-import java.util.ListIterator;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
 
 /**
  * Class representing a prefix automaton.
+ * States are int ids with the initial state being {@code 0}, activities are int indices in order of first occurrence in the log.
+ * The automaton is stored in flat arrays:
+ * <ul>
+ *     <li>a CSR transition table, i.e., the outgoing transitions of state {@code s} are at {@code [transitionStarts[s], transitionStarts[s + 1])}, sorted by activity</li>
+ *     <li>per state, a bitset of its outgoing activities</li>
+ *     <li>per variant, the sequence of states reached after each of its events</li>
+ * </ul>
+ * Instances are immutable and can be shared.
  */
 public class PrefixAutomaton {
 
     /**
      * Initial state.
      */
-    PAState initial;
+    public static final int INITIAL = 0;
 
     /**
-     * Creates a new Prefix Automaton with a given initial state.
-     * @param initial Initial State.
+     * Returned by {@link #step(int, int)} if a state has no outgoing transition with the given activity.
      */
-    public PrefixAutomaton(PAState initial) {
-        this.initial = new PAState();
+    public static final int NO_STATE = -1;
+
+    private final Activity[] activities;
+    private final Map<Activity, Integer> activityIndices;
+    private final int[] transitionStarts;
+    private final int[] transitionActivities;
+    private final int[] transitionTargets;
+    private final int wordsPerState;
+    private final long[] outgoingActivities;
+    private final int[] variantStarts;
+    private final int[] variantStates;
+
+    private PrefixAutomaton(Activity[] activities, Map<Activity, Integer> activityIndices, int[] transitionStarts, int[] transitionActivities, int[] transitionTargets, int[] variantStarts, int[] variantStates) {
+        this.activities = activities;
+        this.activityIndices = activityIndices;
+        this.transitionStarts = transitionStarts;
+        this.transitionActivities = transitionActivities;
+        this.transitionTargets = transitionTargets;
+        this.variantStarts = variantStarts;
+        this.variantStates = variantStates;
+        int stateCount = transitionStarts.length - 1;
+        this.wordsPerState = Math.max(1, (activities.length + Long.SIZE - 1) / Long.SIZE);
+        this.outgoingActivities = new long[stateCount * wordsPerState];
+        for (int s = 0; s < stateCount; s++) {
+            for (int t = transitionStarts[s]; t < transitionStarts[s + 1]; t++) {
+                int a = transitionActivities[t];
+                outgoingActivities[s * wordsPerState + (a >>> 6)] |= 1L << a;
+            }
+        }
     }
 
     /**
-     * Adds a trace variant of the log to the prefix automaton (if not already contained)
-     * @param variant Trace Variant.
+     * Builds the prefix automaton of all variants of the log.
+     * @param log Log.
+     * @return Prefix Automaton.
      */
-    public void addVariant(Variant variant) {
-        PAState curr = initial;
-        for(Activity activity : variant) {
-
-            if(curr.isFinal()){
-                PATransition newTrans = new PATransition(activity);
-                curr.addOutgoingTrans(newTrans);
-                curr = newTrans.getPointer();
-
-            } else {
-                ListIterator<PATransition> it = curr.getOutgoingTrans().listIterator();
-                boolean contains = false;
-
-                while(it.hasNext()) {
-                    PATransition next = it.next();
-                    if (next.getActivity().equals(activity)) {
-                        // curr has activity as outgoing arc -> update freq
-                        contains = true;
-                        curr = next.getPointer();
-                    }
-                }
-                if(!contains) {
-                    // curr doesn't have activity as outgoing arc -> add trans
-                    PATransition newTrans = new PATransition(activity);
-
-                    curr.addOutgoingTrans(newTrans);
-                    curr = newTrans.getPointer();
+    public static PrefixAutomaton of(Log log) {
+        Map<Activity, Integer> activityIndices = new HashMap<>();
+        int variantCount = log.variantCount();
+        int[] variantStarts = new int[variantCount + 1];
+        for (int i = 0; i < variantCount; i++) {
+            variantStarts[i + 1] = variantStarts[i] + log.getVariant(i).getLength();
+        }
+        int[] variantStates = new int[variantStarts[variantCount]];
+
+        // trie construction on packed (state, activity) keys
+        Map<Long, Integer> edges = new HashMap<>();
+        int stateCount = 1;
+        for (int i = 0; i < variantCount; i++) {
+            Variant variant = log.getVariant(i);
+            int state = INITIAL, g = variantStarts[i];
+            for (Activity activity : variant) {
+                int a = activityIndices.computeIfAbsent(activity, x -> activityIndices.size());
+                long key = ((long) state << 32) | a;
+                Integer next = edges.get(key);
+                if (next == null) {
+                    next = stateCount++;
+                    edges.put(key, next);
                 }
+                state = next;
+                variantStates[g++] = state;
             }
+        }
 
+        long[] keys = new long[edges.size()];
+        int k = 0;
+        for (long key : edges.keySet()) {
+            keys[k++] = key;
         }
+        Arrays.sort(keys);
+        int[] transitionStarts = new int[stateCount + 1];
+        int[] transitionActivities = new int[keys.length];
+        int[] transitionTargets = new int[keys.length];
+        for (int t = 0; t < keys.length; t++) {
+            int source = (int) (keys[t] >>> 32);
+            transitionStarts[source + 1]++;
+            transitionActivities[t] = (int) keys[t];
+            transitionTargets[t] = edges.get(keys[t]);
+        }
+        for (int s = 0; s < stateCount; s++) {
+            transitionStarts[s + 1] += transitionStarts[s];
+        }
+
+        Activity[] activities = new Activity[activityIndices.size()];
+        for (Map.Entry<Activity, Integer> entry : activityIndices.entrySet()) {
+            activities[entry.getValue()] = entry.getKey();
+        }
+        return new PrefixAutomaton(activities, activityIndices, transitionStarts, transitionActivities, transitionTargets, variantStarts, variantStates);
+    }
+
+    public int stateCount() {
+        return transitionStarts.length - 1;
+    }
+
+    public int activityCount() {
+        return activities.length;
     }
 
     /**
-     * Returns the initial state of the prefix automaton.
-     * @return Initial State
+     * @param activity Activity.
+     * @return Index of the activity, or {@code -1} if it does not occur in the log.
      */
-    public PAState getInitial() {
-        return initial;
+    public int activityIndex(Activity activity) {
+        Integer a = activityIndices.get(activity);
+        return a != null ? a : -1;
     }
 
+    public Activity getActivity(int activityIndex) {
+        return activities[activityIndex];
+    }
 
+    /**
+     * Check if state is final.
+     * @param state State.
+     * @return True if state has no outgoing transitions, i.e., is final. Otherwise false.
+     */
+    public boolean isFinal(int state) {
+        return transitionStarts[state] == transitionStarts[state + 1];
+    }
+
+    /**
+     * Checks if the state has a given transition.
+     * @param state State.
+     * @param activityIndex Activity index.
+     * @return True, if state has an (outgoing) transition with the activity. Otherwise, false.
+     */
+    public boolean hasOutgoing(int state, int activityIndex) {
+        return activityIndex >= 0 && (outgoingActivities[state * wordsPerState + (activityIndex >>> 6)] & (1L << activityIndex)) != 0;
+    }
 
+    /**
+     * @param state State.
+     * @param activityIndex Activity index.
+     * @return The state reached via the outgoing transition with the activity, or {@link #NO_STATE}.
+     */
+    public int step(int state, int activityIndex) {
+        int t = Arrays.binarySearch(transitionActivities, transitionStarts[state], transitionStarts[state + 1], activityIndex);
+        return t >= 0 ? transitionTargets[t] : NO_STATE;
+    }
+
+    /**
+     * @param state State.
+     * @return Indices of the activities of the state's outgoing transitions, in ascending order.
+     */
+    public int[] outgoingActivities(int state) {
+        return Arrays.copyOfRange(transitionActivities, transitionStarts[state], transitionStarts[state + 1]);
+    }
+
+    /**
+     * @return The number of events of the log, i.e., the number of positions over all variants.
+     */
+    public int positionCount() {
+        return variantStates.length;
+    }
+
+    /**
+     * @param variantIndex Variant index.
+     * @return The position of the variant's first event among all events of the log, variant by variant.
+     */
+    public int getVariantStart(int variantIndex) {
+        return variantStarts[variantIndex];
+    }
+
+    public int getVariantEnd(int variantIndex) {
+        return variantStarts[variantIndex + 1];
+    }
+
+    /**
+     * @param position Global event position.
+     * @return The state reached after the event at the position.
+     * @see #getVariantStart(int)
+     */
+    public int stateAfter(int position) {
+        return variantStates[position];
+    }
 
 }
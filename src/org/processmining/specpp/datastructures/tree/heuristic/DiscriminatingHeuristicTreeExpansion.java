@@ -30,6 +30,12 @@ public class DiscriminatingHeuristicTreeExpansion<N extends TreeNode & Evaluable
         if (meetsThreshold(heuristic)) super.addNode(node, heuristic);
     }
 
+    @Override
+    protected void updateNode(N node, H heuristic) {
+        if (meetsThreshold(heuristic)) super.updateNode(node, heuristic);
+        else removeNode(node);
+    }
+
     protected boolean meetsThreshold(H heuristic) {
         return thresholdPredicate.test(heuristic);
     }
@@ -31,6 +31,15 @@ public class EventingDiscriminatingHeuristicTreeExpansion<N extends TreeNode & E
         else rejectNode(node);
     }
 
+    @Override
+    protected void updateNode(N node, H heuristic) {
+        if (meetsThreshold(heuristic)) super.updateNode(node, heuristic);
+        else {
+            removeNode(node);
+            rejectNode(node);
+        }
+    }
+
     private void rejectNode(N node) {
         eventSupervision.observe(new RejectedNodeEvent<>(node));
     }
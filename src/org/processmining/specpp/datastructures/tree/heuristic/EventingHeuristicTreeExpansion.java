@@ -29,8 +29,15 @@ public class EventingHeuristicTreeExpansion<N extends TreeNode & Evaluable & Loc
     }
 
     @Override
-    protected void enqueue(N node) {
-        super.enqueue(node);
+    protected void enqueue(N node, H heuristic) {
+        super.enqueue(node, heuristic);
+        eventSupervision.observe(new EnqueuedNodeEvent<>(node));
+    }
+
+    @Override
+    protected void reprioritize(N node, H heuristic) {
+        super.reprioritize(node, heuristic);
+        eventSupervision.observe(new DequeuedNodeEvent<>(node));
         eventSupervision.observe(new EnqueuedNodeEvent<>(node));
     }
 
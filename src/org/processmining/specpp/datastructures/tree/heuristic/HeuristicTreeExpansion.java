@@ -7,22 +7,22 @@ import org.processmining.specpp.datastructures.tree.base.HeuristicStrategy;
 import org.processmining.specpp.datastructures.tree.base.TreeNode;
 import org.processmining.specpp.datastructures.tree.base.traits.LocallyExpandable;
 
-import java.util.Comparator;
-import java.util.HashMap;
-import java.util.Map;
-import java.util.PriorityQueue;
+import org.processmining.specpp.datastructures.util.IndexedHeap;
 
+/**
+ * Expansion strategy that proposes nodes in the order of their heuristic values.
+ * Nodes are kept in an {@code IndexedHeap} which stores each node's heuristic inline, such that re-scoring an already enqueued node via {@link #updateNode(TreeNode, HeuristicValue)} is an in-place O(log n) key change.
+ * Nodes with equal heuristic values are expanded in the order they were enqueued, independent of nodes that have been enqueued and removed in the meantime.
+ */
 public class HeuristicTreeExpansion<N extends TreeNode & Evaluable & LocallyExpandable<N>, H extends HeuristicValue<? super H>> extends AbstractBaseClass implements ExpansionStrategyComponent<N> {
 
-    protected final PriorityQueue<N> priorityQueue;
-    protected final Map<N, H> nodeHeuristics;
+    protected final IndexedHeap<N, H> priorityQueue;
 
     private final HeuristicStrategy<? super N, H> heuristicStrategy;
 
     public HeuristicTreeExpansion(HeuristicStrategy<? super N, H> heuristicStrategy) {
         this.heuristicStrategy = heuristicStrategy;
-        this.nodeHeuristics = new HashMap<>();
-        this.priorityQueue = new PriorityQueue<>(Comparator.comparing(nodeHeuristics::get, heuristicStrategy.heuristicValuesComparator()));
+        this.priorityQueue = new IndexedHeap<>(heuristicStrategy.heuristicValuesComparator());
     }
 
     public HeuristicStrategy<? super N, H> getHeuristicStrategy() {
@@ -49,7 +49,7 @@ public class HeuristicTreeExpansion<N extends TreeNode & Evaluable & LocallyExpa
     @Override
     public void registerNode(N node) {
         H heuristic = heuristicStrategy.computeHeuristic(node);
-        if (nodeHeuristics.containsKey(node)) updateNode(node, heuristic);
+        if (priorityQueue.contains(node)) updateNode(node, heuristic);
         else addNode(node, heuristic);
     }
 
@@ -63,14 +63,21 @@ public class HeuristicTreeExpansion<N extends TreeNode & Evaluable & LocallyExpa
         removeNode(node);
     }
 
+    /**
+     * @return the heuristic value the node is currently enqueued with, or {@code null} if it is not enqueued
+     */
+    public H getHeuristic(N node) {
+        return priorityQueue.getKey(node);
+    }
+
     protected void addNode(N node, H heuristic) {
         putHeuristic(node, heuristic);
-        enqueue(node);
+        enqueue(node, heuristic);
     }
 
     protected void updateNode(N node, H heuristic) {
-        dequeue(node);
-        addNode(node, heuristic);
+        putHeuristic(node, heuristic);
+        reprioritize(node, heuristic);
     }
 
     protected void removeNode(N node) {
@@ -78,8 +85,12 @@ public class HeuristicTreeExpansion<N extends TreeNode & Evaluable & LocallyExpa
         clearHeuristic(node);
     }
 
-    protected void enqueue(N node) {
-        priorityQueue.add(node);
+    protected void enqueue(N node, H heuristic) {
+        priorityQueue.add(node, heuristic);
+    }
+
+    protected void reprioritize(N node, H heuristic) {
+        if (!priorityQueue.update(node, heuristic)) priorityQueue.add(node, heuristic);
     }
 
     protected void dequeue(N node) {
@@ -94,12 +105,18 @@ public class HeuristicTreeExpansion<N extends TreeNode & Evaluable & LocallyExpa
         return priorityQueue.peek();
     }
 
+    /**
+     * Hook called whenever a heuristic value has been computed for a node, before it is (re-)enqueued with it.
+     */
     protected void putHeuristic(N node, H heuristic) {
-        nodeHeuristics.put(node, heuristic);
+
     }
 
+    /**
+     * Hook called whenever a node has left the queue for good.
+     */
     protected void clearHeuristic(N node) {
-        nodeHeuristics.remove(node);
+
     }
 
 
@@ -1,39 +1,37 @@
 package org.processmining.specpp.datastructures.tree.heuristic;
 
-import org.apache.commons.collections4.BidiMap;
 import org.processmining.specpp.componenting.data.DataRequirements;
-import org.processmining.specpp.componenting.data.ParameterRequirements;
 import org.processmining.specpp.componenting.delegators.DelegatingDataSource;
-import org.processmining.specpp.composition.events.CandidateCompositionEvent;
-import org.processmining.specpp.config.parameters.GammaETCPrecisionGainThreshold;
 import org.processmining.specpp.datastructures.log.Activity;
 import org.processmining.specpp.datastructures.petri.Place;
-import org.processmining.specpp.datastructures.petri.Transition;
 import org.processmining.specpp.datastructures.tree.base.HeuristicStrategy;
-import org.processmining.specpp.datastructures.tree.heuristic.TreeNodeScore;
-import org.processmining.specpp.datastructures.tree.heuristic.UpdatableHeuristicExpansionStrategy;
 import org.processmining.specpp.datastructures.tree.nodegen.PlaceNode;
+import org.processmining.specpp.evaluation.heuristics.EscapingEdgesIndex;
+import org.processmining.specpp.evaluation.heuristics.GreedyETCPrecisionTreeTraversalHeuristic;
 import org.processmining.specpp.util.JavaTypingUtils;
 
+import java.util.ArrayList;
 import java.util.HashMap;
-import java.util.HashSet;
 import java.util.Map;
-import java.util.Set;
 
 /**
- * Keeps the heuristic-scores of the places in the priority-queue updated when using the GreedyETCPrecisionTreeTraversalHeuristic
+ * Keeps the heuristic-scores of the places in the priority-queue updated when using the GreedyETCPrecisionTreeTraversalHeuristic.
+ * Scores are refreshed lazily: every queued place remembers the escaping-edges epoch it was scored in, and is only re-scored once it reaches the top of the queue while the escaping edges of one of its postset activities have changed since.
+ * This is sound as long as escaping edges only decrease and their maximum stays the same, as stale scores then over-estimate the up to date ones.
+ * Whenever a change can increase scores, all stale places are re-scored in bulk instead.
+ * Either way, a place is re-scored with the maximum as of the last change of its postset activities, hence it ends up with the score eager re-scoring after every change would have given it.
  */
 public class UpdatingGreedyETCPrecisionTreeTraversalHeuristic extends UpdatableHeuristicExpansionStrategy<Place, PlaceNode, TreeNodeScore> {
 
     /**
-     * Mapping: Activity to its prerequisite places (in priority queue)
+     * Mapping: queued place -> escaping-edges epoch its score was computed in
      */
-    private final Map<Activity, Set<PlaceNode>> activityToIngoingPlaceNodes = new HashMap<>();
+    private final Map<PlaceNode, Integer> scoringEpochs = new HashMap<>();
 
     /**
-     * Mapping between activities and transitions (and vice versa)
+     * Heuristic whose scores are kept updated
      */
-    private final DelegatingDataSource<BidiMap<Activity, Transition>> actTransMapping = new DelegatingDataSource<>();
+    private final GreedyETCPrecisionTreeTraversalHeuristic heuristic;
 
     /**
      * Activity Mapping activityToEscapingEdges (derived from ETC-based Composer)
@@ -46,19 +44,9 @@ public class UpdatingGreedyETCPrecisionTreeTraversalHeuristic extends UpdatableH
     private final DelegatingDataSource<Map<Activity, Integer>> delegatingDataSourceA = new DelegatingDataSource<>(HashMap::new);
 
     /**
-     * Gamma
+     * Escaping edges per postset transition, synchronized with activityToEscapingEdges before every expansion
      */
-    private final DelegatingDataSource<GammaETCPrecisionGainThreshold> gamma = new DelegatingDataSource<>();
-
-    /**
-     * ActivitiesToEscapingEdges-Map of the previous iteration (to compare for changes)
-     */
-    private Map<Activity, Integer> activitiesToEscapingEdgesPrevious = new HashMap<>();
-
-    /**
-     * ActivitiesToAllowed-Map of the previous iteration (to compare for changes)
-     */
-    private Map<Activity, Integer> activitiesToAllowedPrevious= new HashMap<>();
+    private final EscapingEdgesIndex escapingEdges;
 
     /**
      * Creates a new UpdatingGreedyETCPrecisionTreeTraversalHeuristic
@@ -66,26 +54,24 @@ public class UpdatingGreedyETCPrecisionTreeTraversalHeuristic extends UpdatableH
      */
     public UpdatingGreedyETCPrecisionTreeTraversalHeuristic(HeuristicStrategy heuristicStrategy) {
         super(heuristicStrategy);
+        if (!(heuristicStrategy instanceof GreedyETCPrecisionTreeTraversalHeuristic))
+            throw new IllegalArgumentException("score updates require the GreedyETCPrecisionTreeTraversalHeuristic");
+        heuristic = (GreedyETCPrecisionTreeTraversalHeuristic) heuristicStrategy;
+        escapingEdges = heuristic.synchronizeExternally();
 
-
-        globalComponentSystem().require(DataRequirements.ACT_TRANS_MAPPING, actTransMapping)
-                                .require(ParameterRequirements.GAMMA_ETCPRECISIONGAIN_THRESHOLD, gamma);
         globalComponentSystem().provide(DataRequirements.dataSource("activitiesToEscapingEdges_UpdatingGreedyETC", JavaTypingUtils.castClass(DelegatingDataSource.class)).fulfilWithStatic(delegatingDataSourceE))
                                 .provide(DataRequirements.dataSource("activitiesToAllowed_UpdatingGreedyETC", JavaTypingUtils.castClass(DelegatingDataSource.class)).fulfilWithStatic(delegatingDataSourceA));
-
-
     }
 
     /**
-     * Called when a node is added to the priority queue
-     * @param node Added place.
+     * Called whenever a place is (re-)scored
+     * @param node Scored place.
      * @param score Heuristic score (computed by GreedyETCPrecisionTreeTravesalHeuristic)
      */
     @Override
-    protected void addNode(PlaceNode node, TreeNodeScore score) {
-        super.addNode(node, score);
-        addToActivityPlacesMapping(node);
-
+    protected void putHeuristic(PlaceNode node, TreeNodeScore score) {
+        super.putHeuristic(node, score);
+        scoringEpochs.put(node, escapingEdges.getEpoch());
     }
 
     /**
@@ -95,100 +81,47 @@ public class UpdatingGreedyETCPrecisionTreeTraversalHeuristic extends UpdatableH
     @Override
     protected void clearHeuristic(PlaceNode node) {
         super.clearHeuristic(node);
-        removeFromActivityPlacesMapping(node);
+        scoringEpochs.remove(node);
     }
 
     /**
-     * Is called each time a composition-event happens (is put into the pipe)
-     * @param observation Observation.
+     * Pulls changes of the escaping edges made by the composer since the last expansion, and re-scores stale places at the top of the queue until the top is up to date.
+     * @return Next place to expand.
      */
     @Override
-    public void observe(CandidateCompositionEvent<Place> observation) {
-        Place pO = observation.getCandidate();
-
-        switch (observation.getAction()) {
-            case Accept:
-                updatePlaces(pO);
-                break;
-
-            case RevokeAcceptance:
-                if(gamma.getData().getGamma() > 0) {
-                    updatePlaces(pO);
-                }
-                break;
-
-            default:
-                break;
-        }
-    }
-
-    /**
-     * Updates the heuristic score (according tho the GreedyETCPrecisionTreeTraversalHeuristic) of a candidate place in the priority queue.
-     * @param pO Observed Place.
-     */
-    private void updatePlaces(Place pO) {
-        Set<Activity> actvitiesChanged = new HashSet<>();
-
-        Map<Activity, Integer> activitiesToEscapingEdges = delegatingDataSourceE.getData();
-
-        for(Transition t : pO.postset()) {
-            Activity a = actTransMapping.get().getKey(t);
-            if(activitiesToEscapingEdgesPrevious.isEmpty()) {
-                //only at the first accepted place: add all postset activities
-                actvitiesChanged.add(a);
-            } else {
-                //check if EE Score has changed
-                if (!activitiesToEscapingEdgesPrevious.get(a).equals(activitiesToEscapingEdges.get(a))) {
-                    actvitiesChanged.add(a);
-                }
+    protected PlaceNode peekFirst() {
+        if (escapingEdges.synchronize(delegatingDataSourceE.getData()) && !escapingEdges.wasMonotone()) {
+            for (PlaceNode node : new ArrayList<>(scoringEpochs.keySet())) {
+                if (isStale(node)) rescore(node);
             }
         }
-
-        //Collect Places that need to be updated
-        Set<PlaceNode> placesToUpdate = new HashSet<>();
-
-        for(Activity a : actvitiesChanged) {
-            placesToUpdate.addAll(activityToIngoingPlaceNodes.get(a));
+        PlaceNode node = super.peekFirst();
+        while (node != null && isStale(node)) {
+            rescore(node);
+            node = super.peekFirst();
         }
-
-        for (PlaceNode p : placesToUpdate) {
-            updateNode(p, getHeuristicStrategy().computeHeuristic(p));
-        }
-
-        //update previous map
-        activitiesToEscapingEdgesPrevious = new HashMap<>(delegatingDataSourceE.getData());
+        return node;
     }
 
-
     /**
-     * Adds a place to the activityToIngoingPlaces.
-     * @param p Place.
+     * Re-scores a queued place as of the last change of its postset activities' escaping edges.
+     * @param node Stale place.
      */
-    private void addToActivityPlacesMapping(PlaceNode p){
-        for (Transition t : p.getPlace().postset()) {
-            Activity a = actTransMapping.get().getKey(t);
-
-            if (!activityToIngoingPlaceNodes.containsKey(a)) {
-                Set<PlaceNode> s = new HashSet<>();
-                s.add(p);
-                activityToIngoingPlaceNodes.put(a, s);
-            } else {
-                Set<PlaceNode> tIn = activityToIngoingPlaceNodes.get(a);
-                tIn.add(p);
-            }
-        }
+    private void rescore(PlaceNode node) {
+        updateNode(node, heuristic.computeHeuristic(node, lastChangeOf(node)));
     }
 
     /**
-     * Removes a place to the activityToIngoingPlaces.
-     * @param p Place.
+     * Checks whether the escaping edges of any postset activity of a place changed after it was scored.
+     * @param node Queued place.
+     * @return true, if the place's score is outdated.
      */
-    private void removeFromActivityPlacesMapping(PlaceNode p){
-        for(Transition t : p.getPlace().postset()) {
-            Activity a = actTransMapping.get().getKey(t);
-            Set<PlaceNode> tIn = activityToIngoingPlaceNodes.get(a);
-            tIn.remove(p);
-        }
+    private boolean isStale(PlaceNode node) {
+        return lastChangeOf(node) > scoringEpochs.get(node);
+    }
+
+    private int lastChangeOf(PlaceNode node) {
+        return escapingEdges.lastChangeOf(node.getPlace().postset().getBitMask());
     }
 
 }
@@ -12,6 +12,7 @@ import org.processmining.specpp.datastructures.encoding.BitEncodedSet;
 import org.processmining.specpp.datastructures.encoding.BitMask;
 import org.processmining.specpp.datastructures.encoding.IntEncodings;
 import org.processmining.specpp.datastructures.petri.Place;
+import org.processmining.specpp.datastructures.petri.PlaceInterner;
 import org.processmining.specpp.datastructures.petri.Transition;
 import org.processmining.specpp.datastructures.tree.base.GenerationConstraint;
 import org.processmining.specpp.datastructures.tree.base.PlaceGenerationLogic;
@@ -45,6 +46,10 @@ public class MonotonousPlaceGenerationLogic extends PlaceGenerationLogic {
     protected final IntEncodings<Transition> transitionEncodings;
     protected final List<PotentialExpansionsFilter> potentialExpansionFilters;
     protected final List<ExpansionStopper> expansionStoppers;
+    /**
+     * Canonicalizes generated places, such that the places handed on to evaluators and composers share one compact instance with equal places created elsewhere
+     */
+    protected final PlaceInterner placeInterner = new PlaceInterner();
 
     public static class Builder extends ComponentSystemAwareBuilder<PlaceGenerationLogic> {
 
@@ -123,7 +128,7 @@ public class MonotonousPlaceGenerationLogic extends PlaceGenerationLogic {
     public PlaceNode generateRoot() {
         BitEncodedSet<Transition> preset = BitEncodedSet.empty(transitionEncodings.pre());
         BitEncodedSet<Transition> postset = BitEncodedSet.empty(transitionEncodings.post());
-        Place place = Place.of(preset, postset);
+        Place place = placeInterner.intern(Place.of(preset, postset));
         BitMask preMask = canHavePresetChildren(place) ? getStaticPotentialExpansions(preset) : new BitMask();
         BitMask postMask = canHavePostsetChildren(place) ? getStaticPotentialExpansions(postset) : new BitMask();
         return PlaceNode.root(place, PlaceState.withPotentialExpansions(preMask, postMask), this);
@@ -159,7 +164,7 @@ public class MonotonousPlaceGenerationLogic extends PlaceGenerationLogic {
         parent.getState().getPotentialExpansions(expansionType).clear(i);
         relevant.clear(i);
 
-        Place childPlace = new Place(presetCopy, postsetCopy);
+        Place childPlace = placeInterner.intern(Place.of(presetCopy, postsetCopy));
         PlaceState childState = makeChildState(potentialExpansions, parentPlace, childPlace);
 
         return parent.makeChild(childPlace, childState);
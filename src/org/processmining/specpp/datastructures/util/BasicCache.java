@@ -31,6 +31,15 @@ public class BasicCache<K, V> {
         keys.addLast(key);
     }
 
+    public void clear() {
+        internal.clear();
+        keys.clear();
+    }
+
+    public boolean contains(K key) {
+        return internal.containsKey(key);
+    }
+
     public V getOrElse(K key, Function<K, V> computer) {
         if (!internal.containsKey(key)) return computer.apply(key);
         else return internal.get(key);
@@ -0,0 +1,364 @@
+package org.processmining.specpp.datastructures.util;
+
+import org.processmining.specpp.supervision.observations.CacheStatsEvent;
+import org.processmining.specpp.supervision.piping.AdHocObservable;
+import org.processmining.specpp.supervision.piping.AdHocObservableWrapper;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+
+/**
+ * Thread-safe self-filling cache that is bounded by the total estimated weight of its values, e.g., their size in bytes.
+ * Concurrent misses on the same key are computed only once, all other callers wait for that computation.
+ * Eviction is governed by an {@link EvictionPolicy}. The recency of reads is recorded on a best effort basis, i.e., it is skipped while another thread holds the eviction lock.
+ * Hit, miss and eviction counts are published through {@link #statistics()}.
+ *
+ * @param <K> key type
+ * @param <V> value type
+ */
+public class ConcurrentCache<K, V> implements SelfFillingCache<K, V> {
+
+    public enum EvictionPolicy {
+        /**
+         * Evicts the least recently used entry.
+         */
+        LRU,
+        /**
+         * Window TinyLFU: new entries enter a small LRU window. Entries leaving the window are only admitted to the main LRU region if they were requested more frequently than its eviction victim, as estimated by a count-min sketch.
+         */
+        WINDOW_TINY_LFU
+    }
+
+    private static final double WINDOW_FRACTION = 0.01;
+
+    private final ConcurrentHashMap<K, Node<K, V>> map = new ConcurrentHashMap<>();
+    private final Function<K, V> computationFunction;
+    private final ToLongFunction<? super V> weigher;
+    private final long maximumWeight;
+    private final EvictionPolicy policy;
+
+    private final ReentrantLock evictionLock = new ReentrantLock();
+    private final AccessOrderDeque<K, V> window = new AccessOrderDeque<>();
+    private final AccessOrderDeque<K, V> main = new AccessOrderDeque<>();
+    private final FrequencySketch sketch;
+    private final long windowMaximum;
+    private long windowWeight, mainWeight;
+
+    private final LongAdder hits = new LongAdder(), misses = new LongAdder(), evictions = new LongAdder();
+
+    /**
+     * Creates a cache that is bounded by its number of entries.
+     */
+    public ConcurrentCache(int capacity, EvictionPolicy policy, Function<K, V> computationFunction) {
+        this(capacity, v -> 1, policy, computationFunction);
+    }
+
+    public ConcurrentCache(long maximumWeight, ToLongFunction<? super V> weigher, EvictionPolicy policy, Function<K, V> computationFunction) {
+        this.maximumWeight = maximumWeight;
+        this.weigher = weigher;
+        this.policy = policy;
+        this.computationFunction = computationFunction;
+        if (policy == EvictionPolicy.WINDOW_TINY_LFU) {
+            windowMaximum = Math.max(1, (long) (maximumWeight * WINDOW_FRACTION));
+            sketch = new FrequencySketch();
+        } else {
+            windowMaximum = 0;
+            sketch = null;
+        }
+    }
+
+    @Override
+    public V get(K key) {
+        return getOrCompute(key, computationFunction);
+    }
+
+    public V getOrCompute(K key, Function<K, V> computer) {
+        Node<K, V> node = map.get(key);
+        if (node == null) {
+            Node<K, V> loading = new Node<>(key);
+            node = map.putIfAbsent(key, loading);
+            if (node == null) return load(loading, computer);
+        }
+        hits.increment();
+        V value = node.await();
+        afterRead(node);
+        return value;
+    }
+
+    /**
+     * @return the cached value, awaiting its computation if it is in progress, or {@code null} if {@code key} is not cached
+     */
+    public V getIfPresent(K key) {
+        Node<K, V> node = map.get(key);
+        if (node == null) return null;
+        V value = node.await();
+        afterRead(node);
+        return value;
+    }
+
+    public Function<K, V> readOnlyGet() {
+        return this::getIfPresent;
+    }
+
+    public boolean contains(K key) {
+        return map.containsKey(key);
+    }
+
+    private V load(Node<K, V> node, Function<K, V> computer) {
+        misses.increment();
+        V value;
+        try {
+            value = computer.apply(node.key);
+        } catch (RuntimeException | Error e) {
+            map.remove(node.key, node);
+            node.pending.completeExceptionally(e);
+            throw e;
+        }
+        node.value = value;
+        node.weight = weigher.applyAsLong(value);
+        node.pending.complete(value);
+        afterWrite(node);
+        return value;
+    }
+
+    public void put(K key, V value) {
+        Node<K, V> node = new Node<>(key);
+        node.value = value;
+        node.weight = weigher.applyAsLong(value);
+        node.pending.complete(value);
+        Node<K, V> old = map.put(key, node);
+        if (old != null) {
+            evictionLock.lock();
+            try {
+                unlink(old);
+                old.removed = true;
+            } finally {
+                evictionLock.unlock();
+            }
+        }
+        afterWrite(node);
+    }
+
+    public void invalidate(K key) {
+        Node<K, V> node = map.remove(key);
+        if (node == null) return;
+        evictionLock.lock();
+        try {
+            unlink(node);
+            node.removed = true;
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    public void clear() {
+        evictionLock.lock();
+        try {
+            for (Node<K, V> node : map.values()) {
+                node.removed = true;
+            }
+            map.clear();
+            window.clear();
+            main.clear();
+            windowWeight = 0;
+            mainWeight = 0;
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    public int size() {
+        return map.size();
+    }
+
+    public long weight() {
+        evictionLock.lock();
+        try {
+            return windowWeight + mainWeight;
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    public CacheStatsEvent computeStatistics() {
+        return new CacheStatsEvent(hits.sum(), misses.sum(), evictions.sum(), size(), weight());
+    }
+
+    public AdHocObservable<CacheStatsEvent> statistics() {
+        return AdHocObservableWrapper.wrap(this::computeStatistics);
+    }
+
+    private void afterRead(Node<K, V> node) {
+        if (!evictionLock.tryLock()) return;
+        try {
+            if (sketch != null) sketch.increment(node.key);
+            if (node.deque != null) node.deque.moveToBack(node);
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    private void afterWrite(Node<K, V> node) {
+        evictionLock.lock();
+        try {
+            if (node.removed) return;
+            if (policy == EvictionPolicy.WINDOW_TINY_LFU) {
+                sketch.increment(node.key);
+                window.addLast(node);
+                windowWeight += node.weight;
+                evictFromWindow();
+            } else {
+                main.addLast(node);
+                mainWeight += node.weight;
+            }
+            evictFromMain();
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    /**
+     * Moves entries that overflow the window to the main region, if they win against its victim.
+     */
+    private void evictFromWindow() {
+        while (windowWeight > windowMaximum && window.head != null) {
+            Node<K, V> candidate = window.head;
+            window.unlink(candidate);
+            windowWeight -= candidate.weight;
+            Node<K, V> victim = main.head;
+            if (windowWeight + mainWeight + candidate.weight > maximumWeight && victim != null && sketch.frequency(candidate.key) <= sketch.frequency(victim.key)) {
+                evict(candidate);
+            } else {
+                main.addLast(candidate);
+                mainWeight += candidate.weight;
+            }
+        }
+    }
+
+    private void evictFromMain() {
+        while (windowWeight + mainWeight > maximumWeight) {
+            Node<K, V> victim = main.head != null ? main.head : window.head;
+            if (victim == null) break;
+            unlink(victim);
+            evict(victim);
+        }
+    }
+
+    private void unlink(Node<K, V> node) {
+        if (node.deque == window) windowWeight -= node.weight;
+        else if (node.deque == main) mainWeight -= node.weight;
+        else return;
+        node.deque.unlink(node);
+    }
+
+    private void evict(Node<K, V> node) {
+        node.removed = true;
+        if (map.remove(node.key, node)) evictions.increment();
+    }
+
+    private static class Node<K, V> {
+        private final K key;
+        private final CompletableFuture<V> pending = new CompletableFuture<>();
+        private volatile V value;
+        private long weight;
+        private boolean removed;
+        private AccessOrderDeque<K, V> deque;
+        private Node<K, V> prev, next;
+
+        private Node(K key) {
+            this.key = key;
+        }
+
+        private V await() {
+            V v = value;
+            if (v != null) return v;
+            try {
+                return pending.join();
+            } catch (CompletionException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof RuntimeException) throw (RuntimeException) cause;
+                if (cause instanceof Error) throw (Error) cause;
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * Intrusive doubly linked list of nodes, least recently accessed first.
+     */
+    private static class AccessOrderDeque<K, V> {
+        private Node<K, V> head, tail;
+
+        private void addLast(Node<K, V> node) {
+            node.deque = this;
+            node.prev = tail;
+            node.next = null;
+            if (tail == null) head = node;
+            else tail.next = node;
+            tail = node;
+        }
+
+        private void unlink(Node<K, V> node) {
+            if (node.prev == null) head = node.next;
+            else node.prev.next = node.next;
+            if (node.next == null) tail = node.prev;
+            else node.next.prev = node.prev;
+            node.prev = node.next = null;
+            node.deque = null;
+        }
+
+        private void moveToBack(Node<K, V> node) {
+            if (node == tail) return;
+            unlink(node);
+            addLast(node);
+        }
+
+        private void clear() {
+            head = tail = null;
+        }
+    }
+
+    /**
+     * Count-min sketch of 4-bit counters estimating access frequencies. All counters are halved periodically such that old accesses fade out.
+     */
+    private static class FrequencySketch {
+        private static final int DEPTH = 4, WIDTH = 1 << 12;
+        private static final int[] SEEDS = {0x9E3779B9, 0x85EBCA6B, 0xC2B2AE35, 0x27D4EB2F};
+        private final byte[] counters = new byte[DEPTH * WIDTH];
+        private final int sampleSize = 10 * WIDTH;
+        private int additions;
+
+        private static int index(int hash, int row) {
+            int h = (hash ^ SEEDS[row]) * SEEDS[(row + 1) % DEPTH];
+            return row * WIDTH + ((h ^ (h >>> 16)) & (WIDTH - 1));
+        }
+
+        private void increment(Object key) {
+            int hash = key.hashCode();
+            for (int row = 0; row < DEPTH; row++) {
+                int i = index(hash, row);
+                if (counters[i] < 15) counters[i]++;
+            }
+            if (++additions >= sampleSize) {
+                for (int i = 0; i < counters.length; i++) {
+                    counters[i] >>>= 1;
+                }
+                additions /= 2;
+            }
+        }
+
+        private int frequency(Object key) {
+            int hash = key.hashCode(), min = 15;
+            for (int row = 0; row < DEPTH; row++) {
+                min = Math.min(min, counters[index(hash, row)]);
+            }
+            return min;
+        }
+    }
+
+}
@@ -0,0 +1,194 @@
+package org.processmining.specpp.datastructures.util;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Binary min-heap of distinct elements whose priority keys are stored inline next to them.
+ * The heap position of every element is indexed, such that membership tests and key lookups are O(1) and removals as well as in-place key changes (decrease- and increase-key) are O(log n).
+ * Elements with equal keys are polled in the order they were added, i.e. ties are broken first-in-first-out.
+ * In contrast to the structure dependent tie breaking of {@code java.util.PriorityQueue}, the relative order of two elements thus does not depend on which other elements have been added and removed in the meantime.
+ * Key changes via {@link #update(Object, Object)} retain an element's position in this order.
+ *
+ * @param <E> element type, must implement {@code equals} and {@code hashCode} consistently
+ * @param <K> key type
+ */
+public class IndexedHeap<E, K> {
+
+    private static final int DEFAULT_INITIAL_CAPACITY = 16;
+
+    private final Comparator<? super K> comparator;
+    private final Map<E, Integer> positions;
+    private Object[] elements;
+    private Object[] keys;
+    private long[] sequenceNumbers;
+    private long nextSequenceNumber;
+    private int size;
+
+    public IndexedHeap(Comparator<? super K> comparator) {
+        this(comparator, DEFAULT_INITIAL_CAPACITY);
+    }
+
+    public IndexedHeap(Comparator<? super K> comparator, int initialCapacity) {
+        this.comparator = comparator;
+        this.positions = new HashMap<>();
+        this.elements = new Object[Math.max(1, initialCapacity)];
+        this.keys = new Object[Math.max(1, initialCapacity)];
+        this.sequenceNumbers = new long[Math.max(1, initialCapacity)];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public boolean contains(E element) {
+        return positions.containsKey(element);
+    }
+
+    /**
+     * @return the key of {@code element}, or {@code null} if it is not contained
+     */
+    @SuppressWarnings("unchecked")
+    public K getKey(E element) {
+        Integer i = positions.get(element);
+        return i != null ? (K) keys[i] : null;
+    }
+
+    /**
+     * Inserts {@code element} with the given key. If it is already contained, its key is updated instead.
+     */
+    public void add(E element, K key) {
+        if (positions.containsKey(element)) {
+            update(element, key);
+            return;
+        }
+        if (size >= elements.length) grow();
+        siftUp(size++, element, key, nextSequenceNumber++);
+    }
+
+    /**
+     * Changes the key of a contained element in place and restores the heap order in either direction.
+     *
+     * @return whether {@code element} was contained
+     */
+    @SuppressWarnings("unchecked")
+    public boolean update(E element, K key) {
+        Integer i = positions.get(element);
+        if (i == null) return false;
+        int c = comparator.compare(key, (K) keys[i]);
+        long sequenceNumber = sequenceNumbers[i];
+        if (c < 0) siftUp(i, element, key, sequenceNumber);
+        else if (c > 0) siftDown(i, element, key, sequenceNumber);
+        else keys[i] = key;
+        return true;
+    }
+
+    @SuppressWarnings("unchecked")
+    public E peek() {
+        return (E) elements[0];
+    }
+
+    @SuppressWarnings("unchecked")
+    public K peekKey() {
+        return (K) keys[0];
+    }
+
+    @SuppressWarnings("unchecked")
+    public E poll() {
+        if (size == 0) return null;
+        E result = (E) elements[0];
+        positions.remove(result);
+        int s = --size;
+        E last = (E) elements[s];
+        K lastKey = (K) keys[s];
+        long lastSequenceNumber = sequenceNumbers[s];
+        elements[s] = null;
+        keys[s] = null;
+        if (s > 0) siftDown(0, last, lastKey, lastSequenceNumber);
+        return result;
+    }
+
+    /**
+     * @return whether {@code element} was contained
+     */
+    @SuppressWarnings("unchecked")
+    public boolean remove(E element) {
+        Integer index = positions.remove(element);
+        if (index == null) return false;
+        int i = index;
+        int s = --size;
+        if (s == i) {
+            elements[i] = null;
+            keys[i] = null;
+        } else {
+            E moved = (E) elements[s];
+            K movedKey = (K) keys[s];
+            long movedSequenceNumber = sequenceNumbers[s];
+            elements[s] = null;
+            keys[s] = null;
+            siftDown(i, moved, movedKey, movedSequenceNumber);
+            if (elements[i] == moved) siftUp(i, moved, movedKey, movedSequenceNumber);
+        }
+        return true;
+    }
+
+    public void clear() {
+        Arrays.fill(elements, 0, size, null);
+        Arrays.fill(keys, 0, size, null);
+        positions.clear();
+        size = 0;
+    }
+
+    private void grow() {
+        int newCapacity = elements.length + (elements.length < 64 ? elements.length + 2 : elements.length >> 1);
+        elements = Arrays.copyOf(elements, newCapacity);
+        keys = Arrays.copyOf(keys, newCapacity);
+        sequenceNumbers = Arrays.copyOf(sequenceNumbers, newCapacity);
+    }
+
+    @SuppressWarnings("unchecked")
+    private int compare(K key, long sequenceNumber, int i) {
+        int c = comparator.compare(key, (K) keys[i]);
+        return c != 0 ? c : Long.compare(sequenceNumber, sequenceNumbers[i]);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void siftUp(int k, E element, K key, long sequenceNumber) {
+        while (k > 0) {
+            int parent = (k - 1) >>> 1;
+            if (compare(key, sequenceNumber, parent) >= 0) break;
+            place(k, elements[parent], keys[parent], sequenceNumbers[parent]);
+            k = parent;
+        }
+        place(k, element, key, sequenceNumber);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void siftDown(int k, E element, K key, long sequenceNumber) {
+        int half = size >>> 1;
+        while (k < half) {
+            int child = (k << 1) + 1;
+            int right = child + 1;
+            if (right < size && compare((K) keys[child], sequenceNumbers[child], right) > 0) child = right;
+            if (compare(key, sequenceNumber, child) <= 0) break;
+            place(k, elements[child], keys[child], sequenceNumbers[child]);
+            k = child;
+        }
+        place(k, element, key, sequenceNumber);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void place(int i, Object element, Object key, long sequenceNumber) {
+        elements[i] = element;
+        keys[i] = key;
+        sequenceNumbers[i] = sequenceNumber;
+        positions.put((E) element, i);
+    }
+
+}
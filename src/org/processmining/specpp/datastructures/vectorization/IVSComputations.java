@@ -4,7 +4,6 @@ import org.processmining.specpp.datastructures.encoding.BitMask;
 import org.processmining.specpp.datastructures.encoding.IndexSubset;
 
 import java.nio.IntBuffer;
-import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.EnumSet;
 import java.util.PrimitiveIterator;
@@ -46,35 +45,52 @@ public class IVSComputations {
     }
 
     public static IntVectorStorage interleaveOn(BitMask indices, IntVectorStorage leftVectors, IntUnaryOperator leftOperator, IntVectorStorage rightVectors, IntUnaryOperator rightOperator) {
-        ArrayList<Integer> startIndices = new ArrayList<>();
-        ArrayList<Integer> data = new ArrayList<>();
+        int[] startIndices = interleavedStartIndicesOn(indices, leftVectors, rightVectors, new int[indices.cardinality() + 1]);
+        int[] data = new int[startIndices[startIndices.length - 1]];
+        interleaveInto(indices, leftVectors, leftOperator, rightVectors, rightOperator, false, data, startIndices);
+        return new IntVectorSubsetStorage(IndexSubset.of(indices), data, startIndices);
+    }
 
-        int acc = 0;
-        startIndices.add(acc);
-        for (int i = indices.nextSetBit(0); i >= 0 && i < Integer.MAX_VALUE; i = indices.nextSetBit(i + 1)) {
+    /**
+     * Fused equivalent of {@code vectorwiseCumulation(interleaveOn(indices, leftVectors, leftOperator, rightVectors, rightOperator))}.
+     * The result is sized exactly from the start indices of the selected vectors and computed without intermediate boxing or copying.
+     */
+    public static IntVectorStorage cumulativelyInterleaveOn(BitMask indices, IntVectorStorage leftVectors, IntUnaryOperator leftOperator, IntVectorStorage rightVectors, IntUnaryOperator rightOperator) {
+        int[] startIndices = interleavedStartIndicesOn(indices, leftVectors, rightVectors, new int[indices.cardinality() + 1]);
+        int[] data = new int[startIndices[startIndices.length - 1]];
+        interleaveInto(indices, leftVectors, leftOperator, rightVectors, rightOperator, true, data, startIndices);
+        return new IntVectorStorage(data, startIndices);
+    }
 
-            PrimitiveIterator.OfInt leftIt = leftVectors.viewVector(i).iterator();
-            PrimitiveIterator.OfInt rightIt = rightVectors.viewVector(i).iterator();
+    private static int[] interleavedStartIndicesOn(BitMask indices, IntVectorStorage leftVectors, IntVectorStorage rightVectors, int[] startIndices) {
+        int acc = 0, k = 0;
+        startIndices[k++] = acc;
+        for (int i = indices.nextSetBit(0); i >= 0 && i < Integer.MAX_VALUE; i = indices.nextSetBit(i + 1)) {
+            int l = leftVectors.mapIndex(i), r = rightVectors.mapIndex(i);
+            acc += 2 * Math.min(leftVectors.startIndices[l + 1] - leftVectors.startIndices[l], rightVectors.startIndices[r + 1] - rightVectors.startIndices[r]);
+            startIndices[k++] = acc;
+        }
+        return startIndices;
+    }
 
-            int vectorLength = 0;
-            while (leftIt.hasNext() && rightIt.hasNext()) {
-                int x = leftIt.nextInt(), y = rightIt.nextInt();
-                data.add(leftOperator.applyAsInt(x));
-                data.add(rightOperator.applyAsInt(y));
-                vectorLength += 2;
+    private static void interleaveInto(BitMask indices, IntVectorStorage leftVectors, IntUnaryOperator leftOperator, IntVectorStorage rightVectors, IntUnaryOperator rightOperator, boolean cumulative, int[] data, int[] startIndices) {
+        int[] left = leftVectors.storage, right = rightVectors.storage;
+        int k = 0;
+        for (int i = indices.nextSetBit(0); i >= 0 && i < Integer.MAX_VALUE; i = indices.nextSetBit(i + 1)) {
+            int l = leftVectors.startIndices[leftVectors.mapIndex(i)];
+            int r = rightVectors.startIndices[rightVectors.mapIndex(i)];
+            int acc = 0;
+            for (int j = startIndices[k], endIndex = startIndices[++k]; j < endIndex; j += 2) {
+                int x = leftOperator.applyAsInt(left[l++]), y = rightOperator.applyAsInt(right[r++]);
+                if (cumulative) {
+                    x += acc;
+                    y += x;
+                    acc = y;
+                }
+                data[j] = x;
+                data[j + 1] = y;
             }
-
-            acc += vectorLength;
-            startIndices.add(acc);
         }
-
-        int[] dataArray = data.stream()
-                              .mapToInt(i -> i)
-                              .toArray();
-        int[] startIndicesArray = startIndices.stream()
-                                              .mapToInt(i -> i)
-                                              .toArray();
-        return new IntVectorSubsetStorage(IndexSubset.of(indices), dataArray, startIndicesArray);
     }
 
     public static IntVectorStorage basicSumConvolution(IntVectorStorage ivs) {
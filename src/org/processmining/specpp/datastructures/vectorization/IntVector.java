@@ -52,6 +52,10 @@ public class IntVector implements Copyable<IntVector> {
         return get(index) / (double) total;
     }
 
+    public int getTotal() {
+        return total;
+    }
+
     public int length() {
         return internal.length;
     }
@@ -59,6 +59,14 @@ public class IntVectorStorage implements Copyable<IntVectorStorage>, Mathable<In
         return startIndices.length - 1;
     }
 
+    /**
+     * Maps an externally used vector index to the position of the vector in this storage.
+     * The identity here, overridden by subset storages.
+     */
+    protected int mapIndex(int index) {
+        return index;
+    }
+
     protected boolean isValidVectorIndex(int index) {
         return 0 <= index && index < startIndices.length;
     }
@@ -68,6 +76,24 @@ public class IntVectorStorage implements Copyable<IntVectorStorage>, Mathable<In
         System.arraycopy(vector, 0, storage, startIndices[index], vector.length);
     }
 
+    /**
+     * @return the (inclusive) position in {@link #__internal()} at which the vector of the given index starts
+     */
+    public int getVectorStart(int index) {
+        return startIndices[mapIndex(index)];
+    }
+
+    /**
+     * @return the (exclusive) position in {@link #__internal()} at which the vector of the given index ends
+     */
+    public int getVectorEnd(int index) {
+        return startIndices[mapIndex(index) + 1];
+    }
+
+    public int[] __internal() {
+        return storage;
+    }
+
     public int getVectorLength(int index) {
         assert isValidVectorIndex(index);
         return startIndices[index + 1] - startIndices[index];
@@ -29,6 +29,7 @@ public class IntVectorSubsetStorage extends IntVectorStorage implements OnlyCove
         return new IntVectorSubsetStorage(indexSubset, new int[startIndices[lengths.length]], startIndices);
     }
 
+    @Override
     protected int mapIndex(int i) {
         assert isInSubset(i);
         return indexSubset.mapIndex(i);
@@ -2,18 +2,14 @@ package org.processmining.specpp.evaluation.fitness;
 
 import org.processmining.specpp.componenting.data.DataSource;
 import org.processmining.specpp.config.parameters.ReplayComputationParameters;
+import org.processmining.specpp.config.parameters.TauFitnessThresholds;
 import org.processmining.specpp.datastructures.encoding.BitMask;
 import org.processmining.specpp.datastructures.log.impls.MultiEncodedLog;
 import org.processmining.specpp.datastructures.petri.Place;
 import org.processmining.specpp.datastructures.util.EnumCounts;
-import org.processmining.specpp.datastructures.util.IndexedItem;
-import org.processmining.specpp.datastructures.util.Pair;
-import org.processmining.specpp.datastructures.vectorization.IntVector;
 
-import java.nio.IntBuffer;
-import java.util.Spliterator;
-import java.util.function.Consumer;
-import java.util.function.IntUnaryOperator;
+import java.util.ArrayList;
+import java.util.List;
 
 @SuppressWarnings("duplication")
 public class AbsolutelyNoFrillsFitnessEvaluator extends AbstractBasicFitnessEvaluator {
@@ -32,71 +28,55 @@ public class AbsolutelyNoFrillsFitnessEvaluator extends AbstractBasicFitnessEval
 
     @Override
     public BasicFitnessEvaluation basicComputation(Place place, BitMask consideredVariants) {
-        int[] counts = ReplayUtils.getCountArray();
-        ResultUpdater upd = (idx, c, activated, wentUnder, wentOver, notZeroAtEnd) -> ReplayUtils.updateCounts(counts, c, activated, wentUnder, wentOver, notZeroAtEnd);
-
-        run(consideredVariants, place, upd);
-
-        EnumCounts<ReplayUtils.ReplayOutcomes> enumCounts = new EnumCounts<>(counts);
+        ReplayKernel kernel = new ReplayKernel(place);
+        EnumCounts<ReplayUtils.ReplayOutcomes> enumCounts = kernel.replay(getMultiEncodedLog(), consideredVariants, replayComputationParameters.isClipMarkingAtZero());
         return ReplayUtils.summarizeReplayOutcomeCounts(enumCounts);
     }
 
     @Override
     public DetailedFitnessEvaluation detailedComputation(Place place, BitMask consideredVariants) {
         BitMask bm = new BitMask();
-        int[] counts = ReplayUtils.getCountArray();
-        ResultUpdater upd = (idx, c, activated, wentUnder, wentOver, notZeroAtEnd) -> {
-            ReplayUtils.updateFittingVariantMask(bm, wentUnder, wentOver, notZeroAtEnd, idx);
-            ReplayUtils.updateCounts(counts, c, activated, wentUnder, wentOver, notZeroAtEnd);
-        };
-
-        run(consideredVariants, place, upd);
-
-        EnumCounts<ReplayUtils.ReplayOutcomes> enumCounts = new EnumCounts<>(counts);
+        ReplayKernel kernel = new ReplayKernel(place);
+        EnumCounts<ReplayUtils.ReplayOutcomes> enumCounts = kernel.replay(getMultiEncodedLog(), consideredVariants, replayComputationParameters.isClipMarkingAtZero(), bm);
         BasicFitnessEvaluation evaluation = ReplayUtils.summarizeReplayOutcomeCounts(enumCounts);
         return new DetailedFitnessEvaluation(bm, evaluation);
     }
 
-    private void run(BitMask consideredVariants, Place place, ResultUpdater upd) {
-        Spliterator<IndexedItem<Pair<IntBuffer>>> spliterator = getIndexedItemSpliterator();
-        spliterator.forEachRemaining(createLambda(consideredVariants, place, upd, replayComputationParameters));
+    @Override
+    protected ThresholdedFitnessEvaluation thresholdedComputation(Place place, BitMask consideredVariants, TauFitnessThresholds thresholds) {
+        ReplayKernel kernel = new ReplayKernel(place);
+        return kernel.replayUntilDecided(getMultiEncodedLog(), consideredVariants, getDescendingFrequencyOrder(), replayComputationParameters.isClipMarkingAtZero(), thresholds);
     }
 
-    private Consumer<IndexedItem<Pair<IntBuffer>>> createLambda(BitMask consideredVariants, Place place, ResultUpdater upd, ReplayComputationParameters parameters) {
-        IntUnaryOperator presetIndicator = ReplayUtils.presetIndicator(place);
-        IntUnaryOperator postsetIndicator = ReplayUtils.postsetIndicator(place);
-        IntVector frequencies = getVariantFrequencies();
-        boolean clipMarkingAtZero = parameters.isClipMarkingAtZero();
-        return ii -> {
-            if (consideredVariants == null || consideredVariants.get(ii.getIndex())) {
-                Pair<IntBuffer> pair = ii.getItem();
-                IntBuffer presetEncodedVariant = pair.first(), postsetEncodedVariant = pair.second();
-                int acc = 0;
-                boolean wentUnder = false, wentOver = false, activated = false;
-                while (presetEncodedVariant.hasRemaining() && postsetEncodedVariant.hasRemaining()) {
-                    int i = postsetIndicator.applyAsInt(postsetEncodedVariant.get());
-                    acc += i;
-                    wentUnder |= acc < 0;
-                    activated |= acc != 0;
-                    if (clipMarkingAtZero) acc = Math.max(0, acc);
-                    int j = presetIndicator.applyAsInt(presetEncodedVariant.get());
-                    acc += j;
-                    wentOver |= acc > 1;
-                    activated |= acc != 0;
-                }
-                boolean notZeroAtEnd = acc > 0;
-                int idx = ii.getIndex();
-                int c = frequencies.get(idx);
-                upd.update(idx, c, activated, wentUnder, wentOver, notZeroAtEnd);
+    @Override
+    public List<BasicFitnessEvaluation> evaluateBatch(List<Place> places, BitMask consideredVariants) {
+        List<BasicFitnessEvaluation> result = new ArrayList<>(places.size());
+        for (int from = 0; from < places.size(); from += BatchReplayKernel.PREFERRED_LANE_COUNT) {
+            List<Place> lanes = places.subList(from, Math.min(places.size(), from + BatchReplayKernel.PREFERRED_LANE_COUNT));
+            BatchReplayKernel kernel = new BatchReplayKernel(lanes);
+            for (EnumCounts<ReplayUtils.ReplayOutcomes> enumCounts : kernel.replay(getMultiEncodedLog(), consideredVariants, replayComputationParameters.isClipMarkingAtZero(), null)) {
+                result.add(ReplayUtils.summarizeReplayOutcomeCounts(enumCounts));
             }
-        };
+        }
+        return result;
     }
 
-    @FunctionalInterface
-    private interface ResultUpdater {
-
-        void update(int variantIndex, int variantFrequency, boolean activated, boolean wentUnder, boolean wentOver, boolean notZeroAtEnd);
-
+    @Override
+    public List<DetailedFitnessEvaluation> evaluateDetailedBatch(List<Place> places, BitMask consideredVariants) {
+        List<DetailedFitnessEvaluation> result = new ArrayList<>(places.size());
+        for (int from = 0; from < places.size(); from += BatchReplayKernel.PREFERRED_LANE_COUNT) {
+            List<Place> lanes = places.subList(from, Math.min(places.size(), from + BatchReplayKernel.PREFERRED_LANE_COUNT));
+            BatchReplayKernel kernel = new BatchReplayKernel(lanes);
+            BitMask[] fittingVariants = new BitMask[lanes.size()];
+            for (int l = 0; l < fittingVariants.length; l++) {
+                fittingVariants[l] = new BitMask();
+            }
+            List<EnumCounts<ReplayUtils.ReplayOutcomes>> counts = kernel.replay(getMultiEncodedLog(), consideredVariants, replayComputationParameters.isClipMarkingAtZero(), fittingVariants);
+            for (int l = 0; l < fittingVariants.length; l++) {
+                result.add(new DetailedFitnessEvaluation(fittingVariants[l], ReplayUtils.summarizeReplayOutcomeCounts(counts.get(l))));
+            }
+        }
+        return result;
     }
 
     @Override
@@ -7,6 +7,7 @@ import org.processmining.specpp.componenting.delegators.DelegatingDataSource;
 import org.processmining.specpp.componenting.evaluation.EvaluationRequirements;
 import org.processmining.specpp.componenting.system.ComponentSystemAwareBuilder;
 import org.processmining.specpp.config.parameters.ReplayComputationParameters;
+import org.processmining.specpp.config.parameters.TauFitnessThresholds;
 import org.processmining.specpp.datastructures.encoding.BitMask;
 import org.processmining.specpp.datastructures.log.impls.MultiEncodedLog;
 import org.processmining.specpp.datastructures.petri.Place;
@@ -17,12 +18,16 @@ import org.processmining.specpp.datastructures.vectorization.IntVector;
 import org.processmining.specpp.util.JavaTypingUtils;
 
 import java.nio.IntBuffer;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Spliterator;
 import java.util.stream.Stream;
 
 public abstract class AbstractBasicFitnessEvaluator extends AbstractFitnessEvaluator {
 
     protected ReplayComputationParameters replayComputationParameters;
+    protected final DelegatingDataSource<TauFitnessThresholds> fitnessThresholdsSource = new DelegatingDataSource<>();
+    private volatile int[] descendingFrequencyOrder;
 
 
     public static abstract class Builder extends ComponentSystemAwareBuilder<AbstractBasicFitnessEvaluator> {
@@ -44,10 +49,13 @@ public abstract class AbstractBasicFitnessEvaluator extends AbstractFitnessEvalu
     public AbstractBasicFitnessEvaluator(MultiEncodedLog multiEncodedLog, DataSource<BitMask> variantSubsetSource, ReplayComputationParameters replayComputationParameters) {
         super(multiEncodedLog, variantSubsetSource);
         this.replayComputationParameters = replayComputationParameters;
-        globalComponentSystem().provide(EvaluationRequirements.evaluator(Place.class, BasicFitnessEvaluation.class, this::eval))
+        globalComponentSystem().require(ParameterRequirements.TAU_FITNESS_THRESHOLDS, fitnessThresholdsSource)
+                               .provide(EvaluationRequirements.evaluator(Place.class, BasicFitnessEvaluation.class, this::eval))
                                .provide(EvaluationRequirements.evaluator(Place.class, DetailedFitnessEvaluation.class, this::detailedEval))
                                .provide(EvaluationRequirements.evaluator(JavaTypingUtils.castClass(EvaluationParameterTuple2.class), BasicFitnessEvaluation.class, this::subsetEval))
-                               .provide(EvaluationRequirements.evaluator(JavaTypingUtils.castClass(EvaluationParameterTuple2.class), DetailedFitnessEvaluation.class, this::detailedSubsetEval));
+                               .provide(EvaluationRequirements.evaluator(JavaTypingUtils.castClass(EvaluationParameterTuple2.class), DetailedFitnessEvaluation.class, this::detailedSubsetEval))
+                               .provide(EvaluationRequirements.THRESHOLDED_FITNESS.fulfilWith(this::thresholdedEval))
+                               .provide(EvaluationRequirements.BATCH_DETAILED_FITNESS.fulfilWith(this::detailedBatchEval));
 
 
     }
@@ -64,6 +72,12 @@ public abstract class AbstractBasicFitnessEvaluator extends AbstractFitnessEvalu
         return getMultiEncodedLog().getPresetEncodedLog().getVariantFrequencies();
     }
 
+    protected int[] getDescendingFrequencyOrder() {
+        if (descendingFrequencyOrder == null)
+            descendingFrequencyOrder = ReplayKernel.descendingFrequencyOrder(getVariantFrequencies());
+        return descendingFrequencyOrder;
+    }
+
 
     public BasicFitnessEvaluation subsetEval(EvaluationParameterTuple2<Place, BitMask> tuple) {
         return basicComputation(tuple.getT1(), tuple.getT2());
@@ -82,6 +96,49 @@ public abstract class AbstractBasicFitnessEvaluator extends AbstractFitnessEvalu
         return detailedComputation(place, getConsideredVariants());
     }
 
+    /**
+     * Evaluates the place only as far as needed to reject it by the tau thresholds, if they are available.
+     * Otherwise, the result is exact and carries the detailed evaluation.
+     * May be called concurrently, e.g. by speculative evaluations, as long as the underlying computations are safe to be.
+     */
+    public ThresholdedFitnessEvaluation thresholdedEval(Place place) {
+        if (!fitnessThresholdsSource.isSet()) return ThresholdedFitnessEvaluation.exact(detailedEval(place));
+        return thresholdedComputation(place, getConsideredVariants(), fitnessThresholdsSource.getData());
+    }
+
+    public DetailedFitnessEvaluationBatch detailedBatchEval(PlaceBatch batch) {
+        BitMask consideredVariants = batch.hasConsideredVariants() ? batch.getConsideredVariants() : getConsideredVariants();
+        return new DetailedFitnessEvaluationBatch(evaluateDetailedBatch(batch.getPlaces(), consideredVariants));
+    }
+
+    /**
+     * Evaluates all places on the considered variants. Subclasses that replay directly on the encoded log can override this to share a single pass over the log between the places.
+     *
+     * @return the evaluations in the order of {@code places}
+     */
+    public List<BasicFitnessEvaluation> evaluateBatch(List<Place> places, BitMask consideredVariants) {
+        List<BasicFitnessEvaluation> result = new ArrayList<>(places.size());
+        for (Place place : places) {
+            result.add(basicComputation(place, consideredVariants));
+        }
+        return result;
+    }
+
+    /**
+     * @see #evaluateBatch(List, BitMask)
+     */
+    public List<DetailedFitnessEvaluation> evaluateDetailedBatch(List<Place> places, BitMask consideredVariants) {
+        List<DetailedFitnessEvaluation> result = new ArrayList<>(places.size());
+        for (Place place : places) {
+            result.add(detailedComputation(place, consideredVariants));
+        }
+        return result;
+    }
+
+    protected ThresholdedFitnessEvaluation thresholdedComputation(Place place, BitMask consideredVariants, TauFitnessThresholds thresholds) {
+        return ThresholdedFitnessEvaluation.exact(detailedComputation(place, consideredVariants));
+    }
+
     protected abstract BasicFitnessEvaluation basicComputation(Place place, BitMask consideredVariants);
 
     protected abstract DetailedFitnessEvaluation detailedComputation(Place place, BitMask consideredVariants);
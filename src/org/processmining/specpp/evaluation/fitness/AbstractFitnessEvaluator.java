@@ -12,7 +12,7 @@ public abstract class AbstractFitnessEvaluator extends AbstractGlobalComponentSy
     private final MultiEncodedLog multiEncodedLog;
     private final DataSource<BitMask> variantSubsetSource;
 
-    private BitMask consideredVariants;
+    private volatile BitMask consideredVariants;
 
     public AbstractFitnessEvaluator(MultiEncodedLog multiEncodedLog, DataSource<BitMask> variantSubsetSource) {
         this.multiEncodedLog = multiEncodedLog;
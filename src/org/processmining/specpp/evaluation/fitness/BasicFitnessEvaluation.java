@@ -23,6 +23,10 @@ public class BasicFitnessEvaluation extends EnumFractions<BasicFitnessStatus> im
         return new BasicFitnessEvaluation(total, fractions);
     }
 
+    public double getWeight() {
+        return weight;
+    }
+
     public double getFittingFraction() {
         return getFraction(BasicFitnessStatus.FITTING);
     }
@@ -0,0 +1,30 @@
+package org.processmining.specpp.evaluation.fitness;
+
+import org.processmining.specpp.base.Evaluation;
+
+import java.util.List;
+
+/**
+ * The detailed fitness evaluations of a {@code PlaceBatch}, in the order of its places.
+ */
+public class DetailedFitnessEvaluationBatch implements Evaluation {
+
+    private final List<DetailedFitnessEvaluation> evaluations;
+
+    public DetailedFitnessEvaluationBatch(List<DetailedFitnessEvaluation> evaluations) {
+        this.evaluations = evaluations;
+    }
+
+    public List<DetailedFitnessEvaluation> getEvaluations() {
+        return evaluations;
+    }
+
+    public DetailedFitnessEvaluation get(int index) {
+        return evaluations.get(index);
+    }
+
+    public int size() {
+        return evaluations.size();
+    }
+
+}
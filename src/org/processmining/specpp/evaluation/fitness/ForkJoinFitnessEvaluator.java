@@ -1,60 +1,85 @@
 package org.processmining.specpp.evaluation.fitness;
 
 import org.processmining.specpp.componenting.data.DataSource;
+import org.processmining.specpp.componenting.data.ParameterRequirements;
+import org.processmining.specpp.componenting.delegators.DelegatingDataSource;
+import org.processmining.specpp.config.parameters.ParallelReplayParameters;
 import org.processmining.specpp.config.parameters.ReplayComputationParameters;
 import org.processmining.specpp.datastructures.encoding.BitMask;
 import org.processmining.specpp.datastructures.log.impls.MultiEncodedLog;
 import org.processmining.specpp.datastructures.petri.Place;
-import org.processmining.specpp.datastructures.util.IndexedItem;
-import org.processmining.specpp.datastructures.util.Pair;
 
-import java.nio.IntBuffer;
-import java.util.EnumSet;
-import java.util.Spliterator;
-import java.util.function.IntUnaryOperator;
-import java.util.stream.Stream;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
 
+/**
+ * Replays places by recursively splitting the considered variants across a fork join pool.
+ * Logs (or variant subsets) with fewer events than the configured splitting threshold are replayed sequentially on the calling thread.
+ * Evaluators configured with the same parallelism share one pool for the lifetime of the JVM, so no pool has to be shut down when an evaluator is discarded.
+ *
+ * @see ParallelReplayTask
+ * @see ParallelReplayParameters
+ */
 public class ForkJoinFitnessEvaluator extends AbstractBasicFitnessEvaluator {
 
+    private static final ConcurrentMap<Integer, ForkJoinPool> sharedPools = new ConcurrentHashMap<>();
+
+    private final ParallelReplayParameters parallelReplayParameters;
+    private final ForkJoinPool pool;
 
     public ForkJoinFitnessEvaluator(MultiEncodedLog multiEncodedLog, DataSource<BitMask> variantSubsetSource, ReplayComputationParameters replayComputationParameters) {
+        this(multiEncodedLog, variantSubsetSource, replayComputationParameters, ParallelReplayParameters.getDefault());
+    }
+
+    public ForkJoinFitnessEvaluator(MultiEncodedLog multiEncodedLog, DataSource<BitMask> variantSubsetSource, ReplayComputationParameters replayComputationParameters, ParallelReplayParameters parallelReplayParameters) {
         super(multiEncodedLog, variantSubsetSource, replayComputationParameters);
+        this.parallelReplayParameters = parallelReplayParameters;
+        this.pool = parallelReplayParameters.usesCommonPool() ? ForkJoinPool.commonPool() : sharedPools.computeIfAbsent(parallelReplayParameters.getParallelism(), ForkJoinPool::new);
     }
 
     public static class Builder extends AbstractBasicFitnessEvaluator.Builder {
 
+        protected final DelegatingDataSource<ParallelReplayParameters> parallelReplayParametersSource = ParameterRequirements.PARALLEL_REPLAY.defaultingDelegator(ParallelReplayParameters.getDefault());
+
+        public Builder() {
+            globalComponentSystem().require(ParameterRequirements.PARALLEL_REPLAY, parallelReplayParametersSource);
+        }
+
         @Override
         protected ForkJoinFitnessEvaluator buildIfFullySatisfied() {
-            return new ForkJoinFitnessEvaluator(multiEncodedLogSource.getData(), variantSubsetSource.getDelegate(), replayComputationParametersSource.getData());
+            return new ForkJoinFitnessEvaluator(multiEncodedLogSource.getData(), variantSubsetSource.getDelegate(), replayComputationParametersSource.getData(), parallelReplayParametersSource.getData());
         }
     }
 
 
     @Override
     public BasicFitnessEvaluation basicComputation(Place place, BitMask consideredVariants) {
-        Spliterator<IndexedItem<EnumSet<ReplayUtils.ReplayOutcomes>>> spliterator = prepareSpliterator(place, consideredVariants);
-        AbstractEnumSetReplayTask<ReplayUtils.ReplayOutcomes, BasicFitnessEvaluation> simpleReplayTask = ReplayUtils.createBasicReplayTask(spliterator, getVariantFrequencies()::get);
-        return ReplayUtils.computeHere(simpleReplayTask);
+        ParallelReplayTask task = replay(place, consideredVariants, false);
+        return ReplayUtils.summarizeReplayOutcomeCounts(task.getCounts());
     }
 
     @Override
     public DetailedFitnessEvaluation detailedComputation(Place place, BitMask consideredVariants) {
-        Spliterator<IndexedItem<EnumSet<ReplayUtils.ReplayOutcomes>>> spliterator = prepareSpliterator(place, consideredVariants);
-        AbstractEnumSetReplayTask<ReplayUtils.ReplayOutcomes, DetailedFitnessEvaluation> simpleReplayTask = ReplayUtils.createDetailedReplayTask(spliterator, getVariantFrequencies()::get);
-        return ReplayUtils.computeHere(simpleReplayTask);
+        ParallelReplayTask task = replay(place, consideredVariants, true);
+        return new DetailedFitnessEvaluation(task.getFittingVariants(), ReplayUtils.summarizeReplayOutcomeCounts(task.getCounts()));
     }
 
-    private Spliterator<IndexedItem<EnumSet<ReplayUtils.ReplayOutcomes>>> prepareSpliterator(Place place, BitMask consideredVariants) {
-        IntUnaryOperator presetIndicator = ReplayUtils.presetIndicator(place);
-        IntUnaryOperator postsetIndicator = ReplayUtils.postsetIndicator(place);
-
-        Stream<IndexedItem<Pair<IntBuffer>>> stream = getIndexedItemStream();
-        if (consideredVariants != null) stream = stream.filter(ip -> consideredVariants.get(ip.getIndex()));
-        return stream.map(ip -> new IndexedItem<>(ip.getIndex(), ReplayUtils.variantReplay(ip.getItem()
-                                                                                             .getT1(), presetIndicator, ip.getItem()
-                                                                                                                          .getT2(), postsetIndicator)))
-                     .spliterator();
+    private ParallelReplayTask replay(Place place, BitMask consideredVariants, boolean trackFittingVariants) {
+        MultiEncodedLog log = getMultiEncodedLog();
+        BitMask variants = consideredVariants != null ? consideredVariants : log.variantIndices();
+        int minSplittingEventCount = parallelReplayParameters.getMinSplittingEventCount();
+        ParallelReplayTask task = new ParallelReplayTask(new ReplayKernel(place), log, variants, replayComputationParameters.isClipMarkingAtZero(), minSplittingEventCount, trackFittingVariants);
+        if (ParallelReplayTask.eventCount(log, variants, 0, variants.length()) < minSplittingEventCount || ForkJoinTask.getPool() == pool)
+            task.invoke();
+        else pool.invoke(task);
+        return task;
     }
 
+    @Override
+    public String toString() {
+        return "ForkJoinFitnessEvaluator(" + parallelReplayParameters + ")";
+    }
 
 }
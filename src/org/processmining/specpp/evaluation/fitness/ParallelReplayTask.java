@@ -0,0 +1,87 @@
+package org.processmining.specpp.evaluation.fitness;
+
+import org.processmining.specpp.datastructures.encoding.BitMask;
+import org.processmining.specpp.datastructures.log.impls.MultiEncodedLog;
+import org.processmining.specpp.datastructures.util.EnumCounts;
+import org.processmining.specpp.datastructures.vectorization.IntVectorStorage;
+
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Replays a place on a range of variant indices by recursively halving the range until it contains fewer than {@code minSplittingEventCount} events.
+ * The granularity is deliberately based on the number of events rather than variants as variant lengths can differ by orders of magnitude.
+ * Each leaf replays sequentially via a {@code ReplayKernel} into its own counts which are summed up on joining.
+ */
+public class ParallelReplayTask extends RecursiveAction {
+
+    private final ReplayKernel kernel;
+    private final MultiEncodedLog log;
+    private final BitMask variants;
+    private final int fromIndex, toIndex;
+    private final boolean clipMarkingAtZero;
+    private final int minSplittingEventCount;
+    private final int[] counts;
+    private final BitMask fittingVariants;
+
+    public ParallelReplayTask(ReplayKernel kernel, MultiEncodedLog log, BitMask variants, boolean clipMarkingAtZero, int minSplittingEventCount, boolean trackFittingVariants) {
+        this(kernel, log, variants, 0, variants.length(), clipMarkingAtZero, minSplittingEventCount, trackFittingVariants);
+    }
+
+    protected ParallelReplayTask(ReplayKernel kernel, MultiEncodedLog log, BitMask variants, int fromIndex, int toIndex, boolean clipMarkingAtZero, int minSplittingEventCount, boolean trackFittingVariants) {
+        this.kernel = kernel;
+        this.log = log;
+        this.variants = variants;
+        this.fromIndex = fromIndex;
+        this.toIndex = toIndex;
+        this.clipMarkingAtZero = clipMarkingAtZero;
+        this.minSplittingEventCount = minSplittingEventCount;
+        this.counts = ReplayUtils.getCountArray();
+        this.fittingVariants = trackFittingVariants ? new BitMask() : null;
+    }
+
+    /**
+     * Upper bound on the number of events of the considered variants in {@code [from, to)}.
+     * Relies on the encoded variants being stored contiguously in index order.
+     */
+    public static int eventCount(MultiEncodedLog log, BitMask variants, int from, int to) {
+        int first = variants.nextSetBit(from);
+        if (first < 0 || first >= to) return 0;
+        int last = variants.previousSetBit(to - 1);
+        IntVectorStorage ivs = log.pre().getEncodedVariantVectors();
+        return ivs.getVectorEnd(last) - ivs.getVectorStart(first);
+    }
+
+    @Override
+    protected void compute() {
+        if (toIndex - fromIndex < 2 || eventCount(log, variants, fromIndex, toIndex) < minSplittingEventCount) {
+            kernel.replayRange(log, variants, fromIndex, toIndex, clipMarkingAtZero, counts, fittingVariants);
+        } else {
+            int mid = (fromIndex + toIndex) >>> 1;
+            ParallelReplayTask left = createSubTask(fromIndex, mid);
+            ParallelReplayTask right = createSubTask(mid, toIndex);
+            invokeAll(left, right);
+            merge(left);
+            merge(right);
+        }
+    }
+
+    protected ParallelReplayTask createSubTask(int from, int to) {
+        return new ParallelReplayTask(kernel, log, variants, from, to, clipMarkingAtZero, minSplittingEventCount, fittingVariants != null);
+    }
+
+    private void merge(ParallelReplayTask subTask) {
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] += subTask.counts[i];
+        }
+        if (fittingVariants != null) fittingVariants.or(subTask.fittingVariants);
+    }
+
+    public EnumCounts<ReplayUtils.ReplayOutcomes> getCounts() {
+        return new EnumCounts<>(counts);
+    }
+
+    public BitMask getFittingVariants() {
+        return fittingVariants;
+    }
+
+}
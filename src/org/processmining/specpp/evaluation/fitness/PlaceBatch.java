@@ -0,0 +1,43 @@
+package org.processmining.specpp.evaluation.fitness;
+
+import org.processmining.specpp.base.Evaluable;
+import org.processmining.specpp.datastructures.encoding.BitMask;
+import org.processmining.specpp.datastructures.petri.Place;
+
+import java.util.List;
+
+/**
+ * A batch of places that is to be evaluated together in one pass over the log.
+ * If no variant subset is given, the evaluator's currently considered variants are used.
+ */
+public class PlaceBatch implements Evaluable {
+
+    private final List<Place> places;
+    private final BitMask consideredVariants;
+
+    public PlaceBatch(List<Place> places) {
+        this(places, null);
+    }
+
+    public PlaceBatch(List<Place> places, BitMask consideredVariants) {
+        this.places = places;
+        this.consideredVariants = consideredVariants;
+    }
+
+    public List<Place> getPlaces() {
+        return places;
+    }
+
+    public BitMask getConsideredVariants() {
+        return consideredVariants;
+    }
+
+    public boolean hasConsideredVariants() {
+        return consideredVariants != null;
+    }
+
+    @Override
+    public String toString() {
+        return "PlaceBatch(" + places.size() + ")";
+    }
+}
@@ -0,0 +1,165 @@
+package org.processmining.specpp.evaluation.fitness;
+
+import org.processmining.specpp.config.parameters.TauFitnessThresholds;
+import org.processmining.specpp.datastructures.encoding.BitEncodedSet;
+import org.processmining.specpp.datastructures.encoding.BitMask;
+import org.processmining.specpp.datastructures.log.impls.MultiEncodedLog;
+import org.processmining.specpp.datastructures.petri.Place;
+import org.processmining.specpp.datastructures.petri.Transition;
+import org.processmining.specpp.datastructures.util.EnumCounts;
+import org.processmining.specpp.datastructures.vectorization.IntVector;
+import org.processmining.specpp.datastructures.vectorization.IntVectorStorage;
+
+import java.util.Comparator;
+import java.util.stream.IntStream;
+
+/**
+ * Token replay of a single place directly on the raw arrays of an encoded log.
+ * The place's preset and postset are unpacked once into dense delta tables over the preset and postset encodings, shifted by one so that {@code IntEncoding.OUTSIDE_RANGE} maps to a zero delta.
+ * Replaying a variant is thereby reduced to a counted loop of table lookups without any indicator lambdas, buffers or per variant allocations.
+ * Self-loop transitions need no special treatment as at every position the consumption is applied before the production.
+ *
+ * @see ReplayUtils#presetIndicator(Place)
+ * @see ReplayUtils#postsetIndicator(Place)
+ */
+public class ReplayKernel {
+
+    private final byte[] produced;
+    private final byte[] consumed;
+
+    public ReplayKernel(Place place) {
+        this.produced = deltaTable(place.preset());
+        this.consumed = deltaTable(place.postset());
+    }
+
+    private static byte[] deltaTable(BitEncodedSet<Transition> set) {
+        BitMask mask = set.getBitMask();
+        byte[] table = new byte[Math.max(set.maxSize(), mask.length()) + 1];
+        for (int i = mask.nextSetBit(0); i >= 0; i = mask.nextSetBit(i + 1)) {
+            table[i + 1] = 1;
+        }
+        return table;
+    }
+
+    public EnumCounts<ReplayUtils.ReplayOutcomes> replay(MultiEncodedLog log, BitMask consideredVariants, boolean clipMarkingAtZero) {
+        return replay(log, consideredVariants, clipMarkingAtZero, null);
+    }
+
+    /**
+     * Replays this kernel's place on the considered variants of the log.
+     *
+     * @param consideredVariants the variants to replay, all variants of the log if {@code null}
+     * @param fittingVariants    optional mask in which the indices of perfectly fitting variants are set, may be {@code null}
+     * @return frequency weighted counts of replay outcomes
+     */
+    public EnumCounts<ReplayUtils.ReplayOutcomes> replay(MultiEncodedLog log, BitMask consideredVariants, boolean clipMarkingAtZero, BitMask fittingVariants) {
+        BitMask variants = consideredVariants != null ? consideredVariants : log.variantIndices();
+        assert log.variantIndices().isSupersetOf(variants);
+        int[] counts = ReplayUtils.getCountArray();
+        replayRange(log, variants, 0, variants.length(), clipMarkingAtZero, counts, fittingVariants);
+        return new EnumCounts<>(counts);
+    }
+
+    /**
+     * Replays the variants whose indices are set in {@code variants} and lie within {@code [fromIndex, toIndex)}, accumulating into {@code counts}.
+     */
+    void replayRange(MultiEncodedLog log, BitMask variants, int fromIndex, int toIndex, boolean clipMarkingAtZero, int[] counts, BitMask fittingVariants) {
+        IntVectorStorage pre = log.pre().getEncodedVariantVectors(), post = log.post().getEncodedVariantVectors();
+        IntVector frequencies = log.variantFrequencies();
+        int[] preData = pre.__internal(), postData = post.__internal();
+        byte[] produced = this.produced, consumed = this.consumed;
+        for (int i = variants.nextSetBit(fromIndex); i >= 0 && i < toIndex; i = variants.nextSetBit(i + 1)) {
+            int p = pre.getVectorStart(i), q = post.getVectorStart(i);
+            int length = Math.min(pre.getVectorEnd(i) - p, post.getVectorEnd(i) - q);
+            int acc = 0;
+            boolean wentUnder = false, wentOver = false, activated = false;
+            for (int j = 0; j < length; j++) {
+                acc -= consumed[postData[q + j] + 1];
+                wentUnder |= acc < 0;
+                activated |= acc != 0;
+                if (clipMarkingAtZero && acc < 0) acc = 0;
+                acc += produced[preData[p + j] + 1];
+                wentOver |= acc > 1;
+                activated |= acc != 0;
+            }
+            boolean notZeroAtEnd = acc > 0;
+            ReplayUtils.updateCounts(counts, frequencies.get(i), activated, wentUnder, wentOver, notZeroAtEnd);
+            if (fittingVariants != null) ReplayUtils.updateFittingVariantMask(fittingVariants, wentUnder, wentOver, notZeroAtEnd, i);
+        }
+    }
+
+    /**
+     * Replays variants in the given order, typically by descending frequency, until the outcome of the threshold checks of {@code FitnessThresholder} can no longer change.
+     * That is, until the place is known to be underfed, or known to be overfed while it can no longer become underfed, or known to be not tau fitting while it can become neither under- nor overfed.
+     * A place that is going to pass the checks is replayed on all variants, as its detailed evaluation, which is then part of the exact result, is needed anyway.
+     *
+     * @param variantOrder a permutation of the log's variant indices, of which only those contained in {@code consideredVariants} are replayed
+     * @see #descendingFrequencyOrder(IntVector)
+     */
+    public ThresholdedFitnessEvaluation replayUntilDecided(MultiEncodedLog log, BitMask consideredVariants, int[] variantOrder, boolean clipMarkingAtZero, TauFitnessThresholds thresholds) {
+        BitMask variants = consideredVariants != null ? consideredVariants : log.variantIndices();
+        IntVectorStorage pre = log.pre().getEncodedVariantVectors(), post = log.post().getEncodedVariantVectors();
+        IntVector frequencies = log.variantFrequencies();
+        int[] preData = pre.__internal(), postData = post.__internal();
+        byte[] produced = this.produced, consumed = this.consumed;
+        int[] counts = ReplayUtils.getCountArray();
+        BitMask fittingVariants = new BitMask();
+        double total = frequencies.sum(variants);
+        double fittingThreshold = thresholds.getFittingThreshold(), underfedThreshold = thresholds.getUnderfedThreshold(), overfedThreshold = thresholds.getOverfedThreshold();
+        int remaining = (int) total;
+        boolean decided = false;
+        for (int k = 0; k < variantOrder.length && !decided; k++) {
+            int i = variantOrder[k];
+            if (!variants.get(i)) continue;
+            int p = pre.getVectorStart(i), q = post.getVectorStart(i);
+            int length = Math.min(pre.getVectorEnd(i) - p, post.getVectorEnd(i) - q);
+            int acc = 0;
+            boolean wentUnder = false, wentOver = false, activated = false;
+            for (int j = 0; j < length; j++) {
+                acc -= consumed[postData[q + j] + 1];
+                wentUnder |= acc < 0;
+                activated |= acc != 0;
+                if (clipMarkingAtZero && acc < 0) acc = 0;
+                acc += produced[preData[p + j] + 1];
+                wentOver |= acc > 1;
+                activated |= acc != 0;
+            }
+            int f = frequencies.get(i);
+            ReplayUtils.updateCounts(counts, f, activated, wentUnder, wentOver, acc > 0);
+            ReplayUtils.updateFittingVariantMask(fittingVariants, wentUnder, wentOver, acc > 0, i);
+            remaining -= f;
+
+            int underfed = counts[ReplayUtils.ReplayOutcomes.UNDERFED.ordinal()];
+            int overfed = counts[ReplayUtils.ReplayOutcomes.OVERFED.ordinal()];
+            int fitting = counts[ReplayUtils.ReplayOutcomes.FITTING.ordinal()];
+            if (underfed / total > underfedThreshold) decided = true;
+            else if ((underfed + remaining) / total <= underfedThreshold) {
+                if (overfed / total > overfedThreshold) decided = true;
+                else if ((overfed + remaining) / total <= overfedThreshold)
+                    decided = (fitting + remaining) / total < fittingThreshold;
+            }
+        }
+        if (remaining == 0)
+            return ThresholdedFitnessEvaluation.exact(new DetailedFitnessEvaluation(fittingVariants, ReplayUtils.summarizeReplayOutcomeCounts(new EnumCounts<>(counts))));
+        double[] fractions = new double[BasicFitnessStatus.values().length];
+        fractions[BasicFitnessStatus.FITTING.ordinal()] = counts[ReplayUtils.ReplayOutcomes.FITTING.ordinal()] / total;
+        fractions[BasicFitnessStatus.UNDERFED.ordinal()] = counts[ReplayUtils.ReplayOutcomes.UNDERFED.ordinal()] / total;
+        fractions[BasicFitnessStatus.OVERFED.ordinal()] = counts[ReplayUtils.ReplayOutcomes.OVERFED.ordinal()] / total;
+        fractions[BasicFitnessStatus.ACTIVATED.ordinal()] = counts[ReplayUtils.ReplayOutcomes.ACTIVATED.ordinal()] / total;
+        fractions[BasicFitnessStatus.UNACTIVATED.ordinal()] = counts[ReplayUtils.ReplayOutcomes.NOT_ACTIVATED.ordinal()] / total;
+        return new ThresholdedFitnessEvaluation(total, fractions, null);
+    }
+
+    /**
+     * @return the variant indices sorted by descending frequency, so that the heaviest variants are replayed first
+     */
+    public static int[] descendingFrequencyOrder(IntVector frequencies) {
+        int[] f = frequencies.__internal();
+        return IntStream.range(0, f.length)
+                        .boxed()
+                        .sorted(Comparator.comparingInt((Integer i) -> f[i]).reversed())
+                        .mapToInt(Integer::intValue)
+                        .toArray();
+    }
+
+}
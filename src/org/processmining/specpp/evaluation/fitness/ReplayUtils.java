@@ -14,7 +14,7 @@ import java.util.concurrent.ExecutionException;
 import java.util.function.IntUnaryOperator;
 
 public class ReplayUtils {
-    // TODO efficiency improvement opportunity
+    // see ReplayKernel for lambda free replay directly on the encoded log arrays
     public static IntUnaryOperator presetIndicator(final Place place) {
         final BitEncodedSet<Transition> preset = place.preset();
         return i -> preset.containsIndex(i) ? 1 : 0;
@@ -0,0 +1,52 @@
+package org.processmining.specpp.evaluation.fitness;
+
+/**
+ * A fitness evaluation that may have been cut short once its comparison with the tau thresholds was decided.
+ * All fractions are relative to the total weight of the considered variants, so that for decision-only results they are lower bounds of the exact fractions.
+ * The outcomes of {@code FitnessThresholder}'s checks, in the order underfed, overfed, tau fitting, are the same as for the exact evaluation.
+ * Other uses, e.g. relative fractions or merging, require an exact evaluation.
+ * An exact evaluation also carries the corresponding detailed evaluation, so that callers that go on to need it do not have to replay the place again.
+ *
+ * @see FitnessThresholder
+ * @see ReplayKernel#replayUntilDecided(org.processmining.specpp.datastructures.log.impls.MultiEncodedLog, org.processmining.specpp.datastructures.encoding.BitMask, int[], boolean, org.processmining.specpp.config.parameters.TauFitnessThresholds)
+ */
+public class ThresholdedFitnessEvaluation extends BasicFitnessEvaluation {
+
+    private final DetailedFitnessEvaluation detailedEvaluation;
+
+    /**
+     * @param detailedEvaluation the detailed evaluation if all considered variants were replayed, {@code null} for a decision-only result
+     */
+    public ThresholdedFitnessEvaluation(double weight, double[] fractions, DetailedFitnessEvaluation detailedEvaluation) {
+        super(weight, fractions);
+        this.detailedEvaluation = detailedEvaluation;
+    }
+
+    public static ThresholdedFitnessEvaluation exact(DetailedFitnessEvaluation detailedEvaluation) {
+        BasicFitnessEvaluation evaluation = detailedEvaluation.getFractionalEvaluation();
+        double[] fractions = new double[BasicFitnessStatus.values().length];
+        for (BasicFitnessStatus status : BasicFitnessStatus.values()) {
+            fractions[status.ordinal()] = evaluation.getFraction(status);
+        }
+        return new ThresholdedFitnessEvaluation(evaluation.getWeight(), fractions, detailedEvaluation);
+    }
+
+    /**
+     * @return whether all considered variants were replayed, otherwise this is a decision-only result
+     */
+    public boolean isExact() {
+        return detailedEvaluation != null;
+    }
+
+    /**
+     * @return the detailed evaluation of an exact result, {@code null} for a decision-only result
+     */
+    public DetailedFitnessEvaluation getDetailedEvaluation() {
+        return detailedEvaluation;
+    }
+
+    @Override
+    public String toString() {
+        return (isExact() ? "" : "≥") + super.toString();
+    }
+}
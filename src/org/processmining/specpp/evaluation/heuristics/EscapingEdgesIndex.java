@@ -0,0 +1,138 @@
+package org.processmining.specpp.evaluation.heuristics;
+
+import org.apache.commons.collections4.BidiMap;
+import org.processmining.specpp.datastructures.encoding.BitMask;
+import org.processmining.specpp.datastructures.encoding.IntEncoding;
+import org.processmining.specpp.datastructures.log.Activity;
+import org.processmining.specpp.datastructures.log.impls.Factory;
+import org.processmining.specpp.datastructures.petri.Transition;
+
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * Primitive mirror of the ETC-based composer's activity to escaping edges mapping, indexed by the postset encoding of the corresponding transitions.
+ * Keeps the maximum number of escaping edges up to date incrementally and stamps every change with a monotonically increasing epoch, such that scores computed from it can be recognized as stale.
+ * The maximum is recorded per epoch, so that a score can be recomputed as it would have been right after the last change it depends on.
+ */
+public class EscapingEdgesIndex {
+
+    private final Activity[] activities;
+    private final int[] escapingEdges;
+    private final int[] lastChanged;
+    private int[] maxHistory;
+    private int maxEscapingEdges;
+    private int epoch;
+    private boolean initialized;
+    private boolean monotone;
+
+    public EscapingEdgesIndex(IntEncoding<Transition> postsetEncoding, BidiMap<Activity, Transition> actTransMapping) {
+        int size = postsetEncoding.size();
+        this.activities = new Activity[size];
+        this.escapingEdges = new int[size];
+        this.lastChanged = new int[size];
+        this.maxHistory = new int[16];
+        for (int i = 0; i < size; i++) {
+            Activity a = actTransMapping.getKey(postsetEncoding.decode(i));
+            activities[i] = Factory.ARTIFICIAL_START.equals(a) ? null : a;
+        }
+    }
+
+    /**
+     * Pulls the current values from the mapping and bumps the epoch if any of them changed.
+     *
+     * @return whether any value changed
+     * @see #wasMonotone()
+     */
+    public boolean synchronize(Map<Activity, Integer> activityToEscapingEdges) {
+        if (activityToEscapingEdges.isEmpty()) return false;
+        boolean changed = false, increased = false, maxDecreased = false;
+        int previousMax = maxEscapingEdges;
+        int nextEpoch = epoch + 1;
+        for (int i = 0; i < activities.length; i++) {
+            if (activities[i] == null) continue;
+            int e = activityToEscapingEdges.get(activities[i]);
+            int old = escapingEdges[i];
+            if (initialized && e == old) continue;
+            escapingEdges[i] = e;
+            lastChanged[i] = nextEpoch;
+            changed = true;
+            increased |= e > old;
+            if (e > maxEscapingEdges) maxEscapingEdges = e;
+            else if (old == maxEscapingEdges && e < old) maxDecreased = true;
+        }
+        if (maxDecreased) {
+            maxEscapingEdges = 0;
+            for (int i = 0; i < activities.length; i++) {
+                if (activities[i] != null && escapingEdges[i] > maxEscapingEdges)
+                    maxEscapingEdges = escapingEdges[i];
+            }
+        }
+        monotone = initialized && !increased && maxEscapingEdges == previousMax;
+        initialized = true;
+        if (changed) {
+            epoch = nextEpoch;
+            if (epoch >= maxHistory.length) maxHistory = Arrays.copyOf(maxHistory, 2 * maxHistory.length);
+            maxHistory[epoch] = maxEscapingEdges;
+        }
+        return changed;
+    }
+
+    /**
+     * @return whether the last synchronization only decreased escaping edges and left their maximum unchanged, i.e., could only have decreased scores that are increasing in the escaping edges of postset activities
+     */
+    public boolean wasMonotone() {
+        return monotone;
+    }
+
+    public boolean isInitialized() {
+        return initialized;
+    }
+
+    public int getEpoch() {
+        return epoch;
+    }
+
+    /**
+     * @return the maximum number of escaping edges over all activities except the artificial start
+     */
+    public int getMaxEscapingEdges() {
+        return maxEscapingEdges;
+    }
+
+    /**
+     * @return the maximum number of escaping edges as of the given epoch
+     */
+    public int getMaxEscapingEdges(int epoch) {
+        return maxHistory[epoch];
+    }
+
+    public int getEscapingEdges(int postsetIndex) {
+        return escapingEdges[postsetIndex];
+    }
+
+    /**
+     * @param postset bit mask over the postset encoding
+     * @return the sum of escaping edges of the given transitions
+     */
+    public int sumOver(BitMask postset) {
+        int sum = 0;
+        for (int i = postset.nextSetBit(0); i >= 0; i = postset.nextSetBit(i + 1)) {
+            sum += escapingEdges[i];
+        }
+        return sum;
+    }
+
+    /**
+     * @param postset bit mask over the postset encoding
+     * @return the latest epoch in which the escaping edges of any of the given transitions changed
+     */
+    public int lastChangeOf(BitMask postset) {
+        int last = 0;
+        for (int i = postset.nextSetBit(0); i >= 0; i = postset.nextSetBit(i + 1)) {
+            if (lastChanged[i] > last) last = lastChanged[i];
+        }
+        return last;
+    }
+
+}
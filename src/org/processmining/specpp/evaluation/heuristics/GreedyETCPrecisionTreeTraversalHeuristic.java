@@ -7,10 +7,10 @@ import org.processmining.specpp.componenting.delegators.DelegatingDataSource;
 import org.processmining.specpp.componenting.system.ComponentSystemAwareBuilder;
 import org.processmining.specpp.componenting.system.link.AbstractBaseClass;
 import org.processmining.specpp.config.parameters.AlphaTreeTraversalHeuristic;
+import org.processmining.specpp.datastructures.encoding.IntEncoding;
 import org.processmining.specpp.datastructures.encoding.IntEncodings;
 import org.processmining.specpp.datastructures.log.Activity;
 import org.processmining.specpp.datastructures.log.Log;
-import org.processmining.specpp.datastructures.log.impls.Factory;
 import org.processmining.specpp.datastructures.petri.Place;
 import org.processmining.specpp.datastructures.petri.Transition;
 import org.processmining.specpp.datastructures.tree.base.HeuristicStrategy;
@@ -44,6 +44,16 @@ public class GreedyETCPrecisionTreeTraversalHeuristic extends AbstractBaseClass
      */
     private final DelegatingDataSource<Map<Activity, Integer>> delegatingDataSourceA = new DelegatingDataSource<>(HashMap::new);
 
+    /**
+     * Primitive mirror of activityToEscapingEdges
+     */
+    private final EscapingEdgesIndex escapingEdges;
+
+    /**
+     * Flag indicating whether the escaping edges are synchronized by someone observing the composer, instead of on every computation
+     */
+    private boolean synchronizedExternally;
+
     /**
      * Alpha
      */
@@ -57,11 +67,13 @@ public class GreedyETCPrecisionTreeTraversalHeuristic extends AbstractBaseClass
     /**
      * Creates a new GreedyETCPrecisionTreeTraversalHeuristic.
      * @param actTransMapping Mapping between activities and transitions (and vice versa).
+     * @param postsetEncoding Encoding of postset transitions.
      * @param maxSize Maximal size of candidate places.
      * @param alpha Alpha.
      */
-    public GreedyETCPrecisionTreeTraversalHeuristic(BidiMap<Activity, Transition> actTransMapping, int maxSize, double alpha) {
+    public GreedyETCPrecisionTreeTraversalHeuristic(BidiMap<Activity, Transition> actTransMapping, IntEncoding<Transition> postsetEncoding, int maxSize, double alpha) {
         this.actTransMapping = actTransMapping;
+        this.escapingEdges = new EscapingEdgesIndex(postsetEncoding, actTransMapping);
         this.alpha = alpha;
         this.maxSize = maxSize;
 
@@ -94,6 +106,11 @@ public class GreedyETCPrecisionTreeTraversalHeuristic extends AbstractBaseClass
          */
         private final DelegatingDataSource<BidiMap<Activity, Transition>> actTransMapping = new DelegatingDataSource<>();
 
+        /**
+         * Transition-integer encoding
+         */
+        private final DelegatingDataSource<IntEncodings<Transition>> encTrans = new DelegatingDataSource<>();
+
         /**
          * Alpha
          */
@@ -111,6 +128,7 @@ public class GreedyETCPrecisionTreeTraversalHeuristic extends AbstractBaseClass
             globalComponentSystem().require(DataRequirements.RAW_LOG, rawLog)
                 .require(DataRequirements.ACT_TRANS_MAPPING, actTransMapping)
                 .require(DataRequirements.ENC_ACT, encAct)
+                .require(DataRequirements.ENC_TRANS, encTrans)
                 .require(ParameterRequirements.ALPHA_TREETRAVERSALHEURISTIC, alpha);
         }
 
@@ -121,10 +139,20 @@ public class GreedyETCPrecisionTreeTraversalHeuristic extends AbstractBaseClass
         @Override
         protected GreedyETCPrecisionTreeTraversalHeuristic buildIfFullySatisfied() {
             int maxSize = encAct.getData().getPresetEncoding().size() + encAct.getData().getPostsetEncoding().size();
-            return new GreedyETCPrecisionTreeTraversalHeuristic(actTransMapping.getData(), maxSize, alpha.getData().getAlpha());
+            return new GreedyETCPrecisionTreeTraversalHeuristic(actTransMapping.getData(), encTrans.getData().getPostsetEncoding(), maxSize, alpha.getData().getAlpha());
         }
     }
 
+    /**
+     * Hands the synchronization of the escaping edges over to the caller, e.g. an expansion strategy observing the composer.
+     * Afterwards, scores are computed from the state of the returned index as of its last {@link EscapingEdgesIndex#synchronize(Map)}.
+     * @return Index of escaping edges.
+     */
+    public EscapingEdgesIndex synchronizeExternally() {
+        synchronizedExternally = true;
+        return escapingEdges;
+    }
+
     /**
      * Computes the heuristic-score of a candidate place.
      * @param node Candidate place.
@@ -132,35 +160,29 @@ public class GreedyETCPrecisionTreeTraversalHeuristic extends AbstractBaseClass
      */
     @Override
     public TreeNodeScore computeHeuristic(PlaceNode node) {
-        Place p = node.getPlace();
-        Map<Activity, Integer> activityToEscapingEdges = delegatingDataSourceE.getData();
+        if (!synchronizedExternally) escapingEdges.synchronize(delegatingDataSourceE.getData());
+        return score(node.getPlace(), escapingEdges.getMaxEscapingEdges());
+    }
+
+    /**
+     * Computes the heuristic-score of a candidate place as of the given escaping-edges epoch.
+     * The escaping edges of the place's postset activities must not have changed since that epoch.
+     * @param node Candidate place.
+     * @param epoch Epoch of the escaping edges index.
+     * @return Heuristic Score.
+     */
+    public TreeNodeScore computeHeuristic(PlaceNode node, int epoch) {
+        return score(node.getPlace(), escapingEdges.getMaxEscapingEdges(epoch));
+    }
 
-        if(p.isHalfEmpty()) {
+    private TreeNodeScore score(Place p, int maxE) {
+        if(p.isHalfEmpty() || !escapingEdges.isInitialized()) {
             return new TreeNodeScore(Double.MAX_VALUE);
         } else {
-            if(activityToEscapingEdges.isEmpty()) {
-                return  new TreeNodeScore(Double.MAX_VALUE);
-            } else {
-
-                int sumEPostSet = 0;
-                for(Transition t : node.getPlace().postset()) {
-                    Activity a = actTransMapping.getKey(t);
-                    sumEPostSet += activityToEscapingEdges.get(a);
-                }
-
-                int maxE = 0;
-                for(Activity a : actTransMapping.keySet()) {
-                    if(!a.equals(Factory.ARTIFICIAL_START)) {
-                        if (activityToEscapingEdges.get(a) > maxE) {
-                            maxE = activityToEscapingEdges.get(a);
-                        }
-                    }
-                }
-
-                double score = (alpha) * (((double) sumEPostSet / p.postset().size())/ maxE) + (1-alpha) * (1 - ((double) p.size() / maxSize));
-                return new TreeNodeScore(score);
-
-            }
+            int sumEPostSet = escapingEdges.sumOver(p.postset().getBitMask());
+
+            double score = (alpha) * (((double) sumEPostSet / p.postset().size())/ maxE) + (1-alpha) * (1 - ((double) p.size() / maxSize));
+            return new TreeNodeScore(score);
         }
     }
 
@@ -0,0 +1,526 @@
+package org.processmining.specpp.evaluation.implicitness;
+
+import org.apache.commons.math3.exception.TooManyIterationsException;
+import org.apache.commons.math3.optim.PointValuePair;
+import org.apache.commons.math3.optim.linear.*;
+import org.apache.commons.math3.optim.nonlinear.scalar.GoalType;
+import org.processmining.specpp.datastructures.encoding.BitMask;
+import org.processmining.specpp.datastructures.encoding.IntEncoding;
+import org.processmining.specpp.datastructures.encoding.IntEncodings;
+import org.processmining.specpp.datastructures.petri.Place;
+import org.processmining.specpp.datastructures.petri.Transition;
+
+import java.util.*;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Stateful LP based implicitness test against a changing set of places, e.g., the places of the current composition.
+ * It solves the same LP as {@link LPBasedImplicitnessCalculator#isImplicitAmong(int, List, List, List)}, but keeps the sparse incidence columns of all places alive, such that accepting or revoking a place only adds or removes its column.
+ * <p>
+ * Substituting {@code y = z + w}, {@code k = 1 + k'} and {@code x = 0} turns the LP into the pure feasibility problem {@code Av <= b, v >= 0} with one row per transition that is incident to any involved place and one row per preset transition of the tested place.
+ * It is solved with the least-index criss-cross method, which terminates from any starting basis. Each test is warm started from the basis the previous test ended in.
+ * As rounding errors accumulate over long pivot sequences, the outcome is checked against the unmodified constraints: either the solution or the infeasibility certificate the method ended with has to hold. Otherwise, the test is repeated with commons-math's {@link SimplexSolver}.
+ * This class is not thread-safe.
+ */
+public class IncrementalLPImplicitnessEngine {
+
+    public static final int MAX_PIVOTS = 100_000;
+    private static final double EPS = 1e-7;
+    /**
+     * Relative tolerance when checking a solution or an infeasibility certificate against the unmodified constraints.
+     */
+    private static final double VERIFICATION_EPS = 1e-6;
+    private static final int FEASIBLE = -1, PIVOT_LIMIT_REACHED = -2, CANCELLED = -3;
+
+    private final int pivotLimit;
+    private final int transitionCount, presetTransitionCount;
+    private final int[] preToCombined, postToCombined;
+
+    private final List<Place> places = new ArrayList<>();
+    private final Map<Place, Integer> columnIndices = new HashMap<>();
+    private final List<int[]> incidenceTransitions = new ArrayList<>();
+    private final List<int[]> incidenceValues = new ArrayList<>();
+    /**
+     * number of places per transition that are incident to it resp. have it in their preset
+     */
+    private final int[] incidentPlaceCounts, presetPlaceCounts;
+
+    private final List<Place> warmBasisPlaces = new ArrayList<>();
+    private final List<Place> lastWitnessSupport = new ArrayList<>();
+    private final List<Boolean> warmBasisIsZ = new ArrayList<>();
+    private boolean warmBasisHasK;
+
+    // scratch space reused across tests
+    private final int[] rowOfTransition, rowOfPresetTransition;
+    private double[][] tableau = new double[0][];
+    /**
+     * structural columns and right hand side of the unmodified constraints
+     */
+    private double[][] constraints = new double[0][];
+    private int[] basis = new int[0];
+    private int[] columnToPlace = new int[0];
+    private int width;
+    private long pivots, tests, fallbacks;
+
+    public IncrementalLPImplicitnessEngine(IntEncodings<Transition> transitionEncodings) {
+        this(transitionEncodings, MAX_PIVOTS);
+    }
+
+    /**
+     * @param pivotLimit number of criss-cross pivots after which a test is handed over to commons-math
+     */
+    IncrementalLPImplicitnessEngine(IntEncodings<Transition> transitionEncodings, int pivotLimit) {
+        this.pivotLimit = pivotLimit;
+        IntEncoding<Transition> combinedEncoding = transitionEncodings.unionizedEncoding();
+        IntEncoding<Transition> pre = transitionEncodings.pre(), post = transitionEncodings.post();
+        transitionCount = combinedEncoding.size();
+        presetTransitionCount = pre.size();
+        preToCombined = new int[pre.size()];
+        for (int i = 0; i < pre.size(); i++) {
+            preToCombined[i] = combinedEncoding.encode(pre.decode(i));
+        }
+        postToCombined = new int[post.size()];
+        for (int i = 0; i < post.size(); i++) {
+            postToCombined[i] = combinedEncoding.encode(post.decode(i));
+        }
+        incidentPlaceCounts = new int[transitionCount];
+        presetPlaceCounts = new int[presetTransitionCount];
+        rowOfTransition = new int[transitionCount];
+        rowOfPresetTransition = new int[presetTransitionCount];
+    }
+
+    public void addAll(Collection<Place> places) {
+        for (Place place : places) {
+            add(place);
+        }
+    }
+
+    public void add(Place place) {
+        if (columnIndices.containsKey(place)) return;
+        int[][] incidence = computeIncidence(place);
+        columnIndices.put(place, places.size());
+        places.add(place);
+        incidenceTransitions.add(incidence[0]);
+        incidenceValues.add(incidence[1]);
+        for (int t : incidence[0]) {
+            incidentPlaceCounts[t]++;
+        }
+        BitMask preset = place.preset().getBitMask();
+        for (int t = preset.nextSetBit(0); t >= 0; t = preset.nextSetBit(t + 1)) {
+            presetPlaceCounts[t]++;
+        }
+    }
+
+    public void remove(Place place) {
+        Integer index = columnIndices.remove(place);
+        if (index == null) return;
+        for (int t : incidenceTransitions.get(index)) {
+            incidentPlaceCounts[t]--;
+        }
+        BitMask preset = place.preset().getBitMask();
+        for (int t = preset.nextSetBit(0); t >= 0; t = preset.nextSetBit(t + 1)) {
+            presetPlaceCounts[t]--;
+        }
+        int last = places.size() - 1;
+        if (index != last) {
+            Place moved = places.get(last);
+            places.set(index, moved);
+            incidenceTransitions.set(index, incidenceTransitions.get(last));
+            incidenceValues.set(index, incidenceValues.get(last));
+            columnIndices.put(moved, index);
+        }
+        places.remove(last);
+        incidenceTransitions.remove(last);
+        incidenceValues.remove(last);
+    }
+
+    public void clear() {
+        for (Place place : new ArrayList<>(places)) {
+            remove(place);
+        }
+        warmBasisPlaces.clear();
+        warmBasisIsZ.clear();
+        warmBasisHasK = false;
+    }
+
+    public boolean contains(Place place) {
+        return columnIndices.containsKey(place);
+    }
+
+    public int size() {
+        return places.size();
+    }
+
+    public List<Place> getPlaces() {
+        return Collections.unmodifiableList(places);
+    }
+
+    /**
+     * Only meaningful directly after {@link #isImplicit(Place)} returned true.
+     *
+     * @return the places carrying weight in the found solution. The solution, and thus implicitness, persists as long as none of them is removed.
+     */
+    public List<Place> getLastWitnessSupport() {
+        return new ArrayList<>(lastWitnessSupport);
+    }
+
+    /**
+     * @return the average number of pivots per test so far
+     */
+    public double averagePivots() {
+        return tests > 0 ? (double) pivots / tests : 0;
+    }
+
+    /**
+     * @return the number of tests so far that were repeated with commons-math as the criss-cross outcome did not hold up
+     */
+    public long simplexFallbacks() {
+        return fallbacks;
+    }
+
+    /**
+     * Sparse incidence of {@code place} over the combined transition encoding, i.e., +1 for ingoing and -1 for outgoing transitions. Self loops cancel out.
+     */
+    private int[][] computeIncidence(Place place) {
+        int[] dense = new int[transitionCount];
+        BitMask preset = place.preset().getBitMask(), postset = place.postset().getBitMask();
+        for (int t = preset.nextSetBit(0); t >= 0; t = preset.nextSetBit(t + 1)) {
+            dense[preToCombined[t]] += 1;
+        }
+        for (int t = postset.nextSetBit(0); t >= 0; t = postset.nextSetBit(t + 1)) {
+            dense[postToCombined[t]] -= 1;
+        }
+        int nonZeros = 0;
+        for (int v : dense) {
+            if (v != 0) nonZeros++;
+        }
+        int[] transitions = new int[nonZeros], values = new int[nonZeros];
+        for (int t = 0, i = 0; t < transitionCount; t++) {
+            if (dense[t] != 0) {
+                transitions[i] = t;
+                values[i++] = dense[t];
+            }
+        }
+        return new int[][]{transitions, values};
+    }
+
+    private int[][] incidenceOf(Place place, Integer ownIndex) {
+        return ownIndex != null ? new int[][]{incidenceTransitions.get(ownIndex), incidenceValues.get(ownIndex)} : computeIncidence(place);
+    }
+
+    /**
+     * Cheap necessary condition for {@link #isImplicit(Place)} that does not touch the LP.
+     * Every preset transition of {@code place} has to be in the preset of another place, and every transition that merely consumes from it has to be incident to another place.
+     * Like implicitness itself, this can only turn false as places are removed.
+     */
+    public boolean mayBeImplicit(Place place) {
+        Integer ownIndex = columnIndices.get(place);
+        return mayBeImplicit(place, incidenceOf(place, ownIndex), ownIndex != null ? 1 : 0);
+    }
+
+    private boolean mayBeImplicit(Place place, int[][] ownIncidence, int self) {
+        if (places.size() - self == 0) return false;
+        BitMask ownPreset = place.preset().getBitMask();
+        for (int t = ownPreset.nextSetBit(0); t >= 0; t = ownPreset.nextSetBit(t + 1)) {
+            if (presetPlaceCounts[t] - self <= 0) return false;
+        }
+        int[] ownTransitions = ownIncidence[0], ownValues = ownIncidence[1];
+        for (int i = 0; i < ownTransitions.length; i++) {
+            // 0 <= (1 + k') * inc(p, t) < 0
+            if (ownValues[i] < 0 && incidentPlaceCounts[ownTransitions[i]] - self <= 0) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Tests {@code place} for implicitness among all places of this engine except itself.
+     * The test always runs to completion, regardless of interrupts.
+     */
+    public boolean isImplicit(Place place) {
+        return isImplicit(place, () -> false);
+    }
+
+    /**
+     * Tests {@code place} for implicitness among all places of this engine except itself.
+     * If {@code cancellation} turns true, the test is abandoned and reported as not implicit. Callers have to check {@code cancellation} themselves before relying on a negative outcome.
+     * It is polled before every pivot, e.g., to stop pool workers whose own interrupt flag is never set.
+     */
+    public boolean isImplicit(Place place, BooleanSupplier cancellation) {
+        Integer ownIndex = columnIndices.get(place);
+        int exclude = ownIndex != null ? ownIndex : -1;
+        int[][] incidence = incidenceOf(place, ownIndex);
+        if (!mayBeImplicit(place, incidence, exclude >= 0 ? 1 : 0)) return false;
+        int[] ownTransitions = incidence[0], ownValues = incidence[1];
+        int others = places.size() - (exclude >= 0 ? 1 : 0);
+
+        // type 3 rows: every preset transition of the tested place needs another place in whose preset it is
+        BitMask ownPreset = place.preset().getBitMask();
+        int rows = 0;
+        Arrays.fill(rowOfPresetTransition, -1);
+        for (int t = ownPreset.nextSetBit(0); t >= 0; t = ownPreset.nextSetBit(t + 1)) {
+            rowOfPresetTransition[t] = rows++;
+        }
+        int presetRows = rows;
+
+        // type 2 rows: only transitions with non-zero coefficients or right hand sides
+        Arrays.fill(rowOfTransition, -1);
+        double[] ownIncidence = new double[transitionCount];
+        for (int i = 0; i < ownTransitions.length; i++) {
+            ownIncidence[ownTransitions[i]] = ownValues[i];
+        }
+        for (int t = 0; t < transitionCount; t++) {
+            int incidentOthers = incidentPlaceCounts[t] - (ownIncidence[t] != 0 && exclude >= 0 ? 1 : 0);
+            if (incidentOthers > 0) rowOfTransition[t] = rows++;
+        }
+
+        // columns: z_q and w_q per other place q, then k', then one slack per row
+        int structural = 2 * others + 1;
+        int kColumn = 2 * others;
+        int columns = structural + rows;
+        prepareScratch(rows, columns + 1, others);
+        double[][] a = tableau;
+        int rhs = columns;
+
+        for (int j = 0, c = 0; j < places.size(); j++) {
+            if (j == exclude) continue;
+            columnToPlace[c] = j;
+            int[] ts = incidenceTransitions.get(j), vs = incidenceValues.get(j);
+            for (int i = 0; i < ts.length; i++) {
+                int r = rowOfTransition[ts[i]];
+                a[r][2 * c] = vs[i];
+                a[r][2 * c + 1] = vs[i];
+            }
+            if (presetRows > 0) {
+                BitMask preset = places.get(j).preset().getBitMask();
+                for (int t = preset.nextSetBit(0); t >= 0; t = preset.nextSetBit(t + 1)) {
+                    int r = rowOfPresetTransition[t];
+                    if (r >= 0) a[r][2 * c] = -1;
+                }
+            }
+            c++;
+        }
+        for (int r = 0; r < presetRows; r++) {
+            a[r][rhs] = -1;
+        }
+        for (int t = 0; t < transitionCount; t++) {
+            int r = rowOfTransition[t];
+            if (r < 0) continue;
+            a[r][kColumn] = -ownIncidence[t];
+            a[r][rhs] = ownIncidence[t];
+        }
+        for (int r = 0; r < rows; r++) {
+            a[r][structural + r] = 1;
+            basis[r] = structural + r;
+        }
+
+        for (int r = 0; r < rows; r++) {
+            System.arraycopy(a[r], 0, constraints[r], 0, structural);
+            constraints[r][structural] = a[r][rhs];
+        }
+
+        tests++;
+        warmStart(rows, structural, kColumn, others);
+        int outcome = crissCross(rows, columns, cancellation);
+        if (outcome == CANCELLED) return false;
+        if (outcome == FEASIBLE && isSolution(rows, structural, columns)) {
+            rememberBasis(rows, structural, kColumn);
+            lastWitnessSupport.clear();
+            for (int r = 0; r < rows; r++) {
+                if (basis[r] < kColumn && tableau[r][columns] > EPS)
+                    lastWitnessSupport.add(places.get(columnToPlace[basis[r] / 2]));
+            }
+            return true;
+        } else if (outcome >= 0 && isInfeasibilityCertificate(outcome, rows, structural)) {
+            rememberBasis(rows, structural, kColumn);
+            return false;
+        }
+        fallbacks++;
+        warmBasisPlaces.clear();
+        warmBasisIsZ.clear();
+        warmBasisHasK = false;
+        return solveWithSimplex(rows, structural, kColumn);
+    }
+
+    /**
+     * Checks the basic solution of the current tableau against the unmodified constraints.
+     */
+    private boolean isSolution(int rows, int structural, int columns) {
+        double[] v = new double[structural];
+        double scale = 1;
+        for (int r = 0; r < rows; r++) {
+            if (basis[r] < structural) {
+                v[basis[r]] = Math.max(0, tableau[r][columns]);
+                scale = Math.max(scale, v[basis[r]]);
+            }
+        }
+        for (int r = 0; r < rows; r++) {
+            double[] row = constraints[r];
+            double lhs = 0;
+            for (int j = 0; j < structural; j++) {
+                if (v[j] != 0) lhs += row[j] * v[j];
+            }
+            if (lhs > row[structural] + VERIFICATION_EPS * scale) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Checks the Farkas certificate {@code y >= 0, yA >= 0, yb < 0} given by the slack part of {@code row} against the unmodified constraints.
+     */
+    private boolean isInfeasibilityCertificate(int row, int rows, int structural) {
+        double[] y = new double[rows];
+        double scale = 0;
+        for (int r = 0; r < rows; r++) {
+            y[r] = tableau[row][structural + r];
+            scale = Math.max(scale, Math.abs(y[r]));
+        }
+        double tolerance = VERIFICATION_EPS * scale;
+        double yb = 0;
+        for (int r = 0; r < rows; r++) {
+            if (y[r] < -tolerance) return false;
+            yb += y[r] * constraints[r][structural];
+        }
+        if (yb >= -tolerance) return false;
+        for (int j = 0; j < structural; j++) {
+            double yA = 0;
+            for (int r = 0; r < rows; r++) {
+                if (y[r] != 0) yA += y[r] * constraints[r][j];
+            }
+            if (yA < -tolerance) return false;
+        }
+        return true;
+    }
+
+    private boolean solveWithSimplex(int rows, int structural, int kColumn) {
+        Collection<LinearConstraint> linearConstraints = new ArrayList<>(rows);
+        for (int r = 0; r < rows; r++) {
+            linearConstraints.add(new LinearConstraint(Arrays.copyOf(constraints[r], structural), Relationship.LEQ, constraints[r][structural]));
+        }
+        PointValuePair solution;
+        try {
+            solution = new SimplexSolver().optimize(new LinearObjectiveFunction(new double[structural], 0), new LinearConstraintSet(linearConstraints), GoalType.MINIMIZE, new NonNegativeConstraint(true));
+        } catch (NoFeasibleSolutionException | UnboundedSolutionException | TooManyIterationsException ignored) {
+            return false;
+        }
+        double[] point = solution.getPoint();
+        lastWitnessSupport.clear();
+        for (int j = 0; j < kColumn; j++) {
+            if (point[j] > EPS) lastWitnessSupport.add(places.get(columnToPlace[j / 2]));
+        }
+        return true;
+    }
+
+    private void prepareScratch(int rows, int width, int others) {
+        int capacity = tableau.length > 0 ? tableau[0].length : 0;
+        if (tableau.length < rows || capacity < width) {
+            tableau = new double[Math.max(rows, tableau.length)][Math.max(width, capacity)];
+            constraints = new double[tableau.length][tableau[0].length];
+        } else for (int r = 0; r < rows; r++) {
+            Arrays.fill(tableau[r], 0, width, 0);
+        }
+        if (basis.length < rows) basis = new int[Math.max(rows, 2 * basis.length)];
+        if (columnToPlace.length < others) columnToPlace = new int[Math.max(others, 2 * columnToPlace.length)];
+        this.width = width;
+    }
+
+    /**
+     * Pivots the structural columns that were basic at the end of the previous test into the slack basis.
+     */
+    private void warmStart(int rows, int structural, int kColumn, int others) {
+        if (warmBasisPlaces.isEmpty() && !warmBasisHasK) return;
+        Map<Place, Integer> compacted = new HashMap<>();
+        for (int c = 0; c < others; c++) {
+            compacted.put(places.get(columnToPlace[c]), c);
+        }
+        for (int i = 0; i < warmBasisPlaces.size(); i++) {
+            Integer c = compacted.get(warmBasisPlaces.get(i));
+            if (c != null) crashIn(rows, structural, warmBasisIsZ.get(i) ? 2 * c : 2 * c + 1);
+        }
+        if (warmBasisHasK) crashIn(rows, structural, kColumn);
+    }
+
+    private void crashIn(int rows, int structural, int column) {
+        int best = -1;
+        double bestValue = EPS;
+        for (int r = 0; r < rows; r++) {
+            if (basis[r] < structural) continue;
+            double v = Math.abs(tableau[r][column]);
+            if (v > bestValue) {
+                bestValue = v;
+                best = r;
+            }
+        }
+        if (best >= 0) pivot(rows, best, column);
+    }
+
+    private void rememberBasis(int rows, int structural, int kColumn) {
+        warmBasisPlaces.clear();
+        warmBasisIsZ.clear();
+        warmBasisHasK = false;
+        for (int r = 0; r < rows; r++) {
+            int b = basis[r];
+            if (b >= structural) continue;
+            if (b == kColumn) warmBasisHasK = true;
+            else {
+                warmBasisPlaces.add(places.get(columnToPlace[b / 2]));
+                warmBasisIsZ.add(b % 2 == 0);
+            }
+        }
+    }
+
+    /**
+     * Least-index criss-cross method for the zero objective: as long as some basic variable is negative, the one with least index leaves the basis in exchange for the non-basic variable of least index with a negative entry in its row.
+     * If there is none, the row proves infeasibility.
+     *
+     * @return {@link #FEASIBLE}, {@link #PIVOT_LIMIT_REACHED}, {@link #CANCELLED} or the row proving infeasibility
+     */
+    private int crissCross(int rows, int columns, BooleanSupplier cancellation) {
+        boolean[] isBasic = new boolean[columns];
+        for (int r = 0; r < rows; r++) {
+            isBasic[basis[r]] = true;
+        }
+        for (int iteration = 0; iteration < pivotLimit; iteration++) {
+            if (cancellation.getAsBoolean()) return CANCELLED;
+            int leavingRow = -1;
+            for (int r = 0; r < rows; r++) {
+                if (tableau[r][columns] < -EPS && (leavingRow < 0 || basis[r] < basis[leavingRow])) leavingRow = r;
+            }
+            if (leavingRow < 0) return FEASIBLE;
+            double[] row = tableau[leavingRow];
+            int entering = -1;
+            for (int j = 0; j < columns; j++) {
+                if (!isBasic[j] && row[j] < -EPS) {
+                    entering = j;
+                    break;
+                }
+            }
+            if (entering < 0) return leavingRow;
+            isBasic[basis[leavingRow]] = false;
+            isBasic[entering] = true;
+            pivot(rows, leavingRow, entering);
+        }
+        return PIVOT_LIMIT_REACHED;
+    }
+
+    private void pivot(int rows, int pivotRow, int pivotColumn) {
+        pivots++;
+        double[] p = tableau[pivotRow];
+        double inv = 1 / p[pivotColumn];
+        for (int j = 0; j < width; j++) {
+            if (p[j] != 0) p[j] *= inv;
+        }
+        p[pivotColumn] = 1;
+        for (int r = 0; r < rows; r++) {
+            if (r == pivotRow) continue;
+            double[] row = tableau[r];
+            double f = row[pivotColumn];
+            if (f == 0) continue;
+            for (int j = 0; j < width; j++) {
+                if (p[j] != 0) row[j] -= f * p[j];
+            }
+            row[pivotColumn] = 0;
+        }
+        basis[pivotRow] = pivotColumn;
+    }
+
+}
@@ -59,6 +59,21 @@ public class LPBasedImplicitnessCalculator extends AbstractGlobalComponentSystem
         return isImplicitAmong(input.getT1(), input.getT2()) ? BooleanImplicitness.IMPLICIT : BooleanImplicitness.NOT_IMPLICIT;
     }
 
+    /**
+     * Whether {@link #createEngine()} yields an engine that decides implicitness exactly like {@link #isImplicitAmong(int, List, List, List)}.
+     * Subclasses that replace the underlying solver opt out.
+     */
+    public boolean supportsIncrementalSolving() {
+        return true;
+    }
+
+    /**
+     * @return a fresh incremental engine over this calculator's transition encodings, which keeps its LP across implicitness tests
+     */
+    public IncrementalLPImplicitnessEngine createEngine() {
+        return new IncrementalLPImplicitnessEngine(transitionEncodings);
+    }
+
     public boolean isImplicitAmong(Place placeToTest, Collection<Place> existingPlaces) {
         if (existingPlaces.isEmpty()) return false;
 
@@ -29,6 +29,11 @@ public class LPSolveBasedImplicitnessCalculator extends LPBasedImplicitnessCalcu
         }
     }
 
+    @Override
+    public boolean supportsIncrementalSolving() {
+        return false;
+    }
+
     @Override
     public boolean isImplicitAmong(int currentPlaceIndex, List<Place> places, List<BitMask> preIncidenceMatrix, List<int[]> incidenceMatrix) {
         assert places.size() == preIncidenceMatrix.size();
@@ -0,0 +1,237 @@
+package org.processmining.specpp.evaluation.markings;
+
+import org.processmining.specpp.datastructures.encoding.BitMask;
+import org.processmining.specpp.datastructures.encoding.IndexSubset;
+import org.processmining.specpp.datastructures.log.impls.MultiEncodedLog;
+import org.processmining.specpp.datastructures.petri.Place;
+import org.processmining.specpp.datastructures.vectorization.IntVectorStorage;
+import org.processmining.specpp.datastructures.vectorization.VariantMarkingHistories;
+
+import java.util.Arrays;
+
+/**
+ * Per transition cumulative occurrence counts over the interleaved (consumption, production) positions of all variants of a log.
+ * The marking history of a place is the sum of the production vectors of its preset minus the sum of the consumption vectors of its postset.
+ * Hence, the history of a child place can be derived from its parent's by a single vector addition.
+ * Vectors are computed lazily on first request and kept for the lifetime of this object, or all at once via {@link #materialize(int, int)}.
+ * Only looking a vector up is synchronized, adding it onto a history is not, so histories may be computed concurrently.
+ * <p>
+ * When delta compressed, only the per position increments are stored, one byte each instead of a four byte count, and their per variant prefix sums are taken while adding them onto a history.
+ *
+ * @see QuickReplay#makeHistoryOn(BitMask, MultiEncodedLog, Place)
+ */
+public class CumulativeTransitionVectors {
+
+    private final MultiEncodedLog log;
+    private final boolean deltaCompressed;
+    private final int[] startIndices;
+    private int[][] produced;
+    private int[][] consumed;
+    private byte[][] producedDeltas;
+    private byte[][] consumedDeltas;
+
+    public CumulativeTransitionVectors(MultiEncodedLog log) {
+        this(log, false);
+    }
+
+    public CumulativeTransitionVectors(MultiEncodedLog log, boolean deltaCompressed) {
+        this.log = log;
+        this.deltaCompressed = deltaCompressed;
+        this.startIndices = interleavedStartIndices(log);
+        this.produced = new int[0][];
+        this.consumed = new int[0][];
+        this.producedDeltas = new byte[0][];
+        this.consumedDeltas = new byte[0][];
+    }
+
+    private static int[] interleavedStartIndices(MultiEncodedLog log) {
+        IntVectorStorage pre = log.pre().getEncodedVariantVectors(), post = log.post().getEncodedVariantVectors();
+        int variantCount = log.variantIndices().length();
+        int[] startIndices = new int[variantCount + 1];
+        for (int i = 0; i < variantCount; i++) {
+            int length = Math.min(pre.getVectorLength(i), post.getVectorLength(i));
+            startIndices[i + 1] = startIndices[i] + 2 * length;
+        }
+        return startIndices;
+    }
+
+    /**
+     * @return the number of bytes required to materialize the vectors of {@code transitionCount} (preset plus postset) transitions
+     */
+    public static long estimateMaterializedSize(MultiEncodedLog log, int transitionCount, boolean deltaCompressed) {
+        int[] startIndices = interleavedStartIndices(log);
+        long positions = startIndices[startIndices.length - 1];
+        return positions * transitionCount * (deltaCompressed ? Byte.BYTES : Integer.BYTES);
+    }
+
+    /**
+     * Computes the vectors of all transitions up front.
+     */
+    public void materialize(int presetTransitionCount, int postsetTransitionCount) {
+        for (int t = 0; t < presetTransitionCount; t++) {
+            if (deltaCompressed) getProductionDeltas(t);
+            else getProductionVector(t);
+        }
+        for (int t = 0; t < postsetTransitionCount; t++) {
+            if (deltaCompressed) getConsumptionDeltas(t);
+            else getConsumptionVector(t);
+        }
+    }
+
+    public MultiEncodedLog getLog() {
+        return log;
+    }
+
+    public boolean isDeltaCompressed() {
+        return deltaCompressed;
+    }
+
+    /**
+     * @return the offset of the given variant's positions in every vector
+     */
+    public int getVariantStart(int variantIndex) {
+        return startIndices[variantIndex];
+    }
+
+    public int getTotalSize() {
+        return startIndices[startIndices.length - 1];
+    }
+
+    /**
+     * Adds {@code sign} times the number of tokens produced by the transition up to and including each position onto {@code storage}.
+     * The storage holds the positions of the given variants back to back, as in the histories returned by {@link #makeHistoryOn(BitMask, Place)}.
+     *
+     * @param transitionIndex index of the transition in the preset encoding
+     */
+    public void addProductionOn(BitMask variants, int[] storage, int transitionIndex, int sign) {
+        if (deltaCompressed) addOn(variants, storage, getProductionDeltas(transitionIndex), sign);
+        else addOn(variants, storage, getProductionVector(transitionIndex), sign);
+    }
+
+    /**
+     * Adds {@code sign} times the number of tokens consumed by the transition up to and including each position onto {@code storage}.
+     *
+     * @param transitionIndex index of the transition in the postset encoding
+     * @see #addProductionOn(BitMask, int[], int, int)
+     */
+    public void addConsumptionOn(BitMask variants, int[] storage, int transitionIndex, int sign) {
+        if (deltaCompressed) addOn(variants, storage, getConsumptionDeltas(transitionIndex), sign);
+        else addOn(variants, storage, getConsumptionVector(transitionIndex), sign);
+    }
+
+    private synchronized int[] getProductionVector(int transitionIndex) {
+        if (transitionIndex >= produced.length) produced = Arrays.copyOf(produced, transitionIndex + 1);
+        int[] vector = produced[transitionIndex];
+        if (vector == null) {
+            vector = prefixSums(deltas(log.pre().getEncodedVariantVectors(), transitionIndex, true));
+            produced[transitionIndex] = vector;
+        }
+        return vector;
+    }
+
+    private synchronized int[] getConsumptionVector(int transitionIndex) {
+        if (transitionIndex >= consumed.length) consumed = Arrays.copyOf(consumed, transitionIndex + 1);
+        int[] vector = consumed[transitionIndex];
+        if (vector == null) {
+            vector = prefixSums(deltas(log.post().getEncodedVariantVectors(), transitionIndex, false));
+            consumed[transitionIndex] = vector;
+        }
+        return vector;
+    }
+
+    private synchronized byte[] getProductionDeltas(int transitionIndex) {
+        if (transitionIndex >= producedDeltas.length)
+            producedDeltas = Arrays.copyOf(producedDeltas, transitionIndex + 1);
+        byte[] deltas = producedDeltas[transitionIndex];
+        if (deltas == null) {
+            deltas = deltas(log.pre().getEncodedVariantVectors(), transitionIndex, true);
+            producedDeltas[transitionIndex] = deltas;
+        }
+        return deltas;
+    }
+
+    private synchronized byte[] getConsumptionDeltas(int transitionIndex) {
+        if (transitionIndex >= consumedDeltas.length)
+            consumedDeltas = Arrays.copyOf(consumedDeltas, transitionIndex + 1);
+        byte[] deltas = consumedDeltas[transitionIndex];
+        if (deltas == null) {
+            deltas = deltas(log.post().getEncodedVariantVectors(), transitionIndex, false);
+            consumedDeltas[transitionIndex] = deltas;
+        }
+        return deltas;
+    }
+
+    /**
+     * Consumption is applied at the first, production at the second position of each event.
+     */
+    private byte[] deltas(IntVectorStorage encodedVariants, int transitionIndex, boolean isProduction) {
+        int[] data = encodedVariants.__internal();
+        byte[] deltas = new byte[getTotalSize()];
+        int offset = isProduction ? 1 : 0;
+        for (int i = 0; i < startIndices.length - 1; i++) {
+            int p = encodedVariants.getVectorStart(i);
+            for (int j = startIndices[i], endIndex = startIndices[i + 1]; j < endIndex; j += 2) {
+                if (data[p++] == transitionIndex) deltas[j + offset] = 1;
+            }
+        }
+        return deltas;
+    }
+
+    private int[] prefixSums(byte[] deltas) {
+        int[] vector = new int[deltas.length];
+        for (int i = 0; i < startIndices.length - 1; i++) {
+            int acc = 0;
+            for (int j = startIndices[i], endIndex = startIndices[i + 1]; j < endIndex; j++) {
+                acc += deltas[j];
+                vector[j] = acc;
+            }
+        }
+        return vector;
+    }
+
+    /**
+     * Sums up the marking histories of {@code place} on the given variants.
+     * The result is equal to {@code QuickReplay.makeHistoryOn(variants, getLog(), place)}.
+     */
+    public VariantMarkingHistories makeHistoryOn(BitMask variants, Place place) {
+        int[] subsetStartIndices = new int[variants.cardinality() + 1];
+        int k = 0;
+        for (int i = variants.nextSetBit(0); i >= 0; i = variants.nextSetBit(i + 1)) {
+            subsetStartIndices[k + 1] = subsetStartIndices[k] + startIndices[i + 1] - startIndices[i];
+            k++;
+        }
+        int[] storage = new int[subsetStartIndices[k]];
+        BitMask preset = place.preset().getBitMask(), postset = place.postset().getBitMask();
+        for (int t = preset.nextSetBit(0); t >= 0; t = preset.nextSetBit(t + 1)) {
+            addProductionOn(variants, storage, t, 1);
+        }
+        for (int t = postset.nextSetBit(0); t >= 0; t = postset.nextSetBit(t + 1)) {
+            addConsumptionOn(variants, storage, t, -1);
+        }
+        return new VariantMarkingHistories(IndexSubset.of(variants), new IntVectorStorage(storage, subsetStartIndices));
+    }
+
+    private void addOn(BitMask variants, int[] storage, int[] vector, int sign) {
+        int l = 0;
+        for (int i = variants.nextSetBit(0); i >= 0; i = variants.nextSetBit(i + 1)) {
+            for (int j = startIndices[i], endIndex = startIndices[i + 1]; j < endIndex; j++) {
+                storage[l++] += sign * vector[j];
+            }
+        }
+    }
+
+    /**
+     * Takes the per variant prefix sums of the deltas on the fly instead of expanding them into a vector first.
+     */
+    private void addOn(BitMask variants, int[] storage, byte[] deltas, int sign) {
+        int l = 0;
+        for (int i = variants.nextSetBit(0); i >= 0; i = variants.nextSetBit(i + 1)) {
+            int acc = 0;
+            for (int j = startIndices[i], endIndex = startIndices[i + 1]; j < endIndex; j++) {
+                acc += deltas[j];
+                storage[l++] += sign * acc;
+            }
+        }
+    }
+
+}
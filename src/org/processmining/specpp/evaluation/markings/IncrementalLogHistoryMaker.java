@@ -0,0 +1,155 @@
+package org.processmining.specpp.evaluation.markings;
+
+import org.processmining.specpp.componenting.data.ParameterRequirements;
+import org.processmining.specpp.componenting.delegators.DelegatingDataSource;
+import org.processmining.specpp.componenting.system.ComponentSystemAwareBuilder;
+import org.processmining.specpp.config.parameters.ReplayComputationParameters;
+import org.processmining.specpp.datastructures.encoding.BitEncodedSet;
+import org.processmining.specpp.datastructures.encoding.BitMask;
+import org.processmining.specpp.datastructures.encoding.IndexSubset;
+import org.processmining.specpp.datastructures.log.impls.MultiEncodedLog;
+import org.processmining.specpp.datastructures.petri.Place;
+import org.processmining.specpp.datastructures.petri.Transition;
+import org.processmining.specpp.datastructures.util.BasicCache;
+import org.processmining.specpp.datastructures.vectorization.IntVectorStorage;
+import org.processmining.specpp.datastructures.vectorization.VariantMarkingHistories;
+
+/**
+ * A {@code LogHistoryMaker} that exploits the structure of the candidate tree: a child place differs from its parent by exactly one (maximal) transition in either the preset or the postset.
+ * Recently computed histories are kept in a bounded cache, and if the parent of a requested place is found there, the child's history is derived by adding the cumulative occurrence vector of the added transition.
+ * Otherwise, the history is replayed from scratch.
+ * The vectors are subject to the history memory budget like in {@link LogHistoryMaker#decideMaterialization(MultiEncodedLog, Place)}. If they do not fit, all histories are replayed.
+ *
+ * @see CumulativeTransitionVectors
+ */
+public class IncrementalLogHistoryMaker extends LogHistoryMaker {
+
+    public static final int DEFAULT_CACHE_CAPACITY = 1024;
+
+    public static class Builder extends ComponentSystemAwareBuilder<IncrementalLogHistoryMaker> {
+
+        private final DelegatingDataSource<ReplayComputationParameters> replayComputationParametersSource = new DelegatingDataSource<>();
+
+        public Builder() {
+            globalComponentSystem().require(ParameterRequirements.REPLAY_COMPUTATION, replayComputationParametersSource);
+        }
+
+        @Override
+        protected IncrementalLogHistoryMaker buildIfFullySatisfied() {
+            return new IncrementalLogHistoryMaker(replayComputationParametersSource.getData());
+        }
+
+    }
+
+    private final int cacheCapacity;
+    private volatile CacheState state;
+
+    /**
+     * Cached histories along with the log and variants they were computed on. Replaced as a whole whenever either changes.
+     * The cache itself is only accessed while holding its monitor, histories are computed outside of it.
+     */
+    private static class CacheState {
+        private final MultiEncodedLog log;
+        private final BitMask variants;
+        private final CumulativeTransitionVectors transitionVectors;
+        private final BasicCache<Place, VariantMarkingHistories> cache;
+
+        private CacheState(MultiEncodedLog log, BitMask variants, CumulativeTransitionVectors transitionVectors, int cacheCapacity) {
+            this.log = log;
+            this.variants = variants;
+            this.transitionVectors = transitionVectors;
+            this.cache = new BasicCache<>(cacheCapacity);
+        }
+
+        private boolean isFor(MultiEncodedLog log, BitMask variants) {
+            return this.log == log && this.variants.equals(variants);
+        }
+
+        private VariantMarkingHistories lookup(Place place) {
+            synchronized (cache) {
+                return cache.getOrElse(place, p -> null);
+            }
+        }
+
+        private void offer(Place place, VariantMarkingHistories histories) {
+            synchronized (cache) {
+                if (!cache.contains(place)) cache.put(place, histories);
+            }
+        }
+    }
+
+    public IncrementalLogHistoryMaker() {
+        this(ReplayComputationParameters.getDefault());
+    }
+
+    public IncrementalLogHistoryMaker(ReplayComputationParameters replayComputationParameters) {
+        this(replayComputationParameters, DEFAULT_CACHE_CAPACITY);
+    }
+
+    public IncrementalLogHistoryMaker(ReplayComputationParameters replayComputationParameters, int cacheCapacity) {
+        super(replayComputationParameters);
+        this.cacheCapacity = cacheCapacity;
+    }
+
+    @Override
+    public VariantMarkingHistories computeVariantMarkingHistories(Place input) {
+        updateConsideredVariants();
+        MultiEncodedLog log = encodedLogSource.getData();
+        BitMask variants = consideredVariantsSource.isSet() ? getConsideredVariants() : log.variantIndices();
+        CacheState s = getCacheState(log, variants, input);
+        VariantMarkingHistories histories = s.lookup(input);
+        if (histories == null) {
+            histories = makeHistory(input, s);
+            s.offer(input, histories);
+        }
+        return histories;
+    }
+
+    private CacheState getCacheState(MultiEncodedLog log, BitMask variants, Place samplePlace) {
+        CacheState s = state;
+        if (s == null || !s.isFor(log, variants)) {
+            synchronized (this) {
+                s = state;
+                if (s == null || !s.isFor(log, variants)) {
+                    s = new CacheState(log, variants.copy(), getTransitionVectors(log, samplePlace), cacheCapacity);
+                    state = s;
+                }
+            }
+        }
+        return s;
+    }
+
+    private VariantMarkingHistories makeHistory(Place place, CacheState s) {
+        if (s.transitionVectors == null) return QuickReplay.makeHistoryOn(s.variants, s.log, place);
+        BitEncodedSet<Transition> preset = place.preset(), postset = place.postset();
+        if (!postset.isEmpty()) {
+            int t = postset.maximalIndex();
+            BitEncodedSet<Transition> parentPostset = postset.copy();
+            parentPostset.removeIndex(t);
+            VariantMarkingHistories parent = s.lookup(new Place(preset, parentPostset));
+            if (parent != null) return derive(s.transitionVectors, parent, t, false);
+        }
+        if (!preset.isEmpty()) {
+            int t = preset.maximalIndex();
+            BitEncodedSet<Transition> parentPreset = preset.copy();
+            parentPreset.removeIndex(t);
+            VariantMarkingHistories parent = s.lookup(new Place(parentPreset, postset));
+            if (parent != null) return derive(s.transitionVectors, parent, t, true);
+        }
+        return QuickReplay.makeHistoryOn(s.variants, s.log, place);
+    }
+
+    private static VariantMarkingHistories derive(CumulativeTransitionVectors transitionVectors, VariantMarkingHistories parent, int transitionIndex, boolean addedToPreset) {
+        IndexSubset indexSubset = parent.getIndexSubset();
+        IntVectorStorage data = parent.getData().copy();
+        BitMask indices = indexSubset.getIndices();
+        if (addedToPreset) transitionVectors.addProductionOn(indices, data.__internal(), transitionIndex, 1);
+        else transitionVectors.addConsumptionOn(indices, data.__internal(), transitionIndex, -1);
+        return new VariantMarkingHistories(indexSubset, data);
+    }
+
+    @Override
+    public String toString() {
+        return "IncrementalLogHistoryMaker(" + replayComputationParameters + ")";
+    }
+}
@@ -14,6 +14,8 @@ import org.processmining.specpp.datastructures.log.impls.MultiEncodedLog;
 import org.processmining.specpp.datastructures.petri.Place;
 import org.processmining.specpp.datastructures.vectorization.VariantMarkingHistories;
 
+import java.util.List;
+
 public class LogHistoryMaker extends AbstractGlobalComponentSystemUser implements ProvidesEvaluators, IsGlobalProvider {
 
 
@@ -27,17 +29,37 @@ public class LogHistoryMaker extends AbstractGlobalComponentSystemUser implement
 
         @Override
         protected LogHistoryMaker buildIfFullySatisfied() {
-            return new LogHistoryMaker();
+            return new LogHistoryMaker(replayComputationParametersSource.getData());
         }
 
     }
 
-    private final DelegatingDataSource<MultiEncodedLog> encodedLogSource = new DelegatingDataSource<>();
-    private final DelegatingDataSource<BitMask> consideredVariantsSource = new DelegatingDataSource<>();
+    protected final DelegatingDataSource<MultiEncodedLog> encodedLogSource = new DelegatingDataSource<>();
+    protected final DelegatingDataSource<BitMask> consideredVariantsSource = new DelegatingDataSource<>();
+
+    protected final ReplayComputationParameters replayComputationParameters;
+    private volatile BitMask consideredVariants;
+    private volatile Materialization materialization;
 
-    private BitMask consideredVariants;
+    /**
+     * The outcome of {@link #decideMaterialization(MultiEncodedLog, Place)} for one log. Replaced as a whole, such that readers never see a partially made decision.
+     */
+    private static class Materialization {
+        private final MultiEncodedLog log;
+        private final CumulativeTransitionVectors transitionVectors;
+
+        private Materialization(MultiEncodedLog log, CumulativeTransitionVectors transitionVectors) {
+            this.log = log;
+            this.transitionVectors = transitionVectors;
+        }
+    }
 
     public LogHistoryMaker() {
+        this(ReplayComputationParameters.getDefault());
+    }
+
+    public LogHistoryMaker(ReplayComputationParameters replayComputationParameters) {
+        this.replayComputationParameters = replayComputationParameters;
         globalComponentSystem().require(DataRequirements.ENC_LOG, encodedLogSource)
                                .require(DataRequirements.CONSIDERED_VARIANTS, consideredVariantsSource)
                                .provide(EvaluationRequirements.PLACE_MARKING_HISTORY.fulfilWith(this::computeVariantMarkingHistories));
@@ -47,9 +69,65 @@ public class LogHistoryMaker extends AbstractGlobalComponentSystemUser implement
         setConsideredVariants(consideredVariantsSource.getData());
     }
 
+    /**
+     * May be called concurrently, e.g. by fitness evaluations on speculation worker threads.
+     * Only the lazy materialization decision is taken under a lock; the replay itself is not.
+     */
     public VariantMarkingHistories computeVariantMarkingHistories(Place input) {
         updateConsideredVariants();
-        return consideredVariantsSource.isSet() ? QuickReplay.makeHistoryOn(consideredVariants, encodedLogSource.getData(), input) : QuickReplay.makeHistory(encodedLogSource.getData(), input);
+        MultiEncodedLog log = encodedLogSource.getData();
+        BitMask variants = consideredVariantsSource.isSet() ? getConsideredVariants() : log.variantIndices();
+        CumulativeTransitionVectors transitionVectors = getTransitionVectors(log, input);
+        if (transitionVectors != null) return transitionVectors.makeHistoryOn(variants, input);
+        return consideredVariantsSource.isSet() ? QuickReplay.makeHistoryOn(variants, log, input) : QuickReplay.makeHistory(log, input);
+    }
+
+    /**
+     * @return the materialized vectors of {@code log}, or null if histories are to be replayed on the fly
+     */
+    protected CumulativeTransitionVectors getTransitionVectors(MultiEncodedLog log, Place samplePlace) {
+        Materialization m = materialization;
+        if (m == null || m.log != log) {
+            synchronized (this) {
+                m = materialization;
+                if (m == null || m.log != log) {
+                    m = new Materialization(log, decideMaterialization(log, samplePlace));
+                    materialization = m;
+                }
+            }
+        }
+        return m.transitionVectors;
+    }
+
+    /**
+     * Decides whether the per transition cumulative occurrence vectors fit into the configured memory budget, preferring plain over delta compressed vectors.
+     * If neither fits, histories are replayed on the fly.
+     *
+     * @return the materialized vectors, or null if they do not fit
+     */
+    protected CumulativeTransitionVectors decideMaterialization(MultiEncodedLog log, Place samplePlace) {
+        if (!replayComputationParameters.mayMaterializeHistories()) return null;
+        int presetTransitionCount = samplePlace.preset().maxSize(), postsetTransitionCount = samplePlace.postset().maxSize();
+        long budget = replayComputationParameters.getHistoryMemoryBudget();
+        for (boolean deltaCompressed : new boolean[]{false, true}) {
+            if (CumulativeTransitionVectors.estimateMaterializedSize(log, presetTransitionCount + postsetTransitionCount, deltaCompressed) <= budget) {
+                CumulativeTransitionVectors transitionVectors = new CumulativeTransitionVectors(log, deltaCompressed);
+                transitionVectors.materialize(presetTransitionCount, postsetTransitionCount);
+                return transitionVectors;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Computes the marking histories of all places while sharing passes over the log between them.
+     *
+     * @param consideredVariants the variants to compute histories on, all variants of the log if {@code null}
+     * @return the histories in the order of {@code places}
+     */
+    public List<VariantMarkingHistories> evaluateBatch(List<Place> places, BitMask consideredVariants) {
+        MultiEncodedLog log = encodedLogSource.getData();
+        return QuickReplay.makeHistoriesOn(consideredVariants != null ? consideredVariants : log.variantIndices(), log, places);
     }
 
     public BitMask getConsideredVariants() {
@@ -62,6 +140,6 @@ public class LogHistoryMaker extends AbstractGlobalComponentSystemUser implement
 
     @Override
     public String toString() {
-        return "LogHistoryMaker()";
+        return "LogHistoryMaker(" + replayComputationParameters + ")";
     }
 }
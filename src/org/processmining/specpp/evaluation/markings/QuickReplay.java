@@ -8,16 +8,35 @@ import org.processmining.specpp.datastructures.petri.Place;
 import org.processmining.specpp.datastructures.vectorization.IVSComputations;
 import org.processmining.specpp.datastructures.vectorization.IntVectorStorage;
 import org.processmining.specpp.datastructures.vectorization.VariantMarkingHistories;
+import org.processmining.specpp.evaluation.fitness.BatchReplayKernel;
 import org.processmining.specpp.evaluation.fitness.ReplayUtils;
 
+import java.util.ArrayList;
+import java.util.List;
+
 public class QuickReplay {
 
 
     public static VariantMarkingHistories makeHistoryOn(BitMask interestingVariants, MultiEncodedLog multiEncodedLog, Place place) {
         assert multiEncodedLog.variantIndices().isSupersetOf(interestingVariants);
         EncodedLog pre = multiEncodedLog.pre(), post = multiEncodedLog.post();
-        IntVectorStorage interleft = IVSComputations.interleaveOn(interestingVariants, post.getEncodedVariantVectors(), ReplayUtils.postsetIndicator(place), pre.getEncodedVariantVectors(), ReplayUtils.presetIndicator(place));
-        return new VariantMarkingHistories(IndexSubset.of(interestingVariants), IVSComputations.vectorwiseCumulation(interleft));
+        IntVectorStorage histories = IVSComputations.cumulativelyInterleaveOn(interestingVariants, post.getEncodedVariantVectors(), ReplayUtils.postsetIndicator(place), pre.getEncodedVariantVectors(), ReplayUtils.presetIndicator(place));
+        return new VariantMarkingHistories(IndexSubset.of(interestingVariants), histories);
+    }
+
+    /**
+     * Computes the marking histories of all places in passes over the log that are shared by up to {@code BatchReplayKernel.PREFERRED_LANE_COUNT} places each.
+     *
+     * @return the histories in the order of {@code places}
+     */
+    public static List<VariantMarkingHistories> makeHistoriesOn(BitMask interestingVariants, MultiEncodedLog multiEncodedLog, List<Place> places) {
+        assert multiEncodedLog.variantIndices().isSupersetOf(interestingVariants);
+        List<VariantMarkingHistories> result = new ArrayList<>(places.size());
+        for (int from = 0; from < places.size(); from += BatchReplayKernel.PREFERRED_LANE_COUNT) {
+            List<Place> lanes = places.subList(from, Math.min(places.size(), from + BatchReplayKernel.PREFERRED_LANE_COUNT));
+            result.addAll(new BatchReplayKernel(lanes).makeHistoriesOn(interestingVariants, multiEncodedLog));
+        }
+        return result;
     }
 
     public static VariantMarkingHistories makeHistory(MultiEncodedLog data, Place input) {
@@ -0,0 +1,128 @@
+package org.processmining.specpp.evaluation.precision;
+
+import org.processmining.specpp.datastructures.log.Activity;
+import org.processmining.specpp.datastructures.log.Log;
+import org.processmining.specpp.datastructures.transitionSystems.PrefixAutomaton;
+import org.processmining.specpp.datastructures.vectorization.VariantMarkingHistories;
+
+import java.nio.IntBuffer;
+import java.util.List;
+
+/**
+ * Bitmap based computation of escaping edges and allowed activity occurrences for the ETC-precision of an intermediate model.
+ * Every event of the log gets a global position, variant by variant, as assigned by the prefix automaton. The state after an event is represented by one bit per position:
+ * <ul>
+ *     <li>per place, whether it holds a token after the event ({@link #tokenPresence(VariantMarkingHistories)})</li>
+ *     <li>per activity, whether the prefix automaton does not reflect the activity after the event, computed once up front</li>
+ * </ul>
+ * An activity is allowed after an event if all its prerequisite places hold a token, and escaping if it is additionally not reflected.
+ * Both counts are thereby reduced to frequency weighted popcounts of word-wise conjunctions.
+ */
+public class ETCPrecisionKernel {
+
+    private final PrefixAutomaton prefixAutomaton;
+    private final int[] variantStarts;
+    private final int[] frequencies;
+    private final int wordCount;
+    private final long[][] notReflected;
+    private final long[] neverReflected;
+
+    public ETCPrecisionKernel(Log log, PrefixAutomaton prefixAutomaton) {
+        this.prefixAutomaton = prefixAutomaton;
+        int variantCount = log.variantCount();
+        this.variantStarts = new int[variantCount + 1];
+        this.frequencies = new int[variantCount];
+        for (int i = 0; i < variantCount; i++) {
+            variantStarts[i + 1] = prefixAutomaton.getVariantEnd(i);
+            frequencies[i] = log.getVariantFrequency(i);
+        }
+        int positions = prefixAutomaton.positionCount();
+        this.wordCount = (positions + Long.SIZE - 1) / Long.SIZE;
+
+        this.notReflected = new long[prefixAutomaton.activityCount()][wordCount];
+        for (int g = 0; g < positions; g++) {
+            for (int a : prefixAutomaton.outgoingActivities(prefixAutomaton.stateAfter(g))) {
+                notReflected[a][g >>> 6] |= 1L << g;
+            }
+        }
+        this.neverReflected = new long[wordCount];
+        for (int w = 0; w < wordCount; w++) {
+            neverReflected[w] = rangeMask(w, 0, positions);
+            for (long[] bits : notReflected) {
+                bits[w] = ~bits[w] & neverReflected[w];
+            }
+        }
+    }
+
+    public PrefixAutomaton getPrefixAutomaton() {
+        return prefixAutomaton;
+    }
+
+    private static long rangeMask(int word, int fromIndex, int toIndex) {
+        int wordStart = word << 6;
+        long mask = -1L;
+        if (fromIndex > wordStart) mask &= -1L << (fromIndex - wordStart);
+        if (toIndex < wordStart + Long.SIZE) mask &= -1L >>> (wordStart + Long.SIZE - toIndex);
+        return mask;
+    }
+
+    /**
+     * @param markingHistories marking histories of a place covering all variants of the log
+     * @return bitmap over all global event positions, set where the place's marking after the event is non-zero
+     */
+    public long[] tokenPresence(VariantMarkingHistories markingHistories) {
+        long[] bits = new long[wordCount];
+        for (int i = 0; i < frequencies.length; i++) {
+            IntBuffer buffer = markingHistories.getAt(i);
+            int p = buffer.position();
+            for (int g = variantStarts[i], k = 0, end = variantStarts[i + 1]; g < end; g++, k++) {
+                if (buffer.get(p + 2 * k + 1) != 0) bits[g >>> 6] |= 1L << g;
+            }
+        }
+        return bits;
+    }
+
+    /**
+     * Counts how often {@code activity} is allowed by all of its prerequisite places after an event of the log, and how often it is escaping among those.
+     *
+     * @param prerequisites token presence bitmaps of the places in the activity's preset
+     * @return Integer-array of size two. [0]-#EscapingEdges, [1]-#Allowed
+     * @see #tokenPresence(VariantMarkingHistories)
+     */
+    public int[] evaluate(Activity activity, List<long[]> prerequisites) {
+        int[] result = new int[2];
+        evaluate(prefixAutomaton.activityIndex(activity), prerequisites.toArray(new long[0][]), prerequisites.size(), result);
+        return result;
+    }
+
+    /**
+     * Allocation free variant of {@link #evaluate(Activity, List)} for callers that keep the prerequisites in arrays.
+     *
+     * @param activityIndex index of the activity in the prefix automaton, or {@code -1} if it does not occur in the log
+     * @param prerequisites token presence bitmaps of the places in the activity's preset, only the first {@code count} are used
+     * @param count number of prerequisites
+     * @param result receives [0]-#EscapingEdges, [1]-#Allowed
+     */
+    public void evaluate(int activityIndex, long[][] prerequisites, int count, int[] result) {
+        long[] escaping = activityIndex >= 0 ? notReflected[activityIndex] : neverReflected;
+        int escapingEdges = 0, allowed = 0;
+        for (int i = 0; i < frequencies.length; i++) {
+            int from = variantStarts[i], to = variantStarts[i + 1];
+            if (from == to) continue;
+            int allowedCount = 0, escapingCount = 0;
+            for (int w = from >>> 6, last = (to - 1) >>> 6; w <= last; w++) {
+                long bits = rangeMask(w, from, to);
+                for (int j = 0; j < count && bits != 0; j++) {
+                    bits &= prerequisites[j][w];
+                }
+                allowedCount += Long.bitCount(bits);
+                escapingCount += Long.bitCount(bits & escaping[w]);
+            }
+            allowed += frequencies[i] * allowedCount;
+            escapingEdges += frequencies[i] * escapingCount;
+        }
+        result[0] = escapingEdges;
+        result[1] = allowed;
+    }
+
+}
@@ -9,6 +9,7 @@ import org.processmining.specpp.datastructures.petri.Place;
 import org.processmining.specpp.datastructures.petri.ProMPetrinetWrapper;
 import org.processmining.specpp.orchestra.ExecutionEnvironment;
 import org.processmining.specpp.preprocessing.InputDataBundle;
+import org.processmining.specpp.preprocessing.InputDataBundleCache;
 import org.processmining.specpp.util.FileUtils;
 
 public class ProMLessSPECpp {
@@ -22,7 +23,7 @@ public class ProMLessSPECpp {
 
     public static ExecutionEnvironment.SPECppExecution<Place, BasePlaceComposition, CollectionOfPlaces, ProMPetrinetWrapper> run(String logPath, String resultPath) {
         SPECppConfigBundle cfg = CodeDefinedConfigurationSample.createConfiguration();
-        InputDataBundle data = InputDataBundle.loadAndProcess(logPath, cfg.getInputProcessingConfig());
+        InputDataBundle data = InputDataBundleCache.loadAndProcess(logPath, cfg.getInputProcessingConfig());
         SPECpp<Place, BasePlaceComposition, CollectionOfPlaces, ProMPetrinetWrapper> specpp = SPECpp.build(cfg, data);
 
         ExecutionEnvironment.SPECppExecution<Place, BasePlaceComposition, CollectionOfPlaces, ProMPetrinetWrapper> execution;
@@ -3,7 +3,7 @@ package org.processmining.specpp.headless.batch;
 import org.processmining.specpp.componenting.traits.ProvidesParameters;
 import org.processmining.specpp.datastructures.util.Pair;
 import org.processmining.specpp.datastructures.util.Tuple2;
-import org.processmining.specpp.supervision.DirectCSVWriter;
+import org.processmining.specpp.supervision.GroupCommitCSVWriter;
 
 import java.util.EnumSet;
 import java.util.List;
@@ -18,8 +18,8 @@ class BatchContext {
     int num_threads;
     String attempt_identifier, outputFolder, logPath;
     EvalContext evalContext;
-    DirectCSVWriter<SPECppModelInfo> modelWriter;
-    DirectCSVWriter<SPECppPerformanceInfo> perfWriter;
+    GroupCommitCSVWriter<SPECppModelInfo> modelWriter;
+    GroupCommitCSVWriter<SPECppPerformanceInfo> perfWriter;
 
     public String inOutputFolder(String filename) {
         return outputFolder + filename;
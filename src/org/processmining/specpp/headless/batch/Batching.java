@@ -35,8 +35,9 @@ import org.processmining.specpp.headless.CodeDefinedEvaluationConfig;
 import org.processmining.specpp.orchestra.ExecutionEnvironment;
 import org.processmining.specpp.orchestra.SPECppOutputtingUtils;
 import org.processmining.specpp.preprocessing.InputDataBundle;
+import org.processmining.specpp.preprocessing.InputDataBundleCache;
 import org.processmining.specpp.preprocessing.XLogParser;
-import org.processmining.specpp.supervision.DirectCSVWriter;
+import org.processmining.specpp.supervision.GroupCommitCSVWriter;
 import org.processmining.specpp.util.EvalUtils;
 import org.processmining.specpp.util.FileUtils;
 import org.processmining.specpp.util.PathTools;
@@ -186,18 +187,18 @@ public class Batching {
     private static void run(SPECppConfigBundle configBundle, ExecutionParameters executionParameters, BatchContext bc) {
         InputProcessingConfig inputProcessingConfig = configBundle.getInputProcessingConfig();
         System.out.printf("Loading and preprocessing input log from \"%s\".%n", bc.logPath);
-        XLog inputLog = XLogParser.readLog(bc.logPath);
-        InputDataBundle inputData = InputDataBundle.process(inputLog, inputProcessingConfig);
-
+        // the input data is prepared the same way with or without evaluation, such that the discovered models do not depend on it
+        InputDataBundle inputData = InputDataBundleCache.loadAndProcess(bc.logPath, inputProcessingConfig);
         if (bc.options.contains(BatchOptions.Evaluate)) {
+            // evaluation operates on the full XLog, which is only read for this purpose
+            XLog inputLog = XLogParser.readLog(bc.logPath);
             PreProcessingParameters preProcessingParameters = inputProcessingConfig.getPreProcessingParameters();
             XLog evalLog = EvalUtils.createEvalLog(inputLog, preProcessingParameters);
             Set<XEventClass> eventClasses = EvalUtils.createEventClasses(preProcessingParameters.getEventClassifier(), evalLog);
             bc.evalContext.evaluationLogData = new EvalUtils.EvaluationLogData(evalLog, preProcessingParameters.getEventClassifier(), eventClasses);
+            inputLog = null;
+            System.gc();
         }
-
-        inputLog = null;
-        System.gc();
         System.out.println("Finished preparing input data.");
 
         List<ProvidesParameters> parameterVariations = bc.parameterVariations;
@@ -288,10 +289,10 @@ public class Batching {
 
         if (bc.options.contains(BatchOptions.DryRun)) return;
 
-        bc.perfWriter = new DirectCSVWriter<>(bc.inOutputFolder("perf.csv"), SPECppPerformanceInfo.COLUMN_NAMES, SPECppPerformanceInfo::toRow);
-        bc.modelWriter = new DirectCSVWriter<>(bc.inOutputFolder("models.csv"), SPECppModelInfo.COLUMN_NAMES, SPECppModelInfo::toRow);
+        bc.perfWriter = new GroupCommitCSVWriter<>(bc.inOutputFolder("perf.csv"), SPECppPerformanceInfo.COLUMN_NAMES, SPECppPerformanceInfo::toRow);
+        bc.modelWriter = new GroupCommitCSVWriter<>(bc.inOutputFolder("models.csv"), SPECppModelInfo.COLUMN_NAMES, SPECppModelInfo::toRow);
         if (bc.options.contains(BatchOptions.Evaluate))
-            bc.evalContext.evalWriter = new DirectCSVWriter<>(bc.inOutputFolder("eval.csv"), SPECppEvaluationInfo.COLUMN_NAMES, SPECppEvaluationInfo::toRow);
+            bc.evalContext.evalWriter = new GroupCommitCSVWriter<>(bc.inOutputFolder("eval.csv"), SPECppEvaluationInfo.COLUMN_NAMES, SPECppEvaluationInfo::toRow);
 
         List<Tuple2<String, ExecutionEnvironment.SPECppExecution<Place, BasePlaceComposition, CollectionOfPlaces, ProMPetrinetWrapper>>> submittedExecutions = new ArrayList<>(configurations.size());
 
@@ -1,6 +1,6 @@
 package org.processmining.specpp.headless.batch;
 
-import org.processmining.specpp.supervision.DirectCSVWriter;
+import org.processmining.specpp.supervision.GroupCommitCSVWriter;
 import org.processmining.specpp.util.EvalUtils;
 
 import java.time.Duration;
@@ -9,6 +9,6 @@ class EvalContext {
 
     Duration timeout;
     EvalUtils.EvaluationLogData evaluationLogData;
-    DirectCSVWriter<SPECppEvaluationInfo> evalWriter;
+    GroupCommitCSVWriter<SPECppEvaluationInfo> evalWriter;
 
 }
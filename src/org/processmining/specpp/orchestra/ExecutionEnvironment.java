@@ -304,6 +304,8 @@ public class ExecutionEnvironment implements Joinable, AutoCloseable {
         postProcessingComputation.setCancellationCallback(postProcessingCanceller);
         masterComputation.setCancellationCallback(totalCanceller);
 
+        specpp.setSpeculationWindow(executionParameters.getSpeculationWindow());
+
         ExecutionParameters.ExecutionTimeLimits timeLimits = executionParameters.getTimeLimits();
         discoveryComputation.setTimeLimit(timeLimits.getDiscoveryTimeLimit());
         postProcessingComputation.setTimeLimit(timeLimits.getPostProcessingTimeLimit());
@@ -10,10 +10,17 @@ import org.processmining.specpp.datastructures.petri.CollectionOfPlaces;
 import org.processmining.specpp.datastructures.petri.Place;
 import org.processmining.specpp.datastructures.petri.Transition;
 import org.processmining.specpp.datastructures.util.Tuple2;
+import org.processmining.specpp.evaluation.implicitness.IncrementalLPImplicitnessEngine;
 import org.processmining.specpp.evaluation.implicitness.LPBasedImplicitnessCalculator;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
 
 @SuppressWarnings("Duplicates")
 public class LPBasedImplicitnessPostProcessing implements CollectionOfPlacesPostProcessor {
@@ -51,8 +58,37 @@ public class LPBasedImplicitnessPostProcessing implements CollectionOfPlacesPost
         this.calculator = calculator;
     }
 
+    /**
+     * Removes implicit places one after another, keeping a single LP alive across all tests.
+     * Each test is warm started from the basis of the previous one and removing a place merely drops its column.
+     *
+     * @return the surviving places or null if {@code interruptible} and the current thread was interrupted
+     */
+    protected CollectionOfPlaces postProcessIncrementally(CollectionOfPlaces collectionOfPlaces, boolean interruptible) {
+        // duplicates are implicit w.r.t. each other, but the engine holds every place only once
+        List<Place> places = new ArrayList<>(new LinkedHashSet<>(collectionOfPlaces.getPlaces()));
+        List<Place> survivors = new ArrayList<>();
+
+        IncrementalLPImplicitnessEngine engine = calculator.createEngine();
+        engine.addAll(places);
+        BooleanSupplier cancellation = interruptible ? Thread.currentThread()::isInterrupted : () -> false;
+
+        for (Place place : places) {
+            boolean implicit = engine.isImplicit(place, cancellation);
+            // a cancelled test reports the place as not implicit
+            if (cancellation.getAsBoolean()) return null; // purposefully not clearing interrupt flag
+
+            if (implicit) engine.remove(place);
+            else survivors.add(place);
+        }
+
+        return new CollectionOfPlaces(survivors);
+    }
+
     @Override
     public CollectionOfPlaces postProcess(CollectionOfPlaces collectionOfPlaces) {
+        if (calculator.supportsIncrementalSolving()) return postProcessIncrementally(collectionOfPlaces, false);
+
         //compute all the stuff needed for the LPP
 
         List<Place> places = new ArrayList<>(collectionOfPlaces.getPlaces());
@@ -109,6 +145,8 @@ public class LPBasedImplicitnessPostProcessing implements CollectionOfPlacesPost
 
         @Override
         public CollectionOfPlaces postProcess(CollectionOfPlaces collectionOfPlaces) {
+            if (calculator.supportsIncrementalSolving()) return postProcessIncrementally(collectionOfPlaces, true);
+
             //compute all the stuff needed for the LPP
 
             List<Place> places = new ArrayList<>(collectionOfPlaces.getPlaces());
@@ -127,7 +165,6 @@ public class LPBasedImplicitnessPostProcessing implements CollectionOfPlacesPost
 
                 if (Thread.currentThread().isInterrupted()) return null; // purposefully not clearing interrupt flag
 
-                // reuse the f ing LP
                 if (calculator.isImplicitAmong(i, places, preIncidenceMatrix, incidenceMatrix)) {
                 /*
                 for (int j = i; j < places.size() - 1; j++) {
@@ -150,4 +187,161 @@ public class LPBasedImplicitnessPostProcessing implements CollectionOfPlacesPost
 
     }
 
+    /**
+     * Removes exactly the places the sequential variant removes, but solves most LPs concurrently.
+     * Places are processed in blocks. All places of a block that pass {@link IncrementalLPImplicitnessEngine#mayBeImplicit(Place)} are tested concurrently against the current set of places, each worker holding its own engine.
+     * Removals are then committed in the original order. A place is only tested again if a place in the support of its solution has been removed earlier in the same block.
+     * The block size adapts to how many places had to be tested again, as these tests are sequential.
+     * This is sound as implicitness can only be lost as other places are removed, so places that are not implicit among the current set are never removed sequentially either.
+     * Interruption of the calling thread stops the workers and yields null.
+     */
+    public static class Parallel extends Interruptible {
+
+        public static class Builder extends LPBasedImplicitnessPostProcessing.Builder {
+            @Override
+            protected LPBasedImplicitnessPostProcessing buildIfFullySatisfied() {
+                return new Parallel(implicitnessCalculatorBuilder.getData().build());
+            }
+        }
+
+        public static final int INITIAL_BLOCK_SIZE_PER_WORKER = 4, MAX_BLOCK_SIZE_PER_WORKER = 16;
+
+        private final ForkJoinPool pool;
+
+        public Parallel(IntEncodings<Transition> transitionEncodings) {
+            this(new LPBasedImplicitnessCalculator(transitionEncodings));
+        }
+
+        public Parallel(LPBasedImplicitnessCalculator calculator) {
+            this(calculator, ForkJoinPool.commonPool());
+        }
+
+        public Parallel(LPBasedImplicitnessCalculator calculator, ForkJoinPool pool) {
+            super(calculator);
+            this.pool = pool;
+        }
+
+        @Override
+        public CollectionOfPlaces postProcess(CollectionOfPlaces collectionOfPlaces) {
+            if (!calculator.supportsIncrementalSolving() || ForkJoinTask.getPool() == pool)
+                return super.postProcess(collectionOfPlaces);
+
+            List<Place> places = new ArrayList<>(new LinkedHashSet<>(collectionOfPlaces.getPlaces()));
+            IncrementalLPImplicitnessEngine engine = calculator.createEngine();
+            engine.addAll(places);
+
+            int workerCount = Math.max(1, Math.min(pool.getParallelism(), places.size()));
+            int blockSize = INITIAL_BLOCK_SIZE_PER_WORKER * workerCount;
+            Workers workers = new Workers(workerCount, places);
+
+            List<Place> survivors = new ArrayList<>();
+            Set<Place> removedInBlock = new HashSet<>();
+            List<Place> suspects = new ArrayList<>();
+            for (int from = 0; from < places.size(); ) {
+                List<Place> block = places.subList(from, Math.min(places.size(), from + blockSize));
+                from += block.size();
+
+                suspects.clear();
+                for (Place place : block) {
+                    if (engine.mayBeImplicit(place)) suspects.add(place);
+                }
+                Map<Place, List<Place>> witnesses = workers.solve(suspects);
+                if (witnesses == null) return null;
+
+                removedInBlock.clear();
+                int retests = 0;
+                for (Place place : block) {
+                    List<Place> witness = witnesses.get(place);
+                    boolean implicit = false;
+                    if (witness != null) {
+                        if (Collections.disjoint(witness, removedInBlock)) implicit = true;
+                        else {
+                            retests++;
+                            implicit = engine.isImplicit(place, Thread.currentThread()::isInterrupted);
+                        }
+                    }
+                    if (Thread.currentThread().isInterrupted()) return null; // purposefully not clearing interrupt flag
+                    if (implicit) {
+                        engine.remove(place);
+                        removedInBlock.add(place);
+                        workers.removed.add(place);
+                    } else survivors.add(place);
+                }
+
+                if (4 * retests > block.size()) blockSize = Math.max(workerCount, blockSize / 2);
+                else if (retests == 0) blockSize = Math.min(MAX_BLOCK_SIZE_PER_WORKER * workerCount, 2 * blockSize);
+            }
+
+            return new CollectionOfPlaces(survivors);
+        }
+
+        /**
+         * Per worker engines that lazily catch up on the removals committed since they last ran.
+         */
+        private class Workers {
+
+            private final IncrementalLPImplicitnessEngine[] engines;
+            private final int[] appliedRemovals;
+            private final List<Place> places;
+            private final List<Place> removed = new ArrayList<>();
+
+            Workers(int workerCount, List<Place> places) {
+                engines = new IncrementalLPImplicitnessEngine[workerCount];
+                appliedRemovals = new int[workerCount];
+                this.places = places;
+            }
+
+            /**
+             * @return the support of the found solution per implicit suspect, or null if interrupted
+             */
+            Map<Place, List<Place>> solve(List<Place> suspects) {
+                Map<Place, List<Place>> witnesses = new ConcurrentHashMap<>();
+                if (suspects.isEmpty()) return witnesses;
+                AtomicInteger next = new AtomicInteger();
+                AtomicBoolean cancelled = new AtomicBoolean();
+
+                List<ForkJoinTask<?>> tasks = new ArrayList<>(engines.length);
+                for (int w = 0; w < Math.min(engines.length, suspects.size()); w++) {
+                    int worker = w;
+                    tasks.add(pool.submit(() -> {
+                        IncrementalLPImplicitnessEngine engine = catchUp(worker);
+                        for (int i = next.getAndIncrement(); i < suspects.size() && !cancelled.get(); i = next.getAndIncrement()) {
+                            Place place = suspects.get(i);
+                            if (engine.isImplicit(place, cancelled::get)) witnesses.put(place, engine.getLastWitnessSupport());
+                        }
+                    }));
+                }
+                try {
+                    for (ForkJoinTask<?> task : tasks) {
+                        task.get();
+                    }
+                } catch (InterruptedException e) {
+                    cancelled.set(true);
+                    Thread.currentThread().interrupt();
+                    return null;
+                } catch (ExecutionException e) {
+                    cancelled.set(true);
+                    throw new RuntimeException(e.getCause());
+                }
+                return witnesses;
+            }
+
+            private IncrementalLPImplicitnessEngine catchUp(int worker) {
+                IncrementalLPImplicitnessEngine engine = engines[worker];
+                if (engine == null) {
+                    engine = calculator.createEngine();
+                    engine.addAll(places);
+                    engines[worker] = engine;
+                }
+                for (int i = appliedRemovals[worker]; i < removed.size(); i++) {
+                    engine.remove(removed.get(i));
+                }
+                appliedRemovals[worker] = removed.size();
+                return engine;
+            }
+
+        }
+
+    }
+
 }
@@ -33,7 +33,7 @@ public class InputDataBundle {
     }
 
     public static InputDataBundle loadAndProcess(String logPath, InputProcessingConfig inputProcessingConfig) {
-        return process(XLogParser.readLog(logPath), inputProcessingConfig);
+        return inputProcessingConfig.getInputDataSource(logPath).getData();
     }
 
     public static InputDataBundle process(XLog xLog, InputProcessingConfig inputProcessingConfig) {
@@ -0,0 +1,218 @@
+package org.processmining.specpp.preprocessing;
+
+import org.apache.commons.collections4.BidiMap;
+import org.apache.commons.collections4.bidimap.DualHashBidiMap;
+import org.processmining.specpp.config.BaseDataExtractionStrategy;
+import org.processmining.specpp.config.InputProcessingConfig;
+import org.processmining.specpp.datastructures.encoding.HashmapEncoding;
+import org.processmining.specpp.datastructures.encoding.IntEncoding;
+import org.processmining.specpp.datastructures.encoding.IntEncodings;
+import org.processmining.specpp.datastructures.log.Activity;
+import org.processmining.specpp.datastructures.log.Log;
+import org.processmining.specpp.datastructures.log.Variant;
+import org.processmining.specpp.datastructures.log.impls.*;
+import org.processmining.specpp.datastructures.petri.Final;
+import org.processmining.specpp.datastructures.petri.Initial;
+import org.processmining.specpp.datastructures.petri.Transition;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+
+/**
+ * Versioned binary on-disk cache of preprocessed {@link InputDataBundle}s, stored next to the source log with the suffix {@value #FILE_SUFFIX}.
+ * A cache file holds the activity table together with the kinds and labels of the corresponding transitions, the preset and postset transition orderings, and the variants of the log as flat int arrays with their frequencies.
+ * It is keyed by a fingerprint of the source log's size and modification time and of the input processing configuration that produced it. A stale, foreign or corrupt cache file is ignored and overwritten.
+ * Cache files are read through a memory mapping and bulk copied into the arrays backing the bundle, i.e., no parsing or preprocessing takes place.
+ */
+public class InputDataBundleCache {
+
+    public static final String FILE_SUFFIX = ".specpp-bundle";
+
+    private static final int MAGIC = 0x53504250;
+    private static final int VERSION = 1;
+
+    private static final int INITIAL = 1, FINAL = 2, ARTIFICIAL_START = 4, ARTIFICIAL_END = 8;
+
+    /**
+     * Loads the bundle from its cache file if it is up-to-date. Otherwise, loads and processes the log as usual and attempts to (re)write the cache file.
+     */
+    public static InputDataBundle loadAndProcess(String logPath, InputProcessingConfig inputProcessingConfig) {
+        Path source = Paths.get(logPath);
+        Path cacheFile = Paths.get(logPath + FILE_SUFFIX);
+        long fingerprint;
+        try {
+            fingerprint = fingerprint(source, inputProcessingConfig);
+        } catch (IOException e) {
+            return InputDataBundle.loadAndProcess(logPath, inputProcessingConfig);
+        }
+        InputDataBundle cached = read(cacheFile, fingerprint);
+        if (cached != null) return cached;
+        InputDataBundle bundle = InputDataBundle.loadAndProcess(logPath, inputProcessingConfig);
+        try {
+            write(cacheFile, fingerprint, bundle);
+        } catch (IOException ignored) {
+            // the cache is an optimization only, e.g., the log may reside in a read-only location
+        }
+        return bundle;
+    }
+
+    public static long fingerprint(Path source, InputProcessingConfig inputProcessingConfig) throws IOException {
+        // the strategies do not override toString, hence only their classes are taken into account
+        String key = Files.size(source) + "|" + Files.getLastModifiedTime(source).toMillis() + "|" + inputProcessingConfig.getPreProcessingParameters() + "|" + inputProcessingConfig.getPreProcessingStrategy().getClass().getName() + "|" + inputProcessingConfig.getDataExtractionParameters() + "|" + inputProcessingConfig.getDataExtractionStrategy().getClass().getName();
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(key.getBytes(StandardCharsets.UTF_8));
+            return ByteBuffer.wrap(digest).getLong();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public static void write(Path cacheFile, long fingerprint, InputDataBundle bundle) throws IOException {
+        BidiMap<Activity, Transition> mapping = bundle.getMapping();
+        List<Activity> activities = new ArrayList<>(mapping.keySet());
+        Map<Activity, Integer> indices = new HashMap<>();
+        for (int i = 0; i < activities.size(); i++) {
+            indices.put(activities.get(i), i);
+        }
+
+        Path tmp = cacheFile.resolveSibling(cacheFile.getFileName() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp), 1 << 16))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeLong(fingerprint);
+
+            out.writeInt(activities.size());
+            for (Activity activity : activities) {
+                Transition transition = mapping.get(activity);
+                int flags = (transition instanceof Initial ? INITIAL : 0) | (transition instanceof Final ? FINAL : 0);
+                if (activity == Factory.ARTIFICIAL_START) flags |= ARTIFICIAL_START;
+                else if (activity == Factory.ARTIFICIAL_END) flags |= ARTIFICIAL_END;
+                out.writeInt(flags);
+                writeString(out, activity.toString());
+                writeString(out, transition.toString());
+            }
+
+            IntEncodings<Transition> encodings = bundle.getTransitionEncodings();
+            writeOrdering(out, encodings.pre(), mapping, indices);
+            writeOrdering(out, encodings.post(), mapping, indices);
+
+            Log log = bundle.getLog();
+            int variantCount = log.variantCount();
+            out.writeInt(variantCount);
+            int[] startIndices = new int[variantCount + 1];
+            int v = 0;
+            for (IndexedVariant indexedVariant : log) {
+                out.writeInt(log.getVariantFrequency(indexedVariant.getIndex()));
+                startIndices[v + 1] = startIndices[v] + indexedVariant.getVariant().size();
+                v++;
+            }
+            for (int startIndex : startIndices) {
+                out.writeInt(startIndex);
+            }
+            for (IndexedVariant indexedVariant : log) {
+                for (Activity activity : indexedVariant.getVariant()) {
+                    out.writeInt(indices.get(activity));
+                }
+            }
+        }
+        try {
+            Files.move(tmp, cacheFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(tmp, cacheFile, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * @return the cached bundle, or {@code null} if the cache file does not exist, does not match {@code fingerprint} or cannot be read
+     */
+    public static InputDataBundle read(Path cacheFile, long fingerprint) {
+        if (!Files.isRegularFile(cacheFile)) return null;
+        try (FileChannel channel = FileChannel.open(cacheFile, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION || buffer.getLong() != fingerprint) return null;
+
+            int activityCount = buffer.getInt();
+            Activity[] activities = new Activity[activityCount];
+            BidiMap<Activity, Transition> mapping = new DualHashBidiMap<>();
+            for (int i = 0; i < activityCount; i++) {
+                int flags = buffer.getInt();
+                String activityLabel = readString(buffer);
+                String transitionLabel = readString(buffer);
+                Activity activity;
+                if ((flags & ARTIFICIAL_START) != 0) activity = Factory.ARTIFICIAL_START;
+                else if ((flags & ARTIFICIAL_END) != 0) activity = Factory.ARTIFICIAL_END;
+                else activity = new ActivityImpl(activityLabel);
+                activities[i] = activity;
+                mapping.put(activity, BaseDataExtractionStrategy.makeTransition(activity, transitionLabel, (flags & INITIAL) != 0, (flags & FINAL) != 0));
+            }
+
+            IntEncoding<Transition> pre = readOrdering(buffer, activities, mapping);
+            IntEncoding<Transition> post = readOrdering(buffer, activities, mapping);
+
+            int variantCount = buffer.getInt();
+            int[] frequencies = readInts(buffer, variantCount);
+            int[] startIndices = readInts(buffer, variantCount + 1);
+            int[] data = readInts(buffer, startIndices[variantCount]);
+            Variant[] variants = new Variant[variantCount];
+            for (int v = 0; v < variantCount; v++) {
+                Activity[] sequence = new Activity[startIndices[v + 1] - startIndices[v]];
+                for (int i = 0; i < sequence.length; i++) {
+                    sequence[i] = activities[data[startIndices[v] + i]];
+                }
+                variants[v] = VariantImpl.of(sequence);
+            }
+            LogBuilder<LogImpl> logBuilder = new LogBuilderImpl();
+            logBuilder.setVariants(variants);
+            logBuilder.setFrequencies(frequencies);
+
+            return new InputDataBundle(logBuilder.build(), new IntEncodings<>(pre, post), mapping);
+        } catch (IOException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    private static void writeOrdering(DataOutputStream out, IntEncoding<Transition> encoding, BidiMap<Activity, Transition> mapping, Map<Activity, Integer> indices) throws IOException {
+        out.writeInt(encoding.size());
+        for (int i = 0; i < encoding.size(); i++) {
+            out.writeInt(indices.get(mapping.getKey(encoding.decode(i))));
+        }
+    }
+
+    private static IntEncoding<Transition> readOrdering(ByteBuffer buffer, Activity[] activities, BidiMap<Activity, Transition> mapping) {
+        int[] ordering = readInts(buffer, buffer.getInt());
+        List<Transition> transitions = new ArrayList<>(ordering.length);
+        for (int a : ordering) {
+            transitions.add(mapping.get(activities[a]));
+        }
+        return HashmapEncoding.ofList(transitions);
+    }
+
+    private static void writeString(DataOutputStream out, String s) throws IOException {
+        byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.getInt()];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static int[] readInts(ByteBuffer buffer, int count) {
+        int[] ints = new int[count];
+        buffer.asIntBuffer().get(ints);
+        buffer.position(buffer.position() + Integer.BYTES * count);
+        return ints;
+    }
+
+}
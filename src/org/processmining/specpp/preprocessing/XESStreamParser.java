@@ -0,0 +1,225 @@
+package org.processmining.specpp.preprocessing;
+
+import org.apache.commons.collections4.BidiMap;
+import org.apache.commons.collections4.bidimap.DualHashBidiMap;
+import org.deckfour.xes.classification.XEventClassifier;
+import org.deckfour.xes.factory.XFactory;
+import org.deckfour.xes.factory.XFactoryRegistry;
+import org.deckfour.xes.model.XAttribute;
+import org.deckfour.xes.model.XEvent;
+import org.processmining.specpp.datastructures.log.Activity;
+import org.processmining.specpp.datastructures.log.ParsedLog;
+import org.processmining.specpp.datastructures.log.impls.*;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.BufferedInputStream;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeParseException;
+import java.util.*;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Streaming alternative to {@link XLogParser#readLog(String)} followed by {@link XLogParser#convertLog}, which never materializes the log as {@code XLog}.
+ * The XES file is read with StAX event by event. Each event only carries the attributes defining its class under the classifier, and it is dropped right after being classified.
+ * Traces are deduplicated into variants on the fly by walking a trie over activity ids, so memory grows with the number of distinct variants rather than with the number of events.
+ * Files ending in {@code .gz} are decompressed transparently.
+ */
+public class XESStreamParser {
+
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final XEventClassifier eventClassifier;
+    private final boolean introduceStartEndTransitions;
+    private final Set<String> definingKeys;
+    private final XFactory xFactory = XFactoryRegistry.instance().currentDefault();
+
+    private final List<String> activityLabels = new ArrayList<>();
+    private final Map<String, Integer> activityIds = new HashMap<>();
+
+    /**
+     * Trie over activity ids: (node, activity id) -> child node. Node 0 is the root, i.e., the empty trace.
+     */
+    private final Map<Long, Integer> children = new HashMap<>();
+    private int[] parents = new int[1024], activities = new int[1024], depths = new int[1024], frequencies = new int[1024];
+    private int nodeCount = 1;
+    /**
+     * Nodes at which at least one trace ended, in order of the first such trace
+     */
+    private int[] variantEnds = new int[256];
+    private int variantCount;
+
+    public XESStreamParser(XEventClassifier eventClassifier, boolean introduceStartEndTransitions) {
+        this.eventClassifier = eventClassifier;
+        this.introduceStartEndTransitions = introduceStartEndTransitions;
+        String[] keys = eventClassifier.getDefiningAttributeKeys();
+        this.definingKeys = keys != null && keys.length > 0 ? new HashSet<>(Arrays.asList(keys)) : null;
+    }
+
+    public static ParsedLog parse(String path, XEventClassifier eventClassifier, boolean introduceStartEndTransitions) {
+        try (InputStream in = open(path)) {
+            return new XESStreamParser(eventClassifier, introduceStartEndTransitions).parse(in);
+        } catch (IOException | XMLStreamException e) {
+            throw new XLogParser.InputLoadingException(e);
+        }
+    }
+
+    private static InputStream open(String path) throws IOException {
+        InputStream in = new BufferedInputStream(new FileInputStream(path), BUFFER_SIZE);
+        return path.toLowerCase().endsWith(".gz") ? new BufferedInputStream(new GZIPInputStream(in, BUFFER_SIZE), BUFFER_SIZE) : in;
+    }
+
+    public ParsedLog parse(InputStream in) throws XMLStreamException {
+        XMLInputFactory inputFactory = XMLInputFactory.newInstance();
+        inputFactory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        inputFactory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        XMLStreamReader reader = inputFactory.createXMLStreamReader(in);
+        try {
+            boolean inTrace = false;
+            XEvent event = null;
+            int nesting = 0;
+            int node = 0;
+            while (reader.hasNext()) {
+                int type = reader.next();
+                if (type == XMLStreamConstants.START_ELEMENT) {
+                    String name = reader.getLocalName();
+                    if (event != null) {
+                        // only top level attributes of events can define their class
+                        if (nesting++ == 0) readAttribute(reader, name, event);
+                    } else if (inTrace && "event".equals(name)) {
+                        event = xFactory.createEvent();
+                        nesting = 0;
+                    } else if ("trace".equals(name)) {
+                        inTrace = true;
+                        node = 0;
+                    }
+                } else if (type == XMLStreamConstants.END_ELEMENT) {
+                    if (event != null) {
+                        if (nesting > 0) nesting--;
+                        else {
+                            node = step(node, activityId(eventClassifier.getClassIdentity(event)));
+                            event = null;
+                        }
+                    } else if (inTrace && "trace".equals(reader.getLocalName())) {
+                        complete(node);
+                        inTrace = false;
+                    }
+                }
+            }
+        } finally {
+            reader.close();
+        }
+        return build();
+    }
+
+    private void readAttribute(XMLStreamReader reader, String type, XEvent event) {
+        String key = reader.getAttributeValue(null, "key");
+        if (key == null || (definingKeys != null && !definingKeys.contains(key))) return;
+        String value = reader.getAttributeValue(null, "value");
+        if (value == null) return;
+        XAttribute attribute;
+        try {
+            switch (type) {
+                case "int":
+                    attribute = xFactory.createAttributeDiscrete(key, Long.parseLong(value), null);
+                    break;
+                case "float":
+                    attribute = xFactory.createAttributeContinuous(key, Double.parseDouble(value), null);
+                    break;
+                case "boolean":
+                    attribute = xFactory.createAttributeBoolean(key, Boolean.parseBoolean(value), null);
+                    break;
+                case "date":
+                    attribute = xFactory.createAttributeTimestamp(key, parseDate(value), null);
+                    break;
+                default:
+                    attribute = xFactory.createAttributeLiteral(key, value, null);
+            }
+        } catch (NumberFormatException | DateTimeParseException e) {
+            attribute = xFactory.createAttributeLiteral(key, value, null);
+        }
+        event.getAttributes().put(key, attribute);
+    }
+
+    private static Date parseDate(String value) {
+        try {
+            return Date.from(OffsetDateTime.parse(value).toInstant());
+        } catch (DateTimeParseException e) {
+            return Date.from(LocalDateTime.parse(value).atZone(ZoneId.systemDefault()).toInstant());
+        }
+    }
+
+    private int activityId(String label) {
+        Integer id = activityIds.get(label);
+        if (id == null) {
+            id = activityLabels.size();
+            activityIds.put(label, id);
+            activityLabels.add(label);
+        }
+        return id;
+    }
+
+    private int step(int node, int activity) {
+        long key = ((long) node << 32) | activity;
+        Integer child = children.get(key);
+        if (child != null) return child;
+        if (nodeCount == parents.length) {
+            int capacity = 2 * nodeCount;
+            parents = Arrays.copyOf(parents, capacity);
+            activities = Arrays.copyOf(activities, capacity);
+            depths = Arrays.copyOf(depths, capacity);
+            frequencies = Arrays.copyOf(frequencies, capacity);
+        }
+        int n = nodeCount++;
+        parents[n] = node;
+        activities[n] = activity;
+        depths[n] = depths[node] + 1;
+        children.put(key, n);
+        return n;
+    }
+
+    private void complete(int node) {
+        if (frequencies[node]++ == 0) {
+            if (variantCount == variantEnds.length) variantEnds = Arrays.copyOf(variantEnds, 2 * variantCount);
+            variantEnds[variantCount++] = node;
+        }
+    }
+
+    private ParsedLog build() {
+        Factory factory = new Factory(introduceStartEndTransitions);
+
+        BidiMap<String, Activity> activityMapping = new DualHashBidiMap<>();
+        if (introduceStartEndTransitions) activityMapping.putAll(Factory.getStartEndActivities());
+        Activity[] activityTable = new Activity[activityLabels.size()];
+        for (int i = 0; i < activityTable.length; i++) {
+            String label = activityLabels.get(i);
+            if (!activityMapping.containsKey(label)) activityMapping.put(label, factory.createActivity(label));
+            activityTable[i] = activityMapping.get(label);
+        }
+
+        LogBuilder<LogImpl> logBuilder = factory.createLogBuilder();
+        int[] sequence = new int[16];
+        for (int v = 0; v < variantCount; v++) {
+            int node = variantEnds[v];
+            int length = depths[node];
+            if (length > sequence.length) sequence = new int[Math.max(length, 2 * sequence.length)];
+            for (int n = node, i = length - 1; n != 0; n = parents[n], i--) {
+                sequence[i] = activities[n];
+            }
+            VariantBuilder<VariantImpl> variantBuilder = factory.createVariantBuilder();
+            for (int i = 0; i < length; i++) {
+                variantBuilder.append(activityTable[sequence[i]]);
+            }
+            logBuilder.appendVariant(variantBuilder.build(), frequencies[node]);
+        }
+        return new ParsedLog(logBuilder.build(), activityMapping);
+    }
+
+}
@@ -14,6 +14,7 @@ import org.processmining.specpp.evaluation.fitness.AbsolutelyNoFrillsFitnessEval
 import org.processmining.specpp.evaluation.fitness.ForkJoinFitnessEvaluator;
 import org.processmining.specpp.evaluation.fitness.MarkingHistoryBasedFitnessEvaluator;
 import org.processmining.specpp.evaluation.heuristics.*;
+import org.processmining.specpp.evaluation.markings.IncrementalLogHistoryMaker;
 import org.processmining.specpp.evaluation.markings.LogHistoryMaker;
 import org.processmining.specpp.postprocessing.*;
 import org.processmining.specpp.preprocessing.orderings.ActivityOrderingStrategy;
@@ -39,7 +40,7 @@ public class FrameworkBridge {
                                                                          .map(BridgedDeltaAdaptationFunctions::getBridge)
                                                                          .collect(Collectors.toList());
 
-    public static final List<AnnotatedPostProcessor> POST_PROCESSORS = Arrays.asList(BridgedPostProcessors.ReplayBasedImplicitPlaceRemoval.getBridge(), BridgedPostProcessors.LPBasedImplicitPlaceRemoval.getBridge(), BridgedPostProcessors.SelfLoopPlacesMerging.getBridge(), BridgedPostProcessors.UniwiredSelfLoopAddition.getBridge(), BridgedPostProcessors.DanglingTransitionsAddition.getBridge(), BridgedPostProcessors.PlaceTxtExport.getBridge(), BridgedPostProcessors.ProMPetrinetConversion.getBridge());
+    public static final List<AnnotatedPostProcessor> POST_PROCESSORS = Arrays.asList(BridgedPostProcessors.ReplayBasedImplicitPlaceRemoval.getBridge(), BridgedPostProcessors.LPBasedImplicitPlaceRemoval.getBridge(), BridgedPostProcessors.ParallelLPBasedImplicitPlaceRemoval.getBridge(), BridgedPostProcessors.SelfLoopPlacesMerging.getBridge(), BridgedPostProcessors.UniwiredSelfLoopAddition.getBridge(), BridgedPostProcessors.DanglingTransitionsAddition.getBridge(), BridgedPostProcessors.PlaceTxtExport.getBridge(), BridgedPostProcessors.ProMPetrinetConversion.getBridge());
 
     public enum BridgedHeuristics {
         //PlaceInterestingness(new AnnotatedTreeHeuristic("Place Interestingness", EventuallyFollowsTreeHeuristic.Builder::new)),
@@ -71,6 +72,7 @@ public class FrameworkBridge {
         Identity(new AnnotatedPostProcessor("Identity", CollectionOfPlaces.class, CollectionOfPlaces.class, () -> IdentityPostProcessor::new)),
         ReplayBasedImplicitPlaceRemoval(new AnnotatedPostProcessor("Replay-Based Implicit Place Removal", CollectionOfPlaces.class, CollectionOfPlaces.class, ReplayBasedImplicitnessPostProcessing.Builder::new)),
         LPBasedImplicitPlaceRemoval(new AnnotatedPostProcessor("LP-Based Implicit Place Removal", CollectionOfPlaces.class, CollectionOfPlaces.class, LPBasedImplicitnessPostProcessing.Builder::new)),
+        ParallelLPBasedImplicitPlaceRemoval(new AnnotatedPostProcessor("Parallel LP-Based Implicit Place Removal", CollectionOfPlaces.class, CollectionOfPlaces.class, LPBasedImplicitnessPostProcessing.Parallel.Builder::new)),
         SelfLoopPlacesMerging(new AnnotatedPostProcessor("Self-Loop Places Merging", CollectionOfPlaces.class, CollectionOfPlaces.class, () -> SelfLoopPlaceMerger::new)),
         UniwiredSelfLoopAddition(new AnnotatedPostProcessor("Uniwired Self-Loop Addition", CollectionOfPlaces.class, CollectionOfPlaces.class, StrictUniwiredSelfLoopAdditionPostProcessing.Builder::new)),
         DanglingTransitionsAddition(new AnnotatedPostProcessor("Dangling Transitions Addition", ProMPetrinetWrapper.class, ProMPetrinetWrapper.class, AddDanglingTransitionPostProcessing.Builder::new)),
@@ -97,7 +99,8 @@ public class FrameworkBridge {
         BaseFitness(new AnnotatedEvaluator("Base Fitness Evaluator", AbsolutelyNoFrillsFitnessEvaluator.Builder::new)),
         ForkJoinFitness(new AnnotatedEvaluator("Concurrent Fitness Evaluator", ForkJoinFitnessEvaluator.Builder::new)),
         MarkingHistoryBasedFitness(new AnnotatedEvaluator("Marking History Based Fitness Evaluator", MarkingHistoryBasedFitnessEvaluator.Builder::new)),
-        MarkingHistory(new AnnotatedEvaluator("Marking History Computer", () -> LogHistoryMaker::new));
+        MarkingHistory(new AnnotatedEvaluator("Marking History Computer", LogHistoryMaker.Builder::new)),
+        IncrementalMarkingHistory(new AnnotatedEvaluator("Incremental Marking History Computer", IncrementalLogHistoryMaker.Builder::new));
 
         private final AnnotatedEvaluator be;
 
@@ -120,7 +120,7 @@ public class ConfigurationController extends AbstractStageController {
 
         // ** EVALUATION ** //
         EvaluatorConfiguration.Configurator evCfg = new EvaluatorConfiguration.Configurator();
-        evCfg.addEvaluatorProvider(LogHistoryMaker::new);
+        evCfg.addEvaluatorProvider(new LogHistoryMaker.Builder());
         evCfg.addEvaluatorProvider(new LPBasedImplicitnessCalculator.Builder());
         evCfg.addEvaluatorProvider(new DirectlyFollowsHeuristic.Builder());
         evCfg.addEvaluatorProvider(pc.concurrentReplay ? FrameworkBridge.BridgedEvaluators.ForkJoinFitness.getBridge()
@@ -194,6 +194,7 @@ public class ConfigurationController extends AbstractStageController {
                     globalComponentSystem().provide(ParameterRequirements.RHO_ETCPRECISION_THRESHOLD.fulfilWithStatic(new RhoETCPrecisionThreshold(pc.rho)));
                     globalComponentSystem().provide(ParameterRequirements.GAMMA_ETCPRECISIONGAIN_THRESHOLD.fulfilWithStatic(new GammaETCPrecisionGainThreshold(pc.gamma)));
                     globalComponentSystem().provide(ParameterRequirements.FLAG_PREMATUREABORT.fulfilWithStatic(new FlagPrematureAbort(pc.prematureAbort)));
+                    globalComponentSystem().provide(ParameterRequirements.THREADS_ETCPRECISION_EVALUATION.fulfilWithStatic(new ThreadsETCPrecisionEvaluation(pc.etcPrecisionThreads)));
                 }
                 if(pc.treeExpansionSetting == ProMConfig.TreeExpansionSetting.Heuristic &&
                         (pc.treeHeuristic == FrameworkBridge.BridgedHeuristics.AvgFirstOccIndexDelta.getBridge()
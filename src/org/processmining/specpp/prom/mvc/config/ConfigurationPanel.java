@@ -45,6 +45,8 @@ public class ConfigurationPanel extends AbstractStagePanel<ConfigurationControll
 
     private final TextBasedInputField<Double> gammaETCPrecisionGainTreshold;
 
+    private final TextBasedInputField<Integer> threadsETCPrecisionEvaluation;
+
     private final TextBasedInputField<Double> alphaTreeTraversalHeuristics;
 
     //end additions
@@ -291,6 +293,10 @@ public class ConfigurationPanel extends AbstractStagePanel<ConfigurationControll
         gammaETCPrecisionGainTreshold.setText("1.0");
         gammaETCPrecisionGainTreshold.setToolTipText("Precision Threshold gamma in [0,1].");
         gammaETCPrecisionGainTreshold.setVisible(false);
+        threadsETCPrecisionEvaluation = SwingFactory.textBasedInputField("threads", posIntFunc, 10);
+        threadsETCPrecisionEvaluation.setText("1");
+        threadsETCPrecisionEvaluation.setToolTipText("Number of threads among which precision (re-)evaluations are distributed. 1 evaluates sequentially.");
+        threadsETCPrecisionEvaluation.setVisible(false);
         checkBoxPrematureAbort = SwingFactory.labeledCheckBox("Prematurely abort?", true);
         checkBoxPrematureAbort.setToolTipText("Prematurely abort the discovery once the threshold rho in [0,1] is reached");
         checkBoxPrematureAbort.setVisible(false);
@@ -301,6 +307,7 @@ public class ConfigurationPanel extends AbstractStagePanel<ConfigurationControll
         composition.append(checkBoxETCPrecisionBasedComposer);
         composition.append(rhoETCPrecisionTreshold);
         composition.append(gammaETCPrecisionGainTreshold);
+        composition.append(threadsETCPrecisionEvaluation);
         composition.append(checkBoxPrematureAbort);
         composition.append(checkBoxCutOff);
         //end ETC-based Composer
@@ -449,6 +456,7 @@ public class ConfigurationPanel extends AbstractStagePanel<ConfigurationControll
         alphaTreeTraversalHeuristics.setText(Double.toString(pc.alpha));
         rhoETCPrecisionTreshold.setText(Double.toString(pc.rho));
         gammaETCPrecisionGainTreshold.setText(Double.toString(pc.gamma));
+        threadsETCPrecisionEvaluation.setText(Integer.toString(pc.etcPrecisionThreads));
         checkBoxETCPrecisionBasedComposer.setSelected(pc.useETCPrecisionBasedComposer);
         //end additions
 
@@ -561,6 +569,8 @@ public class ConfigurationPanel extends AbstractStagePanel<ConfigurationControll
         pc.heuristicThresholdRelation = heuristicThresholdInput.getSelectedItem();
         Integer rawDepthLimit = depthInput.getInput();
         pc.depth = rawDepthLimit != null ? rawDepthLimit : -1;
+        Integer rawETCPrecisionThreads = threadsETCPrecisionEvaluation.getInput();
+        pc.etcPrecisionThreads = rawETCPrecisionThreads != null ? rawETCPrecisionThreads : -1;
         pc.initiallyWireSelfLoops = initiallyWireSelfLoopsCheckBox.isVisible() && initiallyWireSelfLoopsCheckBox.isSelected();
         pc.discoveryTimeLimit = discoveryTimeLimitInput.getInput();
         pc.totalTimeLimit = totalTimeLimitInput.getInput();
@@ -589,6 +599,7 @@ public class ConfigurationPanel extends AbstractStagePanel<ConfigurationControll
         //start additions
         gammaETCPrecisionGainTreshold.setVisible(checkBoxETCPrecisionBasedComposer.isSelected());
         rhoETCPrecisionTreshold.setVisible(checkBoxETCPrecisionBasedComposer.isSelected());
+        threadsETCPrecisionEvaluation.setVisible(checkBoxETCPrecisionBasedComposer.isSelected());
         checkBoxCutOff.setVisible(checkBoxETCPrecisionBasedComposer.isSelected());
         checkBoxPrematureAbort.setVisible(checkBoxETCPrecisionBasedComposer.isSelected());
         //end additions
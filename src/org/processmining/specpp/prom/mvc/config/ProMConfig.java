@@ -32,6 +32,7 @@ public class ProMConfig {
     //start additions
     double rho, gamma, alpha;
     boolean useETCPrecisionBasedComposer, updateGreedy, cutOff, prematureAbort;
+    int etcPrecisionThreads;
     //end additions
 
     public ProMConfig() {
@@ -47,6 +48,7 @@ public class ProMConfig {
         pc.cutOff = false;
         pc.updateGreedy = false;
         pc.prematureAbort = true;
+        pc.etcPrecisionThreads = 1;
 
         //end additions
         pc.supervisionSetting = SupervisionSetting.PerformanceAndEvents;
@@ -137,6 +139,7 @@ public class ProMConfig {
         incomplete |= treeExpansionSetting == TreeExpansionSetting.Heuristic && treeHeuristic == null;
         incomplete |= treeExpansionSetting == TreeExpansionSetting.Heuristic && enforceHeuristicThreshold && (heuristicThreshold < 0 || heuristicThresholdRelation == null);
         incomplete |= compositionStrategy == CompositionStrategy.TauDelta && (deltaAdaptationFunction == null || (deltaAdaptationFunction != FrameworkBridge.BridgedDeltaAdaptationFunctions.None.getBridge() && delta < 0) || ((deltaAdaptationFunction == FrameworkBridge.BridgedDeltaAdaptationFunctions.Linear.getBridge() || deltaAdaptationFunction == FrameworkBridge.BridgedDeltaAdaptationFunctions.Sigmoid.getBridge()) && steepness < 0));
+        incomplete |= useETCPrecisionBasedComposer && etcPrecisionThreads < 1;
         return !outOfRange && !incomplete;
     }
 
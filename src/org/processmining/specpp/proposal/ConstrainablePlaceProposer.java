@@ -2,10 +2,12 @@ package org.processmining.specpp.proposal;
 
 import org.processmining.specpp.base.ConstrainableProposer;
 import org.processmining.specpp.base.Constrainer;
+import org.processmining.specpp.base.SpeculativeProposer;
 import org.processmining.specpp.base.impls.AbstractEfficientTreeBasedProposer;
 import org.processmining.specpp.base.impls.CandidateConstraint;
 import org.processmining.specpp.componenting.data.DataRequirements;
 import org.processmining.specpp.componenting.delegators.ContainerUtils;
+import org.processmining.specpp.componenting.data.StaticDataSource;
 import org.processmining.specpp.componenting.delegators.DelegatingDataSource;
 import org.processmining.specpp.componenting.supervision.SupervisionRequirements;
 import org.processmining.specpp.componenting.system.ComponentSystemAwareBuilder;
@@ -15,10 +17,12 @@ import org.processmining.specpp.componenting.system.link.EfficientTreeComponent;
 import org.processmining.specpp.componenting.system.link.ProposerComponent;
 import org.processmining.specpp.config.components.EfficientTreeConfiguration;
 import org.processmining.specpp.config.components.SimpleBuilder;
+import org.processmining.specpp.datastructures.encoding.BitMask;
 import org.processmining.specpp.datastructures.petri.Place;
 import org.processmining.specpp.datastructures.tree.base.ConstrainableChildGenerationLogic;
 import org.processmining.specpp.datastructures.tree.base.GenerationConstraint;
 import org.processmining.specpp.datastructures.tree.constraints.*;
+import org.processmining.specpp.datastructures.tree.heuristic.UpdatableHeuristicExpansionStrategy;
 import org.processmining.specpp.datastructures.tree.nodegen.PlaceNode;
 import org.processmining.specpp.datastructures.tree.nodegen.PlaceState;
 import org.processmining.specpp.supervision.EventSupervision;
@@ -26,15 +30,29 @@ import org.processmining.specpp.supervision.piping.Observable;
 import org.processmining.specpp.supervision.piping.PipeWorks;
 import org.processmining.specpp.util.JavaTypingUtils;
 
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
 /**
  * This is the base implementation of a <it>constrainable</it> place proposer.
  * It may receive {@code CandidateConstraint} events and in turn publishes {@code GenerationConstraint} events that may in turn be used by the {@code constrainable generator}.
+ * Constraints are mapped back to the tree node of the candidate they affect, which need not be the most recently proposed one when the proposer is run ahead of the composer.
+ * Speculatively proposed candidates that lie within a subtree that has been culled since their proposal are reported as obsolete.
  *
  * @see PlaceProposer
  * @see CandidateConstraint
  * @see ConstrainableChildGenerationLogic
  */
-public class ConstrainablePlaceProposer extends AbstractBaseClass implements ConstrainableProposer<Place, CandidateConstraint<Place>>, Constrainer<GenerationConstraint>, ProposerComponent<Place> {
+public class ConstrainablePlaceProposer extends AbstractBaseClass implements ConstrainableProposer<Place, CandidateConstraint<Place>>, Constrainer<GenerationConstraint>, ProposerComponent<Place>, SpeculativeProposer<Place> {
+
+    /**
+     * Number of recently proposed candidates whose tree nodes are remembered. Bounds the speculation window that is supported.
+     */
+    public static final int PROPOSAL_MEMORY = 1024;
+
     protected final ChildGenerationLogicComponent<Place, PlaceState, PlaceNode> cgl;
     protected final SimpleBuilder<EfficientTreeComponent<PlaceNode>> treeBuilder;
 
@@ -59,6 +77,47 @@ public class ConstrainablePlaceProposer extends AbstractBaseClass implements Con
 
     protected final EventSupervision<GenerationConstraint> constraintOutput = PipeWorks.eventSupervision();
 
+    private final Map<Place, Proposal> recentProposals = new LinkedHashMap<Place, Proposal>() {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Place, Proposal> eldest) {
+            return size() > PROPOSAL_MEMORY;
+        }
+    };
+    private final Deque<Cull> recentCulls = new ArrayDeque<>();
+    private long proposalCount;
+    private boolean expansionDependsOnComposition;
+
+    private static class Proposal {
+        private final PlaceNode node;
+        private final long sequenceNumber;
+        private final boolean presetExpandable, postsetExpandable;
+
+        private Proposal(PlaceNode node, long sequenceNumber) {
+            this.node = node;
+            this.sequenceNumber = sequenceNumber;
+            // the node's state changes as soon as its children are generated, which may happen before a constraint on it is received
+            PlaceState state = node.getState();
+            this.presetExpandable = !state.getPotentialPresetExpansions().isEmpty();
+            this.postsetExpandable = !state.getPotentialPostsetExpansions().isEmpty();
+        }
+
+        private boolean isOnlyPresetExpandable() {
+            return presetExpandable && !postsetExpandable;
+        }
+    }
+
+    private static class Cull {
+        private final Place place;
+        private final boolean postset;
+        private final long issuedAfter;
+
+        private Cull(Place place, boolean postset, long issuedAfter) {
+            this.place = place;
+            this.postset = postset;
+            this.issuedAfter = issuedAfter;
+        }
+    }
+
     public ConstrainablePlaceProposer(ChildGenerationLogicComponent<Place, PlaceState, PlaceNode> cgl, SimpleBuilder<EfficientTreeComponent<PlaceNode>> treeBuilder) {
         this.cgl = cgl;
         this.treeBuilder = treeBuilder;
@@ -66,7 +125,8 @@ public class ConstrainablePlaceProposer extends AbstractBaseClass implements Con
                                .require(SupervisionRequirements.observable(SupervisionRequirements.regex("external\\.constraints.*"), getAcceptedConstraintClass()), ContainerUtils.observeResults(this));
         localComponentSystem().require(SupervisionRequirements.observable(SupervisionRequirements.regex("composer\\.constraints.*"), getAcceptedConstraintClass()), ContainerUtils.observeResults(this))
                               .require(SupervisionRequirements.observable(SupervisionRequirements.regex("composition\\.constraints.*"), getAcceptedConstraintClass()), ContainerUtils.observeResults(this))
-                              .provide(SupervisionRequirements.observable("proposer.constraints", getPublishedConstraintClass(), getConstraintPublisher()));
+                              .provide(SupervisionRequirements.observable("proposer.constraints", getPublishedConstraintClass(), getConstraintPublisher()))
+                              .provide(DataRequirements.dataSource("proposer.speculation", JavaTypingUtils.castClass(SpeculativeProposer.class), StaticDataSource.of(this)));
         proposer = createSubProposer();
         setProposer(proposer);
     }
@@ -78,6 +138,9 @@ public class ConstrainablePlaceProposer extends AbstractBaseClass implements Con
     protected void setProposer(AbstractEfficientTreeBasedProposer<Place, PlaceNode> proposer) {
         this.proposer = proposer;
         registerSubComponent(proposer);
+        expansionDependsOnComposition = proposer.collectTransitiveSubcomponents()
+                                                .stream()
+                                                .anyMatch(c -> c instanceof UpdatableHeuristicExpansionStrategy);
     }
 
     @Override
@@ -86,24 +149,93 @@ public class ConstrainablePlaceProposer extends AbstractBaseClass implements Con
 
     @Override
     public Place proposeCandidate() {
-        return proposer.proposeCandidate();
+        Place place = proposer.proposeCandidate();
+        if (place != null) recentProposals.put(place, new Proposal(proposer.getPreviousProposedNode(), ++proposalCount));
+        return place;
     }
 
     @Override
     public void acceptConstraint(CandidateConstraint<Place> candidateConstraint) {
-        PlaceNode placeNode = proposer.getPreviousProposedNode();
         if (candidateConstraint instanceof WiringConstraint) {
             constraintOutput.observe((GenerationConstraint) candidateConstraint);
-        } else if (candidateConstraint instanceof ClinicallyUnderfedPlace) {
-            constraintOutput.observe(new CullPostsetChildren(placeNode));
+            return;
+        }
+        Proposal proposal = recentProposals.get(candidateConstraint.getAffectedCandidate());
+        if (proposal == null) proposal = new Proposal(proposer.getPreviousProposedNode(), proposalCount);
+        if (candidateConstraint instanceof ClinicallyUnderfedPlace) {
+            cullPostsetChildren(proposal.node);
         } else if (candidateConstraint instanceof ClinicallyOverfedPlace) {
-            PlaceState state = placeNode.getState();
-            if (state.getPotentialPostsetExpansions().isEmpty() && !state.getPotentialPresetExpansions().isEmpty()) {
-                constraintOutput.observe(new CullPresetChildren(placeNode));
-            }
+            if (proposal.isOnlyPresetExpandable()) cullPresetChildren(proposal.node);
         }
     }
 
+    protected void cullPostsetChildren(PlaceNode placeNode) {
+        recordCull(new Cull(placeNode.getPlace(), true, proposalCount));
+        constraintOutput.observe(new CullPostsetChildren(placeNode));
+    }
+
+    protected void cullPresetChildren(PlaceNode placeNode) {
+        recordCull(new Cull(placeNode.getPlace(), false, proposalCount));
+        constraintOutput.observe(new CullPresetChildren(placeNode));
+    }
+
+    private void recordCull(Cull cull) {
+        recentCulls.addLast(cull);
+        // culls issued before the proposal of the oldest remembered candidate can never render a candidate obsolete again
+        Iterator<Proposal> it = recentProposals.values().iterator();
+        long oldest = it.hasNext() ? it.next().sequenceNumber : proposalCount + 1;
+        while (!recentCulls.isEmpty() && recentCulls.peekFirst().issuedAfter < oldest) recentCulls.pollFirst();
+    }
+
+    @Override
+    public boolean isObsolete(Place candidate) {
+        Proposal proposal = recentProposals.get(candidate);
+        if (proposal == null) return false;
+        for (Iterator<Cull> it = recentCulls.descendingIterator(); it.hasNext(); ) {
+            Cull cull = it.next();
+            if (cull.issuedAfter < proposal.sequenceNumber) break;
+            if (isInCulledSubtree(candidate, cull)) return true;
+        }
+        return false;
+    }
+
+    /**
+     * All candidates in flight, including the one being composed, have to be remembered to attribute constraints to their nodes.
+     * If the expansion strategy re-scores queued nodes as candidates are composed, speculation is not supported at all, as candidates proposed ahead would be chosen by outdated scores.
+     */
+    @Override
+    public int getMaximalSpeculationWindow() {
+        return expansionDependsOnComposition ? 0 : PROPOSAL_MEMORY - 1;
+    }
+
+    @Override
+    public void discard(Place candidate) {
+        Proposal proposal = recentProposals.remove(candidate);
+        if (proposal == null) return;
+        // recording a cull of children the node can never have would spuriously render other candidates obsolete
+        if (proposal.postsetExpandable) cullPostsetChildren(proposal.node);
+        if (proposal.presetExpandable) cullPresetChildren(proposal.node);
+    }
+
+    /**
+     * Postset children only ever add transitions beyond the maximal postset transition of their parent.
+     * Preset children in turn add transitions beyond the maximal preset transition and may subsequently expand their postset likewise.
+     */
+    private static boolean isInCulledSubtree(Place candidate, Cull cull) {
+        BitMask pre = candidate.preset().getBitMask(), post = candidate.postset().getBitMask();
+        BitMask culledPre = cull.place.preset().getBitMask(), culledPost = cull.place.postset().getBitMask();
+        if (cull.postset)
+            return pre.equals(culledPre) && !post.equals(culledPost) && extendsBeyond(post, culledPost);
+        else return !pre.equals(culledPre) && extendsBeyond(pre, culledPre) && extendsBeyond(post, culledPost);
+    }
+
+    private static boolean extendsBeyond(BitMask set, BitMask subset) {
+        if (!set.isSupersetOf(subset)) return false;
+        BitMask added = set.copy();
+        added.andNot(subset);
+        return added.isEmpty() || added.nextSetBit(0) >= subset.length();
+    }
+
     @Override
     public Observable<GenerationConstraint> getConstraintPublisher() {
         return constraintOutput;
@@ -1,16 +1,20 @@
 package org.processmining.specpp.supervision;
 
 import org.processmining.specpp.supervision.observations.Event;
-import org.processmining.specpp.supervision.piping.AsyncIdentityPipe;
+import org.processmining.specpp.supervision.piping.ConcurrencyBridge;
+import org.processmining.specpp.supervision.piping.RingBuffer;
 import org.processmining.specpp.supervision.traits.OneToOne;
 
-import java.util.concurrent.CompletableFuture;
+/**
+ * Asynchronous counterpart of {@link EventSupervision}. Events are handed over to the supporting task's thread through a preallocated {@link RingBuffer} instead of being wrapped in a future each.
+ */
+public class AsyncEventSupervision<E extends Event> extends ConcurrencyBridge<E> implements OneToOne<E, E> {
 
-public class AsyncEventSupervision<E extends Event> extends AsyncIdentityPipe<E> implements OneToOne<E, E> {
+    public AsyncEventSupervision() {
+    }
 
-    @Override
-    public void observe(E observation) {
-        observeAsync(CompletableFuture.completedFuture(observation));
+    public AsyncEventSupervision(int capacity, RingBuffer.OverflowPolicy overflowPolicy) {
+        super(capacity, overflowPolicy);
     }
 
 }
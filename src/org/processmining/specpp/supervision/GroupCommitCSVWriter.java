@@ -0,0 +1,211 @@
+package org.processmining.specpp.supervision;
+
+import org.processmining.specpp.supervision.observations.Observation;
+import org.processmining.specpp.supervision.piping.AsyncObserver;
+import org.processmining.specpp.supervision.piping.Buffering;
+import org.processmining.specpp.supervision.supervisors.DebuggingSupervisor;
+import org.processmining.specpp.traits.Stoppable;
+
+import java.io.*;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.*;
+import java.util.function.Function;
+
+/**
+ * Asynchronous replacement of {@link DirectCSVWriter} for rows arriving from many callback threads.
+ * Rows are serialized on the calling thread into a reusable in-memory buffer. A shared background thread writes the buffer out as one group once it exceeds a size threshold or a time threshold has passed, whichever comes first.
+ * The file is only fsynced at milestones, i.e. by the background thread every so many rows and after a longer commit interval, as well as on {@link #stop()}. Callers never block on I/O.
+ * I/O failures are reported via {@link DebuggingSupervisor}. A shutdown hook guarantees the final commit if the JVM exits before {@link #stop()} is called.
+ */
+public class GroupCommitCSVWriter<O extends Observation> implements AsyncObserver<O>, Buffering, Stoppable {
+
+    public static final int DEFAULT_FLUSH_THRESHOLD = 1 << 16;
+    public static final Duration DEFAULT_FLUSH_INTERVAL = Duration.ofSeconds(1);
+    public static final int DEFAULT_COMMIT_ROWS = 1000;
+    public static final Duration DEFAULT_COMMIT_INTERVAL = Duration.ofSeconds(30);
+
+    private static final ScheduledExecutorService flusher = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = Executors.defaultThreadFactory().newThread(r);
+        thread.setName("csv-group-commit");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final String filePath;
+    private final Function<O, String[]> rowMapper;
+    private final int flushThreshold;
+    private final int commitRows;
+    private final FileOutputStream outputStream;
+    private final Writer fileWriter;
+
+    private final Object bufferLock = new Object();
+    private CharArrayWriter active = new CharArrayWriter(1 << 12), spare = new CharArrayWriter(1 << 12);
+    /**
+     * formats into whichever buffer is currently active
+     */
+    private final com.opencsv.CSVWriter formatter = new com.opencsv.CSVWriter(new Writer() {
+        @Override
+        public void write(char[] cbuf, int off, int len) {
+            active.write(cbuf, off, len);
+        }
+
+        @Override
+        public void flush() {
+        }
+
+        @Override
+        public void close() {
+        }
+    });
+    private boolean flushPending, stopped;
+    private long rowCount;
+
+    private final Object ioLock = new Object();
+    /**
+     * whether rows have been written out since the file was last forced to storage
+     */
+    private boolean uncommitted;
+    private final ScheduledFuture<?> periodicFlush, periodicCommit;
+    private final Thread shutdownHook;
+
+    public GroupCommitCSVWriter(String filePath, String[] columnLabels, Function<O, String[]> rowMapper) {
+        this(filePath, columnLabels, rowMapper, DEFAULT_FLUSH_THRESHOLD, DEFAULT_FLUSH_INTERVAL, DEFAULT_COMMIT_ROWS, DEFAULT_COMMIT_INTERVAL);
+    }
+
+    public GroupCommitCSVWriter(String filePath, String[] columnLabels, Function<O, String[]> rowMapper, int flushThreshold, Duration flushInterval, int commitRows, Duration commitInterval) {
+        this.filePath = filePath;
+        this.rowMapper = rowMapper;
+        this.flushThreshold = flushThreshold;
+        this.commitRows = commitRows;
+        try {
+            outputStream = new FileOutputStream(filePath);
+        } catch (FileNotFoundException e) {
+            throw new RuntimeException(e);
+        }
+        fileWriter = new OutputStreamWriter(outputStream, StandardCharsets.UTF_8);
+        formatter.writeNext(columnLabels);
+        long intervalNanos = flushInterval.toNanos();
+        periodicFlush = flusher.scheduleWithFixedDelay(this::flushBuffer, intervalNanos, intervalNanos, TimeUnit.NANOSECONDS);
+        long commitIntervalNanos = commitInterval.toNanos();
+        periodicCommit = flusher.scheduleWithFixedDelay(this::commit, commitIntervalNanos, commitIntervalNanos, TimeUnit.NANOSECONDS);
+        shutdownHook = new Thread(this::stop);
+        Runtime.getRuntime().addShutdownHook(shutdownHook);
+    }
+
+    private void handleObservation(O observation) {
+        String[] row = rowMapper.apply(observation);
+        boolean scheduleFlush = false, scheduleCommit;
+        synchronized (bufferLock) {
+            if (stopped) return;
+            formatter.writeNext(row);
+            if (!flushPending && active.size() >= flushThreshold) {
+                flushPending = true;
+                scheduleFlush = true;
+            }
+            scheduleCommit = ++rowCount % commitRows == 0;
+        }
+        if (scheduleCommit) flusher.execute(this::commit);
+        else if (scheduleFlush) flusher.execute(this::flushBuffer);
+    }
+
+    @Override
+    public void observeAsync(CompletableFuture<O> futureObservation) {
+        futureObservation.thenAccept(this::handleObservation);
+    }
+
+    @Override
+    public void observe(O observation) {
+        handleObservation(observation);
+    }
+
+    /**
+     * Writes out all buffered rows without waiting for the file system to persist them.
+     */
+    @Override
+    public void flushBuffer() {
+        synchronized (ioLock) {
+            CharArrayWriter full;
+            synchronized (bufferLock) {
+                if (active.size() == 0) {
+                    flushPending = false;
+                    return;
+                }
+                try {
+                    formatter.flush();
+                } catch (IOException e) {
+                    reportFailure("formatting rows", e);
+                }
+                full = active;
+                active = spare;
+                spare = full;
+                flushPending = false;
+            }
+            try {
+                full.writeTo(fileWriter);
+                fileWriter.flush();
+                uncommitted = true;
+            } catch (IOException e) {
+                reportFailure("writing buffered rows", e);
+            } finally {
+                full.reset();
+            }
+        }
+    }
+
+    @Override
+    public boolean isBufferNonEmpty() {
+        synchronized (bufferLock) {
+            return active.size() > 0;
+        }
+    }
+
+    /**
+     * Writes out all buffered rows and forces them to the storage device, unless nothing was written since the last commit.
+     * Blocks on I/O, hence it is only called by the background thread and on {@link #stop()}.
+     */
+    protected void commit() {
+        synchronized (ioLock) {
+            flushBuffer();
+            if (!uncommitted) return;
+            uncommitted = false;
+            try {
+                FileChannel channel = outputStream.getChannel();
+                if (channel.isOpen()) channel.force(false);
+            } catch (IOException e) {
+                reportFailure("forcing rows to storage", e);
+            }
+        }
+    }
+
+    private void reportFailure(String action, IOException e) {
+        DebuggingSupervisor.debug("CSV Group Commit", filePath + ": " + action + " failed with:\n" + e.getMessage());
+    }
+
+    @Override
+    public void stop() {
+        synchronized (bufferLock) {
+            if (stopped) return;
+            stopped = true;
+        }
+        periodicFlush.cancel(false);
+        periodicCommit.cancel(false);
+        commit();
+        synchronized (ioLock) {
+            try {
+                fileWriter.close();
+            } catch (IOException e) {
+                reportFailure("closing the file", e);
+            }
+        }
+        if (Thread.currentThread() != shutdownHook) {
+            try {
+                Runtime.getRuntime().removeShutdownHook(shutdownHook);
+            } catch (IllegalStateException ignored) {
+                // the JVM is already shutting down
+            }
+        }
+    }
+
+}
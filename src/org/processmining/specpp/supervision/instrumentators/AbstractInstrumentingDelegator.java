@@ -2,12 +2,12 @@ package org.processmining.specpp.supervision.instrumentators;
 
 import org.processmining.specpp.componenting.delegators.AbstractFCSUDelegator;
 import org.processmining.specpp.componenting.system.FullComponentSystemUser;
-import org.processmining.specpp.supervision.observations.performance.TimeStopper;
+import org.processmining.specpp.supervision.observations.performance.PerformanceRecorder;
 
 public class AbstractInstrumentingDelegator<T extends FullComponentSystemUser> extends AbstractFCSUDelegator<T> {
 
 
-    protected final TimeStopper timeStopper = new TimeStopper();
+    protected final PerformanceRecorder performanceRecorder = new PerformanceRecorder();
 
     public AbstractInstrumentingDelegator(T delegate) {
         super(delegate);
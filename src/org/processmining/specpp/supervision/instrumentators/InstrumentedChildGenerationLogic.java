@@ -5,7 +5,7 @@ import org.processmining.specpp.componenting.system.link.ChildGenerationLogicCom
 import org.processmining.specpp.datastructures.tree.base.LocalNode;
 import org.processmining.specpp.datastructures.tree.base.NodeProperties;
 import org.processmining.specpp.datastructures.tree.base.NodeState;
-import org.processmining.specpp.supervision.observations.performance.PerformanceEvent;
+import org.processmining.specpp.supervision.observations.performance.PerformanceStatistics;
 import org.processmining.specpp.supervision.observations.performance.TaskDescription;
 
 public class InstrumentedChildGenerationLogic<P extends NodeProperties, S extends NodeState, N extends LocalNode<P, S, N>> extends AbstractInstrumentingDelegator<ChildGenerationLogicComponent<P, S, N>> implements ChildGenerationLogicComponent<P, S, N> {
@@ -13,13 +13,13 @@ public class InstrumentedChildGenerationLogic<P extends NodeProperties, S extend
 
     public InstrumentedChildGenerationLogic(ChildGenerationLogicComponent<P, S, N> delegate) {
         super(delegate);
-        globalComponentSystem().provide(SupervisionRequirements.observable("child_generation_logic.performance", PerformanceEvent.class, timeStopper));
+        globalComponentSystem().provide(SupervisionRequirements.adHocObservable("child_generation_logic.performance", PerformanceStatistics.class, performanceRecorder));
     }
 
     public N generateChild(N parent) {
-        timeStopper.start(CHILD_NODE_GENERATION);
+        long start = performanceRecorder.start(CHILD_NODE_GENERATION);
         N child = delegate.generateChild(parent);
-        timeStopper.stop(CHILD_NODE_GENERATION);
+        performanceRecorder.stop(CHILD_NODE_GENERATION, start);
         return child;
     }
 
@@ -5,7 +5,7 @@ import org.processmining.specpp.base.Result;
 import org.processmining.specpp.componenting.supervision.SupervisionRequirements;
 import org.processmining.specpp.componenting.system.link.ComposerComponent;
 import org.processmining.specpp.componenting.system.link.CompositionComponent;
-import org.processmining.specpp.supervision.observations.performance.PerformanceEvent;
+import org.processmining.specpp.supervision.observations.performance.PerformanceStatistics;
 import org.processmining.specpp.supervision.observations.performance.TaskDescription;
 
 public class InstrumentedComposer<C extends Candidate, I extends CompositionComponent<C>, R extends Result> extends AbstractInstrumentingDelegator<ComposerComponent<C, I, R>> implements ComposerComponent<C, I, R> {
@@ -15,7 +15,7 @@ public class InstrumentedComposer<C extends Candidate, I extends CompositionComp
 
     public InstrumentedComposer(ComposerComponent<C, I, R> delegate) {
         super(delegate);
-        globalComponentSystem().provide(SupervisionRequirements.observable("composer.performance", PerformanceEvent.class, timeStopper));
+        globalComponentSystem().provide(SupervisionRequirements.adHocObservable("composer.performance", PerformanceStatistics.class, performanceRecorder));
     }
 
     public boolean isFinished() {
@@ -27,9 +27,9 @@ public class InstrumentedComposer<C extends Candidate, I extends CompositionComp
     }
 
     public R generateResult() {
-        timeStopper.start(RESULT_GENERATION);
+        long start = System.nanoTime();
         R r = delegate.generateResult();
-        timeStopper.stop(RESULT_GENERATION);
+        performanceRecorder.record(RESULT_GENERATION, System.nanoTime() - start);
         return r;
     }
 
@@ -39,9 +39,9 @@ public class InstrumentedComposer<C extends Candidate, I extends CompositionComp
     }
 
     public void accept(C c) {
-        timeStopper.start(CANDIDATE_COMPOSITION);
+        long start = performanceRecorder.start(CANDIDATE_COMPOSITION);
         delegate.accept(c);
-        timeStopper.stop(CANDIDATE_COMPOSITION);
+        performanceRecorder.stop(CANDIDATE_COMPOSITION, start);
     }
 
 }
@@ -4,7 +4,7 @@ import org.processmining.specpp.componenting.supervision.SupervisionRequirements
 import org.processmining.specpp.componenting.system.link.EfficientTreeComponent;
 import org.processmining.specpp.datastructures.tree.base.TreeNode;
 import org.processmining.specpp.datastructures.tree.base.traits.LocallyExpandable;
-import org.processmining.specpp.supervision.observations.performance.PerformanceEvent;
+import org.processmining.specpp.supervision.observations.performance.PerformanceStatistics;
 import org.processmining.specpp.supervision.observations.performance.TaskDescription;
 
 import java.util.Collection;
@@ -15,7 +15,7 @@ public class InstrumentedEfficientTree<N extends TreeNode & LocallyExpandable<N>
 
     public InstrumentedEfficientTree(EfficientTreeComponent<N> delegate) {
         super(delegate);
-        globalComponentSystem().provide(SupervisionRequirements.observable("tree.performance", PerformanceEvent.class, timeStopper));
+        globalComponentSystem().provide(SupervisionRequirements.adHocObservable("tree.performance", PerformanceStatistics.class, performanceRecorder));
     }
 
     public N getRoot() {
@@ -27,9 +27,9 @@ public class InstrumentedEfficientTree<N extends TreeNode & LocallyExpandable<N>
     }
 
     public N tryExpandingTree() {
-        timeStopper.start(TREE_EXPANSION);
+        long start = performanceRecorder.start(TREE_EXPANSION);
         N n = delegate.tryExpandingTree();
-        timeStopper.stop(TREE_EXPANSION);
+        performanceRecorder.stop(TREE_EXPANSION, start);
         return n;
     }
 
@@ -4,7 +4,7 @@ import org.processmining.specpp.componenting.supervision.SupervisionRequirements
 import org.processmining.specpp.componenting.system.link.ExpansionStrategyComponent;
 import org.processmining.specpp.datastructures.tree.base.TreeNode;
 import org.processmining.specpp.datastructures.tree.base.traits.LocallyExpandable;
-import org.processmining.specpp.supervision.observations.performance.PerformanceEvent;
+import org.processmining.specpp.supervision.observations.performance.PerformanceStatistics;
 import org.processmining.specpp.supervision.observations.performance.TaskDescription;
 
 public class InstrumentedExpansionStrategy<N extends TreeNode & LocallyExpandable<N>> extends AbstractInstrumentingDelegator<ExpansionStrategyComponent<N>> implements ExpansionStrategyComponent<N> {
@@ -13,13 +13,13 @@ public class InstrumentedExpansionStrategy<N extends TreeNode & LocallyExpandabl
 
     public InstrumentedExpansionStrategy(ExpansionStrategyComponent<N> delegate) {
         super(delegate);
-        globalComponentSystem().provide(SupervisionRequirements.observable("tree.strategy.performance", PerformanceEvent.class, timeStopper));
+        globalComponentSystem().provide(SupervisionRequirements.adHocObservable("tree.strategy.performance", PerformanceStatistics.class, performanceRecorder));
     }
 
     public N nextExpansion() {
-        timeStopper.start(TREE_EXPANSION_SELECTION);
+        long start = performanceRecorder.start(TREE_EXPANSION_SELECTION);
         N n = delegate.nextExpansion();
-        timeStopper.stop(TREE_EXPANSION_SELECTION);
+        performanceRecorder.stop(TREE_EXPANSION_SELECTION, start);
         return n;
     }
 
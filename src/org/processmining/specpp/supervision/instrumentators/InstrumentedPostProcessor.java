@@ -6,7 +6,7 @@ import org.processmining.specpp.componenting.system.ComponentSystemAwareBuilder;
 import org.processmining.specpp.componenting.system.link.PostProcessorComponent;
 import org.processmining.specpp.componenting.traits.UsesGlobalComponentSystem;
 import org.processmining.specpp.config.components.SimpleBuilder;
-import org.processmining.specpp.supervision.observations.performance.PerformanceEvent;
+import org.processmining.specpp.supervision.observations.performance.PerformanceStatistics;
 import org.processmining.specpp.supervision.observations.performance.TaskDescription;
 
 public class InstrumentedPostProcessor<R extends Result, F extends Result> extends AbstractInstrumentingDelegator<PostProcessorComponent<R, F>> implements PostProcessorComponent<R, F> {
@@ -17,7 +17,7 @@ public class InstrumentedPostProcessor<R extends Result, F extends Result> exten
         super(postProcessor);
         String fullLabel = "postprocessor." + label;
         task = new TaskDescription(fullLabel);
-        globalComponentSystem().provide(SupervisionRequirements.observable(fullLabel + ".performance", PerformanceEvent.class, timeStopper));
+        globalComponentSystem().provide(SupervisionRequirements.adHocObservable(fullLabel + ".performance", PerformanceStatistics.class, performanceRecorder));
     }
 
     public static class Builder<R extends Result, F extends Result> extends ComponentSystemAwareBuilder<InstrumentedPostProcessor<R, F>> {
@@ -40,9 +40,9 @@ public class InstrumentedPostProcessor<R extends Result, F extends Result> exten
 
     @Override
     public F postProcess(R result) {
-        timeStopper.start(task);
+        long start = System.nanoTime();
         F f = delegate.postProcess(result);
-        timeStopper.stop(task);
+        performanceRecorder.record(task, System.nanoTime() - start);
         return f;
     }
 
@@ -3,7 +3,7 @@ package org.processmining.specpp.supervision.instrumentators;
 import org.processmining.specpp.base.Candidate;
 import org.processmining.specpp.componenting.supervision.SupervisionRequirements;
 import org.processmining.specpp.componenting.system.link.ProposerComponent;
-import org.processmining.specpp.supervision.observations.performance.PerformanceEvent;
+import org.processmining.specpp.supervision.observations.performance.PerformanceStatistics;
 import org.processmining.specpp.supervision.observations.performance.TaskDescription;
 
 public class InstrumentedProposer<C extends Candidate> extends AbstractInstrumentingDelegator<ProposerComponent<C>> implements ProposerComponent<C> {
@@ -11,13 +11,13 @@ public class InstrumentedProposer<C extends Candidate> extends AbstractInstrumen
 
     public InstrumentedProposer(ProposerComponent<C> delegate) {
         super(delegate);
-        globalComponentSystem().provide(SupervisionRequirements.observable("proposer.performance", PerformanceEvent.class, timeStopper));
+        globalComponentSystem().provide(SupervisionRequirements.adHocObservable("proposer.performance", PerformanceStatistics.class, performanceRecorder));
     }
 
     public C proposeCandidate() {
-        timeStopper.start(CANDIDATE_PROPOSAL);
+        long start = performanceRecorder.start(CANDIDATE_PROPOSAL);
         C c = delegate.proposeCandidate();
-        timeStopper.stop(CANDIDATE_PROPOSAL);
+        performanceRecorder.stop(CANDIDATE_PROPOSAL, start);
         return c;
     }
 
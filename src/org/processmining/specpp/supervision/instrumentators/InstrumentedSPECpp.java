@@ -10,9 +10,9 @@ import org.processmining.specpp.componenting.system.link.ComposerComponent;
 import org.processmining.specpp.componenting.system.link.CompositionComponent;
 import org.processmining.specpp.componenting.system.link.ProposerComponent;
 import org.processmining.specpp.supervision.Supervisor;
-import org.processmining.specpp.supervision.observations.performance.PerformanceEvent;
+import org.processmining.specpp.supervision.observations.performance.PerformanceStatistics;
 import org.processmining.specpp.supervision.observations.performance.TaskDescription;
-import org.processmining.specpp.supervision.observations.performance.TimeStopper;
+import org.processmining.specpp.supervision.observations.performance.PerformanceRecorder;
 
 import java.util.List;
 
@@ -21,26 +21,26 @@ public class InstrumentedSPECpp<C extends Candidate, I extends CompositionCompon
     public static final TaskDescription PEC_CYCLE = new TaskDescription("PEC Cycle");
     public static final TaskDescription TOTAL_CYCLING = new TaskDescription("Total PEC Cycling");
 
-    private final TimeStopper timeStopper = new TimeStopper();
+    private final PerformanceRecorder performanceRecorder = new PerformanceRecorder();
 
 
     public InstrumentedSPECpp(GlobalComponentRepository cr, List<Supervisor> supervisors, ProposerComponent<C> proposer, ComposerComponent<C, I, R> composer, PostProcessingPipeline<R, F> postProcessor) {
         super(cr, supervisors, proposer, composer, postProcessor);
-        globalComponentSystem().provide(SupervisionRequirements.observable("pec.performance", PerformanceEvent.class, timeStopper));
+        globalComponentSystem().provide(SupervisionRequirements.adHocObservable("pec.performance", PerformanceStatistics.class, performanceRecorder));
     }
 
     @Override
     protected void executeAllPECCycles() {
-        timeStopper.start(TOTAL_CYCLING);
+        long start = System.nanoTime();
         super.executeAllPECCycles();
-        timeStopper.stop(TOTAL_CYCLING);
+        performanceRecorder.record(TOTAL_CYCLING, System.nanoTime() - start);
     }
 
     @Override
     public boolean executePECCycle() {
-        timeStopper.start(PEC_CYCLE);
+        long start = performanceRecorder.start(PEC_CYCLE);
         boolean stop = super.executePECCycle();
-        timeStopper.stop(PEC_CYCLE);
+        performanceRecorder.stop(PEC_CYCLE, start);
         return stop;
     }
 
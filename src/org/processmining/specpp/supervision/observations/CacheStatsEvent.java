@@ -0,0 +1,47 @@
+package org.processmining.specpp.supervision.observations;
+
+public class CacheStatsEvent implements Event {
+
+    private final long hitCount, missCount, evictionCount;
+    private final int size;
+    private final long weight;
+
+    public CacheStatsEvent(long hitCount, long missCount, long evictionCount, int size, long weight) {
+        this.hitCount = hitCount;
+        this.missCount = missCount;
+        this.evictionCount = evictionCount;
+        this.size = size;
+        this.weight = weight;
+    }
+
+    public long getHitCount() {
+        return hitCount;
+    }
+
+    public long getMissCount() {
+        return missCount;
+    }
+
+    public long getEvictionCount() {
+        return evictionCount;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public long getWeight() {
+        return weight;
+    }
+
+    public double getHitRate() {
+        long requests = hitCount + missCount;
+        return requests == 0 ? 1.0 : (double) hitCount / requests;
+    }
+
+    @Override
+    public String toString() {
+        return "CacheStats(" + "hits=" + hitCount + ", misses=" + missCount + ", evictions=" + evictionCount + ", size=" + size + ", weight=" + weight + ")";
+    }
+
+}
@@ -0,0 +1,141 @@
+package org.processmining.specpp.supervision.observations.performance;
+
+import java.time.Duration;
+import java.util.Arrays;
+
+import static org.processmining.specpp.supervision.observations.performance.PerformanceStatistic.durationToString;
+
+/**
+ * Mergeable latency histogram over nanosecond durations with a fixed, log-linear bucket layout in the spirit of HdrHistogram.
+ * Durations below {@value #SUB_BUCKET_COUNT}ns get a bucket each, larger ones share one of {@value #SUB_BUCKET_COUNT} equally wide buckets per power of two, which bounds the relative error of quantiles by {@code 1/SUB_BUCKET_COUNT}.
+ * Count, sum, minimum and maximum are tracked exactly. Measurements can be recorded with a weight, e.g., the sampling interval they represent.
+ */
+public class LatencyHistogram implements PerformanceStatistic {
+
+    private static final int SUB_BUCKET_BITS = 5;
+    public static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKET_COUNT = SUB_BUCKET_COUNT + (Long.SIZE - 1 - SUB_BUCKET_BITS) * SUB_BUCKET_COUNT;
+
+    private long[] counts;
+    private long n, sum;
+    private long min = Long.MAX_VALUE, max = Long.MIN_VALUE;
+
+    static int bucketIndex(long nanos) {
+        if (nanos < SUB_BUCKET_COUNT) return (int) Math.max(nanos, 0);
+        int exponent = Long.SIZE - 1 - Long.numberOfLeadingZeros(nanos);
+        int shift = exponent - SUB_BUCKET_BITS;
+        return SUB_BUCKET_COUNT + shift * SUB_BUCKET_COUNT + (int) ((nanos >>> shift) - SUB_BUCKET_COUNT);
+    }
+
+    /**
+     * @return the midpoint of the range of durations falling into bucket {@code index}
+     */
+    static long bucketValue(int index) {
+        if (index < SUB_BUCKET_COUNT) return index;
+        int shift = (index - SUB_BUCKET_COUNT) / SUB_BUCKET_COUNT;
+        long lower = (long) (SUB_BUCKET_COUNT + (index - SUB_BUCKET_COUNT) % SUB_BUCKET_COUNT) << shift;
+        return lower + ((1L << shift) >>> 1);
+    }
+
+    public void record(long nanos) {
+        record(nanos, 1);
+    }
+
+    public void record(long nanos, long weight) {
+        if (counts == null) counts = new long[BUCKET_COUNT];
+        counts[bucketIndex(nanos)] += weight;
+        n += weight;
+        sum += nanos * weight;
+        if (nanos < min) min = nanos;
+        if (nanos > max) max = nanos;
+    }
+
+    @Override
+    public void record(PerformanceMeasurement measurement) {
+        record(measurement.getDuration().toNanos());
+    }
+
+    /**
+     * @param quantile in [0, 1]
+     * @return the approximate duration below which the given fraction of the recorded measurements lies
+     */
+    public Duration quantile(double quantile) {
+        if (n == 0) return Duration.ZERO;
+        long rank = Math.max(1, (long) Math.ceil(quantile * n));
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= rank) return Duration.ofNanos(Math.max(min, Math.min(max, bucketValue(i))));
+        }
+        return Duration.ofNanos(max);
+    }
+
+    public void reset() {
+        if (counts != null) Arrays.fill(counts, 0);
+        n = 0;
+        sum = 0;
+        min = Long.MAX_VALUE;
+        max = Long.MIN_VALUE;
+    }
+
+    public boolean isEmpty() {
+        return n == 0;
+    }
+
+    @Override
+    public Duration min() {
+        return Duration.ofNanos(n > 0 ? min : 0);
+    }
+
+    @Override
+    public Duration max() {
+        return Duration.ofNanos(n > 0 ? max : 0);
+    }
+
+    @Override
+    public Duration avg() {
+        return Duration.ofNanos(n > 0 ? sum / n : 0);
+    }
+
+    @Override
+    public Duration sum() {
+        return Duration.ofNanos(sum);
+    }
+
+    @Override
+    public long N() {
+        return n;
+    }
+
+    @Override
+    public void merge(PerformanceStatistic other) {
+        if (!(other instanceof LatencyHistogram)) return;
+        LatencyHistogram h = (LatencyHistogram) other;
+        if (h.n == 0) return;
+        if (counts == null) counts = new long[BUCKET_COUNT];
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            counts[i] += h.counts[i];
+        }
+        n += h.n;
+        sum += h.sum;
+        min = Math.min(min, h.min);
+        max = Math.max(max, h.max);
+    }
+
+    @Override
+    public int rate() {
+        return n > 0 && sum > 0 ? (int) (1e9 * n / sum) : 0;
+    }
+
+    @Override
+    public String toString() {
+        return toPrettyString();
+    }
+
+    @Override
+    public String toPrettyString() {
+        return "{\u03BC=" + durationToString(avg()) + "ms" + " (" + durationToString(min()) + "ms-" + durationToString(max()) + "ms), p50=" + durationToString(quantile(0.5)) + "ms, p99=" + durationToString(quantile(0.99)) + "ms, \u03A3=" + sum().toString()
+                                                                                                                                                                                                                                        .substring(2) + ", N=" + n + ", " + rate() + "it/s" + "}";
+    }
+
+}
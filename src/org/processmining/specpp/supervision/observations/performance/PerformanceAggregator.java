@@ -0,0 +1,60 @@
+package org.processmining.specpp.supervision.observations.performance;
+
+import org.processmining.specpp.componenting.delegators.Container;
+import org.processmining.specpp.supervision.piping.AbstractAsyncAwareObservable;
+import org.processmining.specpp.supervision.piping.AdHocObservable;
+import org.processmining.specpp.supervision.piping.Observer;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Collects the ad hoc performance observables of instrumented components, typically {@link PerformanceRecorder}s, and merges their summaries into one whenever triggered.
+ * Individually published {@link PerformanceEvent}s, e.g., of a {@link TimeStopper}, are observed as well and recorded into the same summary.
+ * The sampling interval is forwarded to all collected recorders.
+ */
+public class PerformanceAggregator extends AbstractAsyncAwareObservable<PerformanceStatistics> implements AdHocObservable<PerformanceStatistics>, Container<AdHocObservable<PerformanceStatistics>>, Observer<PerformanceEvent> {
+
+    private final List<AdHocObservable<PerformanceStatistics>> sources = new CopyOnWriteArrayList<>();
+    private final PerformanceRecorder eventRecorder = new PerformanceRecorder();
+    private volatile int samplingInterval = 1;
+
+    public void setSamplingInterval(int samplingInterval) {
+        this.samplingInterval = samplingInterval;
+        for (AdHocObservable<PerformanceStatistics> source : sources) {
+            if (source instanceof PerformanceRecorder)
+                ((PerformanceRecorder) source).setSamplingInterval(samplingInterval);
+        }
+    }
+
+    @Override
+    public void addContent(AdHocObservable<PerformanceStatistics> content) {
+        if (content instanceof PerformanceRecorder) ((PerformanceRecorder) content).setSamplingInterval(samplingInterval);
+        sources.add(content);
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return sources.isEmpty();
+    }
+
+    @Override
+    public boolean isFull() {
+        return false;
+    }
+
+    @Override
+    public void observe(PerformanceEvent observation) {
+        eventRecorder.record(observation.getTask(), observation.getMeasurement().getDuration().toNanos());
+    }
+
+    @Override
+    public PerformanceStatistics computeObservation() {
+        PerformanceStatistics summary = eventRecorder.computeObservation();
+        for (AdHocObservable<PerformanceStatistics> source : sources) {
+            summary.merge(source.computeObservation());
+        }
+        return summary;
+    }
+
+}
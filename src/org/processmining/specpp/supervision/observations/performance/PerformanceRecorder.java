@@ -0,0 +1,128 @@
+package org.processmining.specpp.supervision.observations.performance;
+
+import org.processmining.specpp.supervision.piping.AbstractAsyncAwareObservable;
+import org.processmining.specpp.supervision.piping.AdHocObservable;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Low overhead, thread-safe replacement of {@link TimeStopper} and {@link ConcurrentTimeStopper}.
+ * Measurements are taken with {@link System#nanoTime()} and aggregated into {@link LatencyHistogram}s per task in a stripe owned by the measuring thread, so no event is allocated or published per measurement.
+ * Supervisors periodically drain all stripes into one {@link PerformanceStatistics} summary via {@link #computeObservation()}.
+ * <p>
+ * With a sampling interval of {@code k > 1}, only the first and then every k-th measurement of a task per thread is taken and recorded with weight k, such that counts, sums and rates remain estimates of the unsampled ones.
+ * <pre>{@code
+ * long start = recorder.start(TASK);
+ * work();
+ * recorder.stop(TASK, start);
+ * }</pre>
+ */
+public class PerformanceRecorder extends AbstractAsyncAwareObservable<PerformanceStatistics> implements AdHocObservable<PerformanceStatistics> {
+
+    /**
+     * Returned by {@link #start()} if the measurement is skipped due to sampling.
+     */
+    public static final long NOT_SAMPLED = Long.MIN_VALUE;
+
+    private final Queue<Stripe> stripes = new ConcurrentLinkedQueue<>();
+    private final ThreadLocal<Stripe> stripe = ThreadLocal.withInitial(this::createStripe);
+    private volatile int samplingInterval;
+
+    public PerformanceRecorder() {
+        this(1);
+    }
+
+    public PerformanceRecorder(int samplingInterval) {
+        setSamplingInterval(samplingInterval);
+    }
+
+    public void setSamplingInterval(int samplingInterval) {
+        this.samplingInterval = Math.max(1, samplingInterval);
+    }
+
+    public int getSamplingInterval() {
+        return samplingInterval;
+    }
+
+    private Stripe createStripe() {
+        Stripe s = new Stripe();
+        stripes.add(s);
+        return s;
+    }
+
+    /**
+     * @return the start timestamp to pass to {@link #stop(TaskDescription, long)}, or {@link #NOT_SAMPLED}
+     */
+    public long start(TaskDescription task) {
+        int interval = samplingInterval;
+        if (interval > 1 && stripe.get().skip(task, interval)) return NOT_SAMPLED;
+        return System.nanoTime();
+    }
+
+    public void stop(TaskDescription task, long start) {
+        if (start == NOT_SAMPLED) return;
+        long elapsed = System.nanoTime() - start;
+        stripe.get().record(task, elapsed, samplingInterval);
+    }
+
+    /**
+     * Records an externally taken measurement without sampling, e.g., of tasks which only run once.
+     */
+    public void record(TaskDescription task, long nanos) {
+        stripe.get().record(task, nanos, 1);
+    }
+
+    /**
+     * Drains the measurements recorded since the last call.
+     */
+    @Override
+    public PerformanceStatistics computeObservation() {
+        Map<TaskDescription, PerformanceStatistic> summary = new HashMap<>();
+        for (Stripe s : stripes) {
+            s.drainInto(summary);
+        }
+        return new PerformanceStatistics(summary);
+    }
+
+    private static class Stripe {
+
+        private final Map<TaskDescription, LatencyHistogram> histograms = new HashMap<>();
+        /**
+         * remaining measurements to skip per task, only accessed by the owning thread
+         */
+        private final Map<TaskDescription, int[]> skips = new HashMap<>();
+
+        private boolean skip(TaskDescription task, int interval) {
+            int[] remaining = skips.computeIfAbsent(task, t -> new int[1]);
+            if (remaining[0] > 0) {
+                remaining[0]--;
+                return true;
+            }
+            remaining[0] = interval - 1;
+            return false;
+        }
+
+        private synchronized void record(TaskDescription task, long nanos, long weight) {
+            LatencyHistogram histogram = histograms.get(task);
+            if (histogram == null) {
+                histogram = new LatencyHistogram();
+                histograms.put(task, histogram);
+            }
+            histogram.record(nanos, weight);
+        }
+
+        private synchronized void drainInto(Map<TaskDescription, PerformanceStatistic> summary) {
+            for (Map.Entry<TaskDescription, LatencyHistogram> entry : histograms.entrySet()) {
+                LatencyHistogram histogram = entry.getValue();
+                if (histogram.isEmpty()) continue;
+                summary.computeIfAbsent(entry.getKey(), t -> new LatencyHistogram()).merge(histogram);
+                histogram.reset();
+            }
+        }
+
+    }
+
+}
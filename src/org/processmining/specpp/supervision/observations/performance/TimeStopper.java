@@ -8,6 +8,9 @@ import java.time.ZoneOffset;
 import java.util.HashMap;
 import java.util.Map;
 
+/**
+ * Publishes one {@link PerformanceEvent} per measurement. Prefer the aggregating {@link PerformanceRecorder} for frequently executed tasks.
+ */
 public class TimeStopper extends AbstractAsyncAwareObservable<PerformanceEvent> {
 
     private final Map<TaskDescription, Long> running;
@@ -19,13 +22,13 @@ public class TimeStopper extends AbstractAsyncAwareObservable<PerformanceEvent>
 
 
     public void start(TaskDescription taskDescription) {
-        running.put(taskDescription, System.currentTimeMillis());
+        running.put(taskDescription, System.nanoTime());
     }
 
     public void stop(TaskDescription taskDescription) {
-        long stop = System.currentTimeMillis();
+        long stop = System.nanoTime();
         long start = running.remove(taskDescription);
-        publish(new PerformanceEvent(taskDescription, new PerformanceMeasurement(Duration.ofMillis(stop - start))));
+        publish(new PerformanceEvent(taskDescription, new PerformanceMeasurement(Duration.ofNanos(stop - start))));
     }
 
 }
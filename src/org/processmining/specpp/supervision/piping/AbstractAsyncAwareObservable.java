@@ -2,25 +2,24 @@ package org.processmining.specpp.supervision.piping;
 
 import org.processmining.specpp.supervision.observations.Observation;
 
-import java.util.LinkedList;
 import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 public class AbstractAsyncAwareObservable<O extends Observation> extends AbstractObservable<O> implements AsyncAwareObservable<O> {
 
-    private final List<AsyncObserver<O>> asyncObservers;
-    private final List<Observer<O>> nonAsyncObservers;
+    private final CopyOnWriteArrayList<AsyncObserver<O>> asyncObservers;
+    private final CopyOnWriteArrayList<Observer<O>> nonAsyncObservers;
 
     public AbstractAsyncAwareObservable() {
-        asyncObservers = new LinkedList<>();
-        nonAsyncObservers = new LinkedList<>();
+        asyncObservers = new CopyOnWriteArrayList<>();
+        nonAsyncObservers = new CopyOnWriteArrayList<>();
     }
 
     @Override
     public void addObserver(Observer<O> observer) {
         super.addObserver(observer);
-        if (observer instanceof AsyncObserver && !asyncObservers.contains(observer))
-            asyncObservers.add(((AsyncObserver<O>) observer));
-        else if (!nonAsyncObservers.contains(observer)) nonAsyncObservers.add(observer);
+        if (observer instanceof AsyncObserver) asyncObservers.addIfAbsent((AsyncObserver<O>) observer);
+        else nonAsyncObservers.addIfAbsent(observer);
     }
 
     @Override
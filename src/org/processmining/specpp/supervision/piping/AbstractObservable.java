@@ -3,21 +3,19 @@ package org.processmining.specpp.supervision.piping;
 import org.processmining.specpp.supervision.observations.Observation;
 
 import java.util.Collection;
-import java.util.LinkedList;
-import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 public abstract class AbstractObservable<O extends Observation> implements Observable<O> {
 
-    private final List<Observer<O>> observers;
+    private final CopyOnWriteArrayList<Observer<O>> observers;
 
     public AbstractObservable() {
-        observers = new LinkedList<>();
+        observers = new CopyOnWriteArrayList<>();
     }
 
     @Override
     public void addObserver(Observer<O> observer) {
-        if (!observers.contains(observer))
-            observers.add(observer);
+        observers.addIfAbsent(observer);
     }
 
     @Override
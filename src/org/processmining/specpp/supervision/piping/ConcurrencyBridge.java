@@ -3,38 +3,36 @@ package org.processmining.specpp.supervision.piping;
 import org.processmining.specpp.supervision.observations.Observation;
 import org.processmining.specpp.supervision.traits.RequiresSupportingTask;
 
-import java.util.concurrent.LinkedBlockingQueue;
-
+/**
+ * Hands observations over from arbitrary publishing threads to the thread running its supporting task, which republishes them in batches.
+ * The hand-over goes through a preallocated {@link RingBuffer}, i.e., publishers do not allocate. If the buffer is full, publishers apply the configured {@link RingBuffer.OverflowPolicy}.
+ */
 public class ConcurrencyBridge<O extends Observation> extends AbstractAsyncAwareObservable<O> implements TypeIdentPipe<O>, RequiresSupportingTask {
 
-    private final LinkedBlockingQueue<O> blockingQueue;
+    private final RingBuffer<O> ringBuffer;
     private final Runnable bufferClearingTask;
 
     public ConcurrencyBridge() {
-        blockingQueue = new LinkedBlockingQueue<>();
+        this(RingBuffer.DEFAULT_CAPACITY, RingBuffer.OverflowPolicy.BLOCK);
+    }
+
+    public ConcurrencyBridge(int capacity, RingBuffer.OverflowPolicy overflowPolicy) {
+        ringBuffer = new RingBuffer<>(capacity, overflowPolicy);
         bufferClearingTask = this::continuousBufferClearing;
     }
 
 
     @Override
     public void observe(O observation) {
-        blockingQueue.offer(observation);
+        if (observation != null) ringBuffer.offer(observation);
     }
 
     private void continuousBufferClearing() {
-        while (true) {
-            try {
-                O poll = blockingQueue.take();
-                publish(poll);
-                while (poll != null && !blockingQueue.isEmpty()) {
-                    poll = blockingQueue.poll();
-                    publish(poll);
-                }
-                Thread.yield();
-            } catch (InterruptedException ignored) {
-                break;
-            }
-        }
+        ringBuffer.consume(this::publish);
+    }
+
+    public long getDroppedCount() {
+        return ringBuffer.getDroppedCount();
     }
 
     @Override
@@ -44,6 +42,6 @@ public class ConcurrencyBridge<O extends Observation> extends AbstractAsyncAware
 
     @Override
     public String toString() {
-        return "ConcurrencyBridge(" + "|Q|=" + blockingQueue.size() + ")";
+        return "ConcurrencyBridge(" + "|Q|=" + ringBuffer.size() + ", dropped=" + ringBuffer.getDroppedCount() + ")";
     }
 }
@@ -95,6 +95,10 @@ public class PipeWorks {
         return new ConcurrencyBridge<>();
     }
 
+    public static <O extends Observation> ConcurrencyBridge<O> concurrencyBridge(int capacity, RingBuffer.OverflowPolicy overflowPolicy) {
+        return new ConcurrencyBridge<>(capacity, overflowPolicy);
+    }
+
 
     public static <O extends Observation> BufferPipe<O> countingBuffer(int threshold) {
         return new CountingBufferPipe<>(threshold);
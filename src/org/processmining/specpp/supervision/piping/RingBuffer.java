@@ -0,0 +1,169 @@
+package org.processmining.specpp.supervision.piping;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+/**
+ * Bounded multi-producer/single-consumer ring buffer over a preallocated array of slots, in the spirit of the LMAX disruptor.
+ * Producers claim slots with a single CAS and never allocate. The consumer drains all available elements in batches.
+ * <p>
+ * If the buffer is full, producers either wait for the consumer to catch up ({@link OverflowPolicy#BLOCK}) or drop the element ({@link OverflowPolicy#DROP}). Dropped elements are counted.
+ * Producers only wait while a consumer is attached via {@link #consume(Consumer)}, such that a buffer nobody drains can never stall its producers.
+ *
+ * @param <E> the element type
+ */
+public class RingBuffer<E> {
+
+    public enum OverflowPolicy {
+        BLOCK, DROP
+    }
+
+    public static final int DEFAULT_CAPACITY = 1 << 14;
+    public static final int DEFAULT_BATCH_SIZE = 1 << 8;
+
+    private static final long PARK_NANOS = 1_000_000;
+    private static final long BACKOFF_NANOS = 10_000;
+
+    private final int capacity, mask;
+    private final AtomicReferenceArray<E> slots;
+    /**
+     * Vyukov style sequence numbers: slot i is writable at position p iff sequences[i] == p, and readable iff sequences[i] == p + 1
+     */
+    private final AtomicLongArray sequences;
+    private final AtomicLong tail = new AtomicLong();
+    private volatile long head;
+    private final OverflowPolicy overflowPolicy;
+    private final LongAdder dropped = new LongAdder();
+
+    private volatile Thread consumerThread;
+    private volatile boolean consumerWaiting;
+
+    public RingBuffer() {
+        this(DEFAULT_CAPACITY, OverflowPolicy.BLOCK);
+    }
+
+    /**
+     * @param capacity is rounded up to the next power of two
+     */
+    public RingBuffer(int capacity, OverflowPolicy overflowPolicy) {
+        if (capacity < 1) throw new IllegalArgumentException("capacity must be positive");
+        this.capacity = capacity > 1 ? Integer.highestOneBit(capacity - 1) << 1 : 1;
+        this.mask = this.capacity - 1;
+        this.overflowPolicy = overflowPolicy;
+        slots = new AtomicReferenceArray<>(this.capacity);
+        sequences = new AtomicLongArray(this.capacity);
+        for (int i = 0; i < this.capacity; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    /**
+     * @return whether the element was stored, i.e., not dropped
+     */
+    public boolean offer(E element) {
+        while (!tryOffer(element)) {
+            if (overflowPolicy == OverflowPolicy.DROP || consumerThread == null || Thread.currentThread() == consumerThread) {
+                dropped.increment();
+                return false;
+            }
+            wakeConsumer();
+            LockSupport.parkNanos(this, BACKOFF_NANOS);
+        }
+        if (consumerWaiting) wakeConsumer();
+        return true;
+    }
+
+    private boolean tryOffer(E element) {
+        while (true) {
+            long pos = tail.get();
+            int index = (int) pos & mask;
+            long dif = sequences.get(index) - pos;
+            if (dif == 0) {
+                if (tail.compareAndSet(pos, pos + 1)) {
+                    slots.lazySet(index, element);
+                    sequences.lazySet(index, pos + 1);
+                    return true;
+                }
+            } else if (dif < 0) return false;
+        }
+    }
+
+    private void wakeConsumer() {
+        Thread t = consumerThread;
+        if (t != null) LockSupport.unpark(t);
+    }
+
+    /**
+     * Hands up to {@code maxBatch} buffered elements to {@code action} in FIFO order.
+     *
+     * @return the number of drained elements
+     */
+    public synchronized int drainTo(Consumer<? super E> action, int maxBatch) {
+        long pos = head;
+        int n = 0;
+        while (n < maxBatch) {
+            int index = (int) pos & mask;
+            if (sequences.get(index) != pos + 1) break;
+            E element = slots.get(index);
+            slots.lazySet(index, null);
+            sequences.lazySet(index, pos + capacity);
+            head = ++pos;
+            n++;
+            action.accept(element);
+        }
+        return n;
+    }
+
+    public int drainTo(Consumer<? super E> action) {
+        return drainTo(action, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Continuously drains this buffer into {@code action} on the calling thread until it is interrupted. Remaining elements are drained before returning.
+     */
+    public void consume(Consumer<? super E> action) {
+        consumerThread = Thread.currentThread();
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                if (drainTo(action, DEFAULT_BATCH_SIZE) > 0) continue;
+                consumerWaiting = true;
+                if (isEmpty()) LockSupport.parkNanos(this, PARK_NANOS);
+                consumerWaiting = false;
+            }
+        } finally {
+            consumerThread = null;
+            consumerWaiting = false;
+            drainTo(action);
+        }
+    }
+
+    public int size() {
+        return (int) Math.max(0, Math.min(capacity, tail.get() - head));
+    }
+
+    public boolean isEmpty() {
+        return tail.get() == head;
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    public OverflowPolicy getOverflowPolicy() {
+        return overflowPolicy;
+    }
+
+    public long getDroppedCount() {
+        return dropped.sum();
+    }
+
+    @Override
+    public String toString() {
+        return "RingBuffer(" + size() + "/" + capacity + ", " + overflowPolicy + ", dropped=" + getDroppedCount() + ")";
+    }
+
+}
@@ -10,7 +10,7 @@ import org.processmining.specpp.datastructures.tree.events.TreeHeuristicQueueing
 import org.processmining.specpp.datastructures.tree.events.TreeHeuristicsEvent;
 import org.processmining.specpp.datastructures.tree.heuristic.DoubleScore;
 import org.processmining.specpp.datastructures.tree.nodegen.PlaceNode;
-import org.processmining.specpp.supervision.CSVWriter;
+import org.processmining.specpp.supervision.GroupCommitCSVWriter;
 import org.processmining.specpp.supervision.MessageLogger;
 import org.processmining.specpp.supervision.monitoring.TimeSeriesMonitor;
 import org.processmining.specpp.supervision.observations.TimedObservation;
@@ -25,8 +25,8 @@ public class DetailedHeuristicsSupervisor extends FileWritingMonitoringSuperviso
 
     private final DelegatingAdHocObservable<HeuristicStatsEvent> heuristicStats = new DelegatingAdHocObservable<>();
     private final DelegatingObservable<TreeHeuristicsEvent> heuristicsEvents = new DelegatingObservable<>();
-    private CSVWriter<TreeHeuristicQueueingEvent<PlaceNode>> queueSizeExporter;
-    private CSVWriter<TimedObservation<HeuristicComputationEvent<DoubleScore>>> heuristicsExporter;
+    private GroupCommitCSVWriter<TreeHeuristicQueueingEvent<PlaceNode>> queueSizeExporter;
+    private GroupCommitCSVWriter<TimedObservation<HeuristicComputationEvent<DoubleScore>>> heuristicsExporter;
 
     public DetailedHeuristicsSupervisor() {
         globalComponentSystem().require(SupervisionRequirements.observable("heuristics.events", JavaTypingUtils.<HeuristicComputationEvent<DoubleScore>>castClass(HeuristicComputationEvent.class)), heuristicsEvents)
@@ -39,10 +39,10 @@ public class DetailedHeuristicsSupervisor extends FileWritingMonitoringSuperviso
         if (supervisionParametersSource.getData().isUseUseFiles()) {
             OutputPathParameters outputPathParameters = pathParametersSource.getData();
 
-            queueSizeExporter = new CSVWriter<>(outputPathParameters.getFilePath(PathTools.OutputFileType.CSV_EXPORT, "queue"), new String[]{"time", "place", "change", "queue.size delta"}, e -> new String[]{LocalDateTime.now().toString(), e.getSource()
+            queueSizeExporter = new GroupCommitCSVWriter<>(outputPathParameters.getFilePath(PathTools.OutputFileType.CSV_EXPORT, "queue"), new String[]{"time", "place", "change", "queue.size delta"}, e -> new String[]{LocalDateTime.now().toString(), e.getSource()
                                                                                                                                                                                                                                                 .getProperties().toString(), e.getClass().getSimpleName(), Integer.toString(e.getDelta())});
 
-            heuristicsExporter = new CSVWriter<>(outputPathParameters.getFilePath(PathTools.OutputFileType.CSV_EXPORT, "heuristics"), new String[]{"time", "candidate", "score"}, e -> new String[]{e.getLocalDateTime().toString(), e.getObservation()
+            heuristicsExporter = new GroupCommitCSVWriter<>(outputPathParameters.getFilePath(PathTools.OutputFileType.CSV_EXPORT, "heuristics"), new String[]{"time", "candidate", "score"}, e -> new String[]{e.getLocalDateTime().toString(), e.getObservation()
                                                                                                                                                                                                                                       .getSource().toString(), e.getObservation()
                                                                                                                                                                                                                                                                 .getHeuristic().toString()});
 
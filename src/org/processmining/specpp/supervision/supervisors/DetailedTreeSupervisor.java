@@ -7,7 +7,7 @@ import org.processmining.specpp.datastructures.tree.events.LeafEvent;
 import org.processmining.specpp.datastructures.tree.events.TreeEvent;
 import org.processmining.specpp.datastructures.tree.events.TreeStatsEvent;
 import org.processmining.specpp.datastructures.tree.nodegen.PlaceNode;
-import org.processmining.specpp.supervision.CSVWriter;
+import org.processmining.specpp.supervision.GroupCommitCSVWriter;
 import org.processmining.specpp.supervision.monitoring.TimeSeriesMonitor;
 import org.processmining.specpp.supervision.observations.EventCountStatistics;
 import org.processmining.specpp.supervision.piping.PipeWorks;
@@ -21,7 +21,7 @@ public class DetailedTreeSupervisor extends FileWritingMonitoringSupervisor {
     private final DelegatingObservable<TreeEvent> treeEvents = new DelegatingObservable<>();
     private final DelegatingObservable<EventCountStatistics> treeCounts = new DelegatingObservable<>();
     private final DelegatingAdHocObservable<TreeStatsEvent> treeStats = new DelegatingAdHocObservable<>();
-    private CSVWriter<LeafEvent<PlaceNode>> leafCountChangesWriter;
+    private GroupCommitCSVWriter<LeafEvent<PlaceNode>> leafCountChangesWriter;
 
     public DetailedTreeSupervisor() {
         globalComponentSystem().require(SupervisionRequirements.observable("tree.events", TreeEvent.class), treeEvents)
@@ -33,7 +33,7 @@ public class DetailedTreeSupervisor extends FileWritingMonitoringSupervisor {
     protected void instantiateObservationHandlingFullySatisfied() {
         if (supervisionParametersSource.getData().isUseUseFiles()) {
 
-            leafCountChangesWriter = new CSVWriter<>(pathParametersSource.getData()
+            leafCountChangesWriter = new GroupCommitCSVWriter<>(pathParametersSource.getData()
                                                                          .getFilePath(PathTools.OutputFileType.CSV_EXPORT, "tree"), new String[]{"time", "place", "change", "tree.leaves.count delta"}, e -> new String[]{LocalDateTime.now().toString(), e.getSource()
                                                                                                                                                                                                                                                            .getProperties().toString(), e.getClass().getSimpleName(), Integer.toString(e.getDelta())});
 
@@ -1,36 +1,54 @@
 package org.processmining.specpp.supervision.supervisors;
 
 import org.processmining.specpp.componenting.delegators.ContainerUtils;
+import org.processmining.specpp.componenting.delegators.DelegatingAdHocObservable;
 import org.processmining.specpp.supervision.monitoring.PerformanceStatisticsMonitor;
+import org.processmining.specpp.supervision.observations.CacheStatsEvent;
+import org.processmining.specpp.supervision.observations.performance.PerformanceAggregator;
 import org.processmining.specpp.supervision.observations.performance.PerformanceEvent;
 import org.processmining.specpp.supervision.observations.performance.PerformanceStatistics;
-import org.processmining.specpp.supervision.piping.ConcurrencyBridge;
 import org.processmining.specpp.supervision.piping.PipeWorks;
-import org.processmining.specpp.supervision.transformers.Transformers;
 
-import static org.processmining.specpp.componenting.supervision.SupervisionRequirements.observable;
-import static org.processmining.specpp.componenting.supervision.SupervisionRequirements.regex;
+import static org.processmining.specpp.componenting.supervision.SupervisionRequirements.*;
 
 public class PerformanceSupervisor extends MonitoringSupervisor {
 
-    private final ConcurrencyBridge<PerformanceEvent> performanceEventConcurrencyBridge = PipeWorks.concurrencyBridge();
+    private final PerformanceAggregator performanceAggregator = new PerformanceAggregator();
+    private final DelegatingAdHocObservable<CacheStatsEvent> fitnessCacheStats = new DelegatingAdHocObservable<>();
+    private final DelegatingAdHocObservable<CacheStatsEvent> markingHistoriesCacheStats = new DelegatingAdHocObservable<>();
 
     public PerformanceSupervisor() {
-        globalComponentSystem().require(observable(regex("^.+\\.performance$"), PerformanceEvent.class), ContainerUtils.observeResults(performanceEventConcurrencyBridge));
+        globalComponentSystem().require(adHocObservable(regex("^.+\\.performance$"), PerformanceStatistics.class), performanceAggregator)
+                               .require(observable(regex("^.+\\.performance$"), PerformanceEvent.class), ContainerUtils.observeResults(performanceAggregator))
+                               .require(adHocObservable("fitness_cache.stats", CacheStatsEvent.class), fitnessCacheStats)
+                               .require(adHocObservable("marking_histories_cache.stats", CacheStatsEvent.class), markingHistoriesCacheStats);
 
         createMonitor("performance", new PerformanceStatisticsMonitor());
     }
 
     @Override
     protected void instantiateObservationHandlingFullySatisfied() {
-        beginLaying().source(performanceEventConcurrencyBridge)
-                     .giveBackgroundThread()
-                     .pipe(PipeWorks.summarizingBuffer(Transformers.lightweightPerformanceEventSummarizer()))
+        performanceAggregator.setSamplingInterval(supervisionParametersSource.getData()
+                                                                             .getPerformanceSamplingInterval());
+        beginLaying().source(performanceAggregator)
                      .schedule(RefreshRates.REFRESH_INTERVAL)
                      .sinks(PipeWorks.loggingSinks(RefreshRates.REFRESH_STRING + " performance", PerformanceStatistics::toPrettyString, consoleLogger, fileLogger))
                      .pipe(PipeWorks.accumulatingPipe(PerformanceStatistics::new))
                      .sinks(PipeWorks.loggingSinks("performance.accumulation", PerformanceStatistics::toPrettyString, consoleLogger, fileLogger))
                      .sink(getMonitor("performance"))
                      .apply();
+        layCacheStatsPipe("fitness_cache", fitnessCacheStats);
+        layCacheStatsPipe("marking_histories_cache", markingHistoriesCacheStats);
+    }
+
+    /**
+     * Periodically logs the statistics of a cache, if the configured components provide one under this label.
+     */
+    private void layCacheStatsPipe(String label, DelegatingAdHocObservable<CacheStatsEvent> cacheStats) {
+        if (!cacheStats.isSet()) return;
+        beginLaying().source(cacheStats)
+                     .schedule(RefreshRates.REFRESH_INTERVAL)
+                     .sinks(PipeWorks.loggingSinks(RefreshRates.REFRESH_STRING + " " + label + ".stats", consoleLogger, fileLogger))
+                     .apply();
     }
 }
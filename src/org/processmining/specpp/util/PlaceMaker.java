@@ -4,10 +4,12 @@ import org.processmining.specpp.datastructures.encoding.BitEncodedSet;
 import org.processmining.specpp.datastructures.encoding.IntEncoding;
 import org.processmining.specpp.datastructures.encoding.IntEncodings;
 import org.processmining.specpp.datastructures.petri.Place;
+import org.processmining.specpp.datastructures.petri.PlaceInterner;
 import org.processmining.specpp.datastructures.petri.Transition;
 
 public class PlaceMaker {
     private final IntEncoding<Transition> preEnc, postEnc;
+    private final PlaceInterner interner = new PlaceInterner();
 
     public PlaceMaker(IntEncodings<Transition> encodings) {
         this.preEnc = encodings.pre();
@@ -39,7 +41,7 @@ public class PlaceMaker {
         }
 
         public Place get() {
-            return new Place(preset, postset);
+            return interner.intern(new Place(preset, postset));
         }
 
     }
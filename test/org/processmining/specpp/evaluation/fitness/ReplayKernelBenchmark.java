@@ -0,0 +1,111 @@
+package org.processmining.specpp.evaluation.fitness;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.processmining.specpp.config.parameters.ReplayComputationParameters;
+import org.processmining.specpp.datastructures.encoding.BitMask;
+import org.processmining.specpp.datastructures.encoding.IntEncodings;
+import org.processmining.specpp.datastructures.log.Activity;
+import org.processmining.specpp.datastructures.log.Log;
+import org.processmining.specpp.datastructures.log.impls.LogBuilderImpl;
+import org.processmining.specpp.datastructures.log.impls.LogEncoder;
+import org.processmining.specpp.datastructures.log.impls.MultiEncodedLog;
+import org.processmining.specpp.datastructures.log.impls.VariantImpl;
+import org.processmining.specpp.datastructures.petri.Place;
+import org.processmining.specpp.datastructures.petri.Transition;
+import org.processmining.specpp.datastructures.util.Tuple2;
+import org.processmining.specpp.evaluation.markings.QuickReplay;
+import org.processmining.specpp.util.HardcodedTestInput;
+import org.processmining.specpp.util.PlaceMaker;
+
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the table based {@code ReplayKernel} (as used by {@code AbsolutelyNoFrillsFitnessEvaluator}) against the indicator lambda based evaluators on a synthetic log.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ReplayKernelBenchmark {
+
+    @Param({"1000", "50000"})
+    public int variantCount;
+
+    @Param({"20"})
+    public int activityCount;
+
+    private Place[] places;
+    private BitMask consideredVariants;
+    private AbstractBasicFitnessEvaluator kernelEvaluator, forkJoinEvaluator, markingHistoryEvaluator;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(42);
+        String[] labels = new String[activityCount];
+        for (int i = 0; i < activityCount; i++) {
+            labels[i] = "a" + i;
+        }
+        Tuple2<IntEncodings<Transition>, Map<String, Transition>> tuple2 = HardcodedTestInput.setupTransitions(labels);
+        Map<String, Activity> activities = HardcodedTestInput.setupActivities(labels);
+
+        LogBuilderImpl builder = new LogBuilderImpl();
+        for (int i = 0; i < variantCount; i++) {
+            Activity[] variant = new Activity[5 + random.nextInt(30)];
+            for (int j = 0; j < variant.length; j++) {
+                variant[j] = activities.get(labels[random.nextInt(activityCount)]);
+            }
+            builder.appendVariant(VariantImpl.of(variant), 1 + random.nextInt(100));
+        }
+        Log log = builder.build();
+        MultiEncodedLog multiEncodedLog = LogEncoder.multiEncodeLog(log, tuple2.getT1(), HardcodedTestInput.setupMapping(activities, tuple2.getT2()), LogEncoder.LogEncodingParameters.getDefault());
+        consideredVariants = multiEncodedLog.variantIndices();
+
+        PlaceMaker maker = new PlaceMaker(tuple2.getT1());
+        places = new Place[64];
+        for (int i = 0; i < places.length; i++) {
+            places[i] = maker.preset(tuple2.getT2().get(labels[random.nextInt(activityCount)]))
+                             .postset(tuple2.getT2().get(labels[random.nextInt(activityCount)]), tuple2.getT2()
+                                                                                                         .get(labels[random.nextInt(activityCount)]))
+                             .get();
+        }
+
+        ReplayComputationParameters parameters = ReplayComputationParameters.permitNegative(true);
+        kernelEvaluator = new AbsolutelyNoFrillsFitnessEvaluator(multiEncodedLog, () -> consideredVariants, parameters);
+        forkJoinEvaluator = new ForkJoinFitnessEvaluator(multiEncodedLog, () -> consideredVariants, parameters);
+        markingHistoryEvaluator = new MarkingHistoryBasedFitnessEvaluator(multiEncodedLog, () -> consideredVariants, parameters, p -> QuickReplay.makeHistory(multiEncodedLog, p));
+    }
+
+    @Benchmark
+    public void replayKernel(Blackhole bh) {
+        for (Place place : places) {
+            bh.consume(kernelEvaluator.eval(place));
+        }
+    }
+
+    @Benchmark
+    public void forkJoinFitnessEvaluator(Blackhole bh) {
+        for (Place place : places) {
+            bh.consume(forkJoinEvaluator.eval(place));
+        }
+    }
+
+    @Benchmark
+    public void markingHistoryBasedFitnessEvaluator(Blackhole bh) {
+        for (Place place : places) {
+            bh.consume(markingHistoryEvaluator.eval(place));
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(ReplayKernelBenchmark.class.getSimpleName()).build()).run();
+    }
+
+}
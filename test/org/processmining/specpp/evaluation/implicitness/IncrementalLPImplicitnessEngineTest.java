@@ -0,0 +1,99 @@
+package org.processmining.specpp.evaluation.implicitness;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.processmining.specpp.datastructures.encoding.*;
+import org.processmining.specpp.datastructures.petri.Place;
+import org.processmining.specpp.datastructures.petri.Transition;
+
+import java.util.*;
+
+public class IncrementalLPImplicitnessEngineTest {
+
+    private static final int ROUNDS = 200;
+
+    @Test
+    public void agreesWithCalculator() {
+        compare(new Random(42), IncrementalLPImplicitnessEngine.MAX_PIVOTS);
+    }
+
+    @Test
+    public void agreesWithCalculatorOnSimplexFallback() {
+        long fallbacks = compare(new Random(43), 0);
+        Assert.assertTrue(fallbacks > 0);
+    }
+
+    /**
+     * Accepts and removes random places while comparing every test of the engine with a from scratch solve of the calculator.
+     *
+     * @return the number of tests the engine handed over to commons-math
+     */
+    private static long compare(Random random, int pivotLimit) {
+        long fallbacks = 0;
+        for (int round = 0; round < ROUNDS; round++) {
+            int transitionCount = 4 + random.nextInt(12);
+            List<Transition> transitions = new ArrayList<>();
+            for (int i = 0; i < transitionCount; i++) {
+                transitions.add(new Transition("t" + i));
+            }
+            List<Transition> presetTransitions = new ArrayList<>(transitions.subList(0, transitionCount - 1));
+            List<Transition> postsetTransitions = new ArrayList<>(transitions.subList(1, transitionCount));
+            Collections.shuffle(presetTransitions, random);
+            Collections.shuffle(postsetTransitions, random);
+            IntEncodings<Transition> encodings = new IntEncodings<>(HashmapEncoding.ofList(presetTransitions), HashmapEncoding.ofList(postsetTransitions));
+
+            LPBasedImplicitnessCalculator calculator = new LPBasedImplicitnessCalculator(encodings);
+            IncrementalLPImplicitnessEngine engine = new IncrementalLPImplicitnessEngine(encodings, pivotLimit);
+
+            List<Place> current = new ArrayList<>();
+            for (Place place : randomPlaces(random, encodings, 2 + random.nextInt(25))) {
+                boolean implicit = engine.isImplicit(place);
+                Assert.assertEquals("round " + round + ": " + place + " among " + current, calculator.isImplicitAmong(place, current), implicit);
+                if (!implicit || random.nextBoolean()) {
+                    current.add(place);
+                    engine.add(place);
+                }
+                if (random.nextInt(5) == 0 && !current.isEmpty()) {
+                    engine.remove(current.remove(random.nextInt(current.size())));
+                }
+            }
+            Assert.assertEquals(current.size(), engine.size());
+
+            for (Place place : current) {
+                List<Place> others = new ArrayList<>(current);
+                others.remove(place);
+                Assert.assertEquals("round " + round + ": " + place + " among " + others, calculator.isImplicitAmong(place, others), engine.isImplicit(place));
+            }
+            fallbacks += engine.simplexFallbacks();
+        }
+        return fallbacks;
+    }
+
+    /**
+     * Random distinct places followed by unions of some of them, which are likely implicit.
+     */
+    static List<Place> randomPlaces(Random random, IntEncodings<Transition> encodings, int count) {
+        IntEncoding<Transition> pre = encodings.pre(), post = encodings.post();
+        double density = 0.15 + random.nextDouble() * 0.3;
+        List<Place> places = new ArrayList<>();
+        Set<Place> seen = new HashSet<>();
+        while (places.size() < count) {
+            BitMask preset = new BitMask(), postset = new BitMask();
+            for (int i = 0; i < pre.size(); i++) {
+                if (random.nextDouble() < density) preset.set(i);
+            }
+            for (int i = 0; i < post.size(); i++) {
+                if (random.nextDouble() < density) postset.set(i);
+            }
+            if (preset.isEmpty() || postset.isEmpty()) continue;
+            Place place = new Place(new BitEncodedSet<>(pre, preset), new BitEncodedSet<>(post, postset));
+            if (seen.add(place)) places.add(place);
+        }
+        for (int i = 0; i < count / 3; i++) {
+            Place union = places.get(random.nextInt(places.size())).union(places.get(random.nextInt(places.size())));
+            if (seen.add(union)) places.add(union);
+        }
+        return places;
+    }
+
+}
@@ -0,0 +1,58 @@
+package org.processmining.specpp.evaluation.implicitness;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+import org.processmining.specpp.datastructures.encoding.HashmapEncoding;
+import org.processmining.specpp.datastructures.encoding.IntEncodings;
+import org.processmining.specpp.datastructures.petri.CollectionOfPlaces;
+import org.processmining.specpp.datastructures.petri.Place;
+import org.processmining.specpp.datastructures.petri.Transition;
+import org.processmining.specpp.postprocessing.LPBasedImplicitnessPostProcessing;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+public class ParallelImplicitnessPostProcessingTest {
+
+    private static final int ROUNDS = 40;
+
+    private final ForkJoinPool pool = new ForkJoinPool(3);
+
+    @After
+    public void shutdownPool() {
+        pool.shutdownNow();
+    }
+
+    /**
+     * Place sets span several blocks, such that the block size adapts, and contain many unions, such that witnesses are invalidated by removals within a block and places are tested again.
+     */
+    @Test
+    public void removesWhatSequentialRemoves() {
+        Random random = new Random(7);
+        for (int round = 0; round < ROUNDS; round++) {
+            int transitionCount = 6 + random.nextInt(16);
+            List<Transition> transitions = new ArrayList<>();
+            for (int i = 0; i < transitionCount; i++) {
+                transitions.add(new Transition("t" + i));
+            }
+            List<Transition> presetTransitions = new ArrayList<>(transitions.subList(0, transitionCount - 1));
+            List<Transition> postsetTransitions = new ArrayList<>(transitions.subList(1, transitionCount));
+            Collections.shuffle(presetTransitions, random);
+            Collections.shuffle(postsetTransitions, random);
+            IntEncodings<Transition> encodings = new IntEncodings<>(HashmapEncoding.ofList(presetTransitions), HashmapEncoding.ofList(postsetTransitions));
+
+            List<Place> places = IncrementalLPImplicitnessEngineTest.randomPlaces(random, encodings, 10 + random.nextInt(90));
+            Collections.shuffle(places, random);
+            CollectionOfPlaces input = new CollectionOfPlaces(places);
+
+            CollectionOfPlaces sequential = new LPBasedImplicitnessPostProcessing(new LPBasedImplicitnessCalculator(encodings)).postProcess(input);
+            CollectionOfPlaces parallel = new LPBasedImplicitnessPostProcessing.Parallel(new LPBasedImplicitnessCalculator(encodings), pool).postProcess(input);
+            Assert.assertEquals("round " + round, new ArrayList<>(sequential.getPlaces()), new ArrayList<>(parallel.getPlaces()));
+        }
+    }
+
+}